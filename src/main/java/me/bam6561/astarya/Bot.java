@@ -10,8 +10,11 @@ import me.bam6561.astarya.commands.about.Info;
 import me.bam6561.astarya.commands.about.Ping;
 import me.bam6561.astarya.commands.audio.Queue;
 import me.bam6561.astarya.commands.audio.*;
+import me.bam6561.astarya.commands.audio.managers.MetricsServer;
+import me.bam6561.astarya.commands.audio.managers.SpotifyManager;
 import me.bam6561.astarya.commands.games.*;
 import me.bam6561.astarya.commands.owner.Delete;
+import me.bam6561.astarya.commands.owner.Metrics;
 import me.bam6561.astarya.commands.owner.Settings;
 import me.bam6561.astarya.commands.owner.Shutdown;
 import me.bam6561.astarya.commands.utility.*;
@@ -42,7 +45,7 @@ import java.util.*;
  * in Discord chat through the usage of its bot token.
  *
  * @author Danny Nguyen
- * @version 1.9.1
+ * @version 1.9.5
  * @since 1.0
  */
 public class Bot {
@@ -89,9 +92,12 @@ public class Bot {
     presence.setStatus(OnlineStatus.DO_NOT_DISTURB);
     presence.setActivity(Activity.listening("Nothing"));
 
+    SpotifyManager.getINSTANCE(); // Issue the first Spotify access token before any play command
+    MetricsServer.getINSTANCE(); // Start the metrics scrape endpoint if configured
+
     EventWaiter waiter = new EventWaiter();
     commandClient = createCommandClient(waiter);
-    api.addEventListener(commandClient, waiter, new MessageEvent());
+    api.addEventListener(commandClient, waiter, new MessageEvent(), new VoiceEvent());
   }
 
   /**
@@ -110,12 +116,12 @@ public class Bot {
         .setPrefix(prefix)
         .setAlternativePrefix(alternatePrefix)
         .addCommands(new Credits(), new Help(), new Info(), new Ping(),
-            new ClearQueue(), new Join(), new Leave(), new Loop(), new Lyrics(),
+            new ClearQueue(), new Filter(), new Find(), new Import(), new Join(), new Jump(), new Leave(), new Loop(), new Lyrics(),
             new NowPlaying(), new Pause(), new Play(), new PlayNext(), new Queue(),
             new Remove(), new Return(), new SearchTrack(waiter), new SetPosition(),
             new Shuffle(), new Skip(), new Swap(), new Choose(), new CoinFlip(),
             new HighOrLow(waiter), new PandorasBox(loadPandorasBoxPrompts()), new Roll(),
-            new Delete(), new Settings(prefix, alternatePrefix), new Shutdown(),
+            new Delete(), new Metrics(), new Settings(prefix, alternatePrefix), new Shutdown(),
             new ColorRole(loadColorRoles()), new Emote(), new Jpg(), new Poll(waiter),
             new Profile(), new Remind(), new Server())
         .build();
@@ -0,0 +1,34 @@
+package me.bam6561.astarya;
+
+import me.bam6561.astarya.commands.audio.managers.PlayerManager;
+import net.dv8tion.jda.api.events.guild.voice.GenericGuildVoiceEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Voice state listener.
+ *
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class VoiceEvent extends ListenerAdapter {
+  /**
+   * No parameter constructor.
+   */
+  public VoiceEvent() {
+  }
+
+  /**
+   * Pauses or resumes the guild's audio player when
+   * members join, leave, move, or deafen in voice channels.
+   *
+   * @param e guild voice event
+   */
+  @Override
+  public void onGenericGuildVoice(@NotNull GenericGuildVoiceEvent e) {
+    PlayerManager.getINSTANCE().getPlaybackReaper().updateListeners(Objects.requireNonNull(e, "Null guild voice event").getGuild());
+  }
+}
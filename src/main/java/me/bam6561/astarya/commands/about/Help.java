@@ -5,6 +5,7 @@ import com.jagrosh.jdautilities.command.CommandEvent;
 import me.bam6561.astarya.commands.audio.*;
 import me.bam6561.astarya.commands.games.*;
 import me.bam6561.astarya.commands.owner.Delete;
+import me.bam6561.astarya.commands.owner.Metrics;
 import me.bam6561.astarya.commands.owner.Settings;
 import me.bam6561.astarya.commands.owner.Shutdown;
 import me.bam6561.astarya.commands.utility.*;
@@ -14,7 +15,7 @@ import net.dv8tion.jda.api.EmbedBuilder;
  * Command invocation that provides documentation on Astarya's commands.
  *
  * @author Danny Nguyen
- * @version 1.9.4
+ * @version 1.9.5
  * @since 1.0
  */
 public class Help extends Command {
@@ -74,11 +75,11 @@ public class Help extends Command {
           "for more details on each command. Alternatively, see " +
           "[Astarya's Wiki](https://github.com/Bam6561/Astarya/wiki).");
       embed.addField("About", "> credits | help | info | ping ", true);
-      embed.addField("Audio", "> clearQueue | join | leave | loop | " +
+      embed.addField("Audio", "> clearQueue | filter | find | import | join | jump | leave | loop | " +
           "nowPlaying | pause | playNext | play | queue | remove | return | " +
           "searchTrack | setPosition | shuffle | skip | swap", true);
       embed.addField("Games", "> choose | coinflip | highorlow | pandorasbox | roll", true);
-      embed.addField("Owner", "> delete | settings | shutdown", true);
+      embed.addField("Owner", "> delete | metrics | settings | shutdown", true);
       embed.addField("Utility", "> color | emote | jpg | poll | profile | remind | server", true);
     }
 
@@ -96,14 +97,19 @@ public class Help extends Command {
         case "credits" -> setCommandDetails(Help.Command.CREDITS);
         case "delete", "purge" -> setCommandDetails(Help.Command.DELETE);
         case "emote", "emoji" -> setCommandDetails(Help.Command.EMOTE);
+        case "filter", "fx", "effects" -> setCommandDetails(Help.Command.FILTER);
+        case "find", "lookup" -> setCommandDetails(Help.Command.FIND);
         case "help" -> setCommandDetails(Help.Command.HELP);
         case "highorlow", "guess" -> setCommandDetails(Help.Command.HIGHORLOW);
+        case "import", "imp" -> setCommandDetails(Help.Command.IMPORT);
         case "info", "about" -> setCommandDetails(Help.Command.INFO);
         case "join", "j" -> setCommandDetails(Help.Command.JOIN);
+        case "jump", "skipto", "jt" -> setCommandDetails(Help.Command.JUMP);
         case "jpg" -> setCommandDetails(Help.Command.JPG);
         case "leave", "l", "disconnect", "dc" -> setCommandDetails(Help.Command.LEAVE);
         case "loop", "repeat" -> setCommandDetails(Help.Command.LOOP);
         case "lyrics" -> setCommandDetails(Help.Command.LYRICS);
+        case "metrics", "stats" -> setCommandDetails(Help.Command.METRICS);
         case "nowplaying", "np" -> setCommandDetails(Help.Command.NOWPLAYING);
         case "pandorasbox", "pb" -> setCommandDetails(Help.Command.PANDORASBOX);
         case "pause", "stop" -> setCommandDetails(Help.Command.PAUSE);
@@ -214,6 +220,27 @@ public class Help extends Command {
         "[1]Emote",
         "emote :watameSnacks:"),
 
+    /**
+     * {@link Filter}
+     */
+    FILTER("Help: Filter",
+        "Sets volume, bass boost, speed, or equalizer filters. No parameters shows the " +
+            "current filters. Volume is 0-150, bass is 0-5, speed is 50-200%, and EQ sets " +
+            "one of 15 bands to a gain from -25 to 100. Tracks stream unfiltered while no filters are set.",
+        "filter, fx, effects",
+        "[0]Filters [1]Reset [1]Nightcore [2]Volume/Bass/Speed Amount [3]EQ Band Gain",
+        "filter, filter bass 3, filter speed 125, filter eq 1 20, filter reset"),
+
+    /**
+     * {@link Find}
+     */
+    FIND("Help: Find",
+        "Finds tracks in the track queue whose title or requester has words beginning " +
+            "with each word searched for, or whose track identifier matches exactly. Shows up to 10 matches.",
+        "find, lookup",
+        "[1 ++]TitleOrRequester",
+        "find duck song, find john"),
+
     /**
      * {@link Help}
      */
@@ -232,6 +259,17 @@ public class Help extends Command {
         "[0]HighOrLow",
         "highorlow"),
 
+    /**
+     * {@link Import}
+     */
+    IMPORT("Help: Import",
+        "Adds the tracks of an attached M3U, PLS, or plain text playlist file to the track queue in order. " +
+            "Urls are played as is, and other entries are searched for on YouTube by their title or file name. " +
+            "Reads up to 1000 entries.",
+        "import, imp",
+        "[0]PlaylistFileAttachment",
+        "import +playlist.m3u"),
+
     /**
      * {@link Info}
      */
@@ -250,6 +288,16 @@ public class Help extends Command {
         "[0]Join",
         "join"),
 
+    /**
+     * {@link Jump}
+     */
+    JUMP("Help: Jump",
+        "Skips to a track in the track queue by its queue number or the first track matching a search, " +
+            "leaving the rest of the track queue in place.",
+        "jump, skipto, jt",
+        "[1]QueueNumber [1 ++]TitleOrRequester",
+        "jump 5, jump duck song"),
+
     /**
      * {@link Jpg}
      */
@@ -283,8 +331,19 @@ public class Help extends Command {
     LYRICS("Help: Lyrics",
         "Finds lyrics of a song using Genius.",
         "lyrics",
-        "[1 ++]SongName",
-        "lyrics duck song"),
+        "[0]CurrentTrack [1 ++]SongName",
+        "lyrics, lyrics duck song"),
+
+    /**
+     * {@link Metrics}
+     */
+    METRICS("Help: Metrics",
+        "Shows the server's audio playback metrics: frames sent and missed, underruns and how long they last, " +
+            "jitter in Discord's 20ms frame polling, load latencies, and voice reconnects. " +
+            "All servers' metrics can also be scraped in the Prometheus format if METRICS_PORT is set in the .env file.",
+        "metrics, stats",
+        "[0]Metrics",
+        "metrics"),
 
     /**
      * {@link NowPlaying}
@@ -389,18 +448,18 @@ public class Help extends Command {
      * {@link Remove}
      */
     REMOVE("Help: Remove",
-        "Removes track(s) from the track queue.",
+        "Removes track(s) from the track queue. Ranges include both ends and can be left open, and mentioning a user removes all their tracks.",
         "remove, r",
-        "[1]QueueNumber [1 ++]QueueNumbers",
-        "remove 1 | remove 2 4 5"),
+        "[1]QueueNumber/Range/User [1 ++]QueueNumbers/Ranges/Users",
+        "remove 1 | remove 2 4 5 | remove 3-40 | remove 10- | remove @user"),
 
     /**
      * {@link Return}
      */
     RETURN("Help: Return",
-        "Returns a recently skipped track to the track queue.",
+        "Returns a recently played or skipped track to the track queue.",
         "return, ret",
-        "[0]RecentlySkipped [1]SkippedNumber",
+        "[0]RecentlyPlayed [1]PlayedNumber",
         "return | return 1"),
 
     /**
@@ -446,14 +505,14 @@ public class Help extends Command {
     SETTINGS("Help: Settings",
         "Provides information on Astarya settings.",
         "settings, config",
-        "[0]MainMenu [1]Setting [2]True/False",
-        "settings | settings deleteinvoke | settings deleteinvoke true"),
+        "[0]MainMenu [1]Setting [2]Value",
+        "settings | settings deleteinvoke | settings deleteinvoke true | settings opusquality 8"),
 
     /**
      * {@link Shuffle}
      */
     SHUFFLE("Help: Shuffle",
-        "Shuffles the track queue.",
+        "Toggles playing the track queue in a random order. The queue's order is kept, so turning it off unshuffles.",
         "shuffle, mix",
         "[0]Shuffle",
         "shuffle"),
@@ -0,0 +1,212 @@
+package me.bam6561.astarya.commands.audio;
+
+import com.jagrosh.jdautilities.command.Command;
+import com.jagrosh.jdautilities.command.CommandEvent;
+import me.bam6561.astarya.commands.audio.managers.AudioFilters;
+import me.bam6561.astarya.commands.audio.managers.AudioScheduler;
+import me.bam6561.astarya.commands.audio.managers.PlayerManager;
+import me.bam6561.astarya.commands.owner.Settings;
+import me.bam6561.astarya.enums.BotMessage;
+import net.dv8tion.jda.api.entities.channel.unions.AudioChannelUnion;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Command invocation that sets the audio player's {@link AudioFilters}.
+ *
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class Filter extends Command {
+  /**
+   * Associates the command with its properties.
+   */
+  public Filter() {
+    this.name = "filter";
+    this.aliases = new String[]{"filter", "fx", "effects"};
+    this.arguments = "[0]Filters [1]Reset [1]Nightcore [2]Volume/Bass/Speed Amount [3]EQ Band Gain";
+    this.help = "Sets the audio player's filters.";
+  }
+
+  /**
+   * Checks if the user is in the same voice channel as the bot to read the command request.
+   *
+   * @param ce command event
+   */
+  @Override
+  protected void execute(CommandEvent ce) {
+    Settings.deleteInvoke(ce);
+
+    AudioChannelUnion userChannel = ce.getMember().getVoiceState().getChannel();
+    AudioChannelUnion botChannel = ce.getGuild().getSelfMember().getVoiceState().getChannel();
+
+    if (userChannel == null) {
+      ce.getChannel().sendMessage(BotMessage.USER_NOT_IN_VC.getMessage()).queue();
+      return;
+    }
+
+    if (userChannel.equals(botChannel)) {
+      new FilterRequest(ce).readRequest();
+    } else {
+      ce.getChannel().sendMessage(BotMessage.USER_NOT_IN_SAME_VC.getMessage()).queue();
+    }
+  }
+
+  /**
+   * Represents a filter query.
+   *
+   * @param ce command event
+   * @author Danny Nguyen
+   * @version 1.9.5
+   * @since 1.9.5
+   */
+  private record FilterRequest(CommandEvent ce) {
+    /**
+     * Either shows the current filters or checks if the
+     * command request was formatted correctly before setting a filter.
+     */
+    private void readRequest() {
+      String[] parameters = ce.getMessage().getContentRaw().split("\\s");
+      int numberOfParameters = parameters.length - 1;
+      AudioScheduler audioScheduler = PlayerManager.getINSTANCE().getPlaybackManager(ce.getGuild()).audioScheduler;
+      AudioFilters audioFilters = audioScheduler.getAudioFilters();
+
+      if (numberOfParameters == 0) {
+        sendFilters(audioFilters);
+        return;
+      }
+
+      String filter = parameters[1].toLowerCase();
+      try {
+        switch (numberOfParameters) {
+          case 1 -> {
+            switch (filter) {
+              case "reset", "off" -> audioFilters.reset();
+              case "nightcore", "nc" -> audioFilters.setSpeed(1.25);
+              default -> {
+                ce.getChannel().sendMessage(Error.NONEXISTENT_FILTER.getMessage()).queue();
+                return;
+              }
+            }
+          }
+          case 2 -> {
+            int amount = Integer.parseInt(parameters[2]);
+            switch (filter) {
+              case "volume", "vol" -> audioFilters.setVolume(amount);
+              case "bass", "bassboost" -> audioFilters.setBassBoost(amount);
+              case "speed" -> audioFilters.setSpeed(amount / 100.0);
+              default -> {
+                ce.getChannel().sendMessage(Error.NONEXISTENT_FILTER.getMessage()).queue();
+                return;
+              }
+            }
+          }
+          case 3 -> {
+            if (!filter.equals("eq")) {
+              ce.getChannel().sendMessage(Error.NONEXISTENT_FILTER.getMessage()).queue();
+              return;
+            }
+            audioFilters.setGain(Integer.parseInt(parameters[2]) - 1, Integer.parseInt(parameters[3]) / 100f);
+          }
+          default -> {
+            ce.getChannel().sendMessage(BotMessage.INVALID_NUMBER_OF_PARAMETERS.getMessage()).queue();
+            return;
+          }
+        }
+      } catch (NumberFormatException e) {
+        ce.getChannel().sendMessage(Error.INVALID_AMOUNT.getMessage()).queue();
+        return;
+      } catch (IllegalArgumentException e) {
+        ce.getChannel().sendMessage(Error.AMOUNT_OUT_OF_RANGE.getMessage()).queue();
+        return;
+      }
+      audioScheduler.updateFilters();
+
+      StringBuilder filterConfirmation = new StringBuilder();
+      filterConfirmation.append("**Filter:** ").append(describeFilters(audioFilters)).append(" [").append(ce.getAuthor().getAsTag()).append("]");
+      ce.getChannel().sendMessage(filterConfirmation).queue();
+    }
+
+    /**
+     * Sends the current filters.
+     *
+     * @param audioFilters {@link AudioFilters}
+     */
+    private void sendFilters(AudioFilters audioFilters) {
+      ce.getChannel().sendMessage("**Filters:** " + describeFilters(audioFilters)).queue();
+    }
+
+    /**
+     * Describes the active filters.
+     *
+     * @param audioFilters {@link AudioFilters}
+     * @return active filters, or `OFF` if none are active
+     */
+    private String describeFilters(AudioFilters audioFilters) {
+      if (!audioFilters.isActive()) {
+        return "`OFF`";
+      }
+      StringBuilder filters = new StringBuilder();
+      if (audioFilters.getVolume() != AudioFilters.DEFAULT_VOLUME) {
+        filters.append("`Volume ").append(audioFilters.getVolume()).append("%` ");
+      }
+      if (audioFilters.getBassBoost() > 0) {
+        filters.append("`Bass ").append(audioFilters.getBassBoost()).append("` ");
+      }
+      if (audioFilters.getSpeed() != 1.0) {
+        filters.append("`Speed ").append(Math.round(audioFilters.getSpeed() * 100)).append("%` ");
+      }
+      float[] gains = audioFilters.getGains();
+      for (int band = 0; band < gains.length; band++) {
+        if (gains[band] != 0) {
+          filters.append("`EQ ").append(band + 1).append(": ").append(Math.round(gains[band] * 100)).append("%` ");
+        }
+      }
+      return filters.toString().trim();
+    }
+  }
+
+  /**
+   * Types of filter errors.
+   */
+  private enum Error {
+    /**
+     * Nonexistent filter.
+     */
+    NONEXISTENT_FILTER("Nonexistent filter. Use volume, bass, speed, eq, nightcore, or reset."),
+
+    /**
+     * Amount isn't a number.
+     */
+    INVALID_AMOUNT("Provide filter amounts as whole numbers."),
+
+    /**
+     * Amount out of range.
+     */
+    AMOUNT_OUT_OF_RANGE("Filter amount out of range. Volume: 0-150, Bass: 0-5, Speed: 50-200, EQ: Band 1-15 Gain -25-100.");
+
+    /**
+     * Message.
+     */
+    private final String message;
+
+    /**
+     * Associates an error with its message.
+     *
+     * @param message message
+     */
+    Error(String message) {
+      this.message = message;
+    }
+
+    /**
+     * Gets the error's message.
+     *
+     * @return error's message
+     */
+    @NotNull
+    public String getMessage() {
+      return this.message;
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package me.bam6561.astarya.commands.audio;
+
+import com.jagrosh.jdautilities.command.Command;
+import com.jagrosh.jdautilities.command.CommandEvent;
+import me.bam6561.astarya.commands.audio.managers.AudioScheduler;
+import me.bam6561.astarya.commands.audio.managers.PlayerManager;
+import me.bam6561.astarya.commands.audio.managers.QueueSearchIndex;
+import me.bam6561.astarya.commands.owner.Settings;
+import me.bam6561.astarya.enums.BotMessage;
+
+import java.util.List;
+
+/**
+ * Command invocation that finds tracks in the {@link AudioScheduler#getTrackQueue() queue}
+ * by title, requester, or track identifier using the {@link QueueSearchIndex}.
+ *
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class Find extends Command {
+  /**
+   * Maximum number of matches shown.
+   */
+  private static final int MAXIMUM_MATCHES = 10;
+
+  /**
+   * Associates the command with its properties.
+   */
+  public Find() {
+    this.name = "find";
+    this.aliases = new String[]{"find", "lookup"};
+    this.arguments = "[1 ++]TitleOrRequester";
+    this.help = "Finds tracks in the track queue.";
+  }
+
+  /**
+   * Checks if the user provided a search before sending the matching tracks' queue numbers.
+   *
+   * @param ce command event
+   */
+  @Override
+  protected void execute(CommandEvent ce) {
+    Settings.deleteInvoke(ce);
+
+    String[] parameters = ce.getMessage().getContentRaw().split("\\s", 2);
+    if (parameters.length < 2 || parameters[1].isBlank()) {
+      ce.getChannel().sendMessage(BotMessage.INVALID_NUMBER_OF_PARAMETERS.getMessage()).queue();
+      return;
+    }
+    sendMatches(ce, parameters[1]);
+  }
+
+  /**
+   * Sends the first matching tracks in queue order.
+   *
+   * @param ce     command event
+   * @param search search
+   */
+  private void sendMatches(CommandEvent ce, String search) {
+    AudioScheduler audioScheduler = PlayerManager.getINSTANCE().getPlaybackManager(ce.getGuild()).audioScheduler;
+    List<QueueSearchIndex.Match> matches = audioScheduler.findTracks(search, MAXIMUM_MATCHES);
+    if (matches.isEmpty()) {
+      ce.getChannel().sendMessage("No matches found.").queue();
+      return;
+    }
+
+    StringBuilder findResults = new StringBuilder("**Found:**\n");
+    for (QueueSearchIndex.Match match : matches) {
+      TrackQueueIndex entry = match.entry();
+      // Displayed indices to users are different from data index so add 1
+      findResults.append("**[").append(match.index() + 1).append("]** `").append(entry.getTitle())
+          .append("` {*").append(TrackTime.convertLong(entry.getDuration())).append("*} ")
+          .append(entry.getRequester()).append("\n");
+    }
+    ce.getChannel().sendMessage(findResults).queue();
+  }
+}
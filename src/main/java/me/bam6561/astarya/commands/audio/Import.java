@@ -0,0 +1,143 @@
+package me.bam6561.astarya.commands.audio;
+
+import com.jagrosh.jdautilities.command.Command;
+import com.jagrosh.jdautilities.command.CommandEvent;
+import me.bam6561.astarya.commands.audio.managers.AudioScheduler;
+import me.bam6561.astarya.commands.audio.managers.PlayerManager;
+import me.bam6561.astarya.commands.audio.managers.PlaylistImporter;
+import me.bam6561.astarya.commands.owner.Settings;
+import me.bam6561.astarya.enums.BotMessage;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.channel.middleman.AudioChannel;
+import net.dv8tion.jda.api.entities.channel.unions.AudioChannelUnion;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Command invocation that adds the tracks of an attached playlist
+ * file to the {@link AudioScheduler#getTrackQueue() queue}.
+ * <p>
+ * Supported playlist files:
+ * <ul>
+ *  <li> M3U and M3U8
+ *  <li> PLS
+ *  <li> Plain text, one url or search per line
+ * </ul>
+ * <p>
+ * Files are read and resolved in the background by the {@link PlaylistImporter}.
+ *
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class Import extends Command {
+  /**
+   * Associates the command with its properties.
+   */
+  public Import() {
+    this.name = "import";
+    this.aliases = new String[]{"import", "imp"};
+    this.arguments = "[0]PlaylistFileAttachment";
+    this.help = "Adds the tracks of an attached playlist file to the track queue.";
+  }
+
+  /**
+   * Checks if the user is in the same voice channel as the bot to read the command request.
+   * <p>
+   * If the bot is not currently in any voice channel, then attempt to join the same one as the user.
+   *
+   * @param ce command event
+   */
+  @Override
+  protected void execute(CommandEvent ce) {
+    AudioChannelUnion userChannel = ce.getMember().getVoiceState().getChannel();
+    AudioChannelUnion botChannel = ce.getGuild().getSelfMember().getVoiceState().getChannel();
+
+    if (userChannel == null) {
+      Settings.deleteInvoke(ce);
+      ce.getChannel().sendMessage(BotMessage.USER_NOT_IN_VC.getMessage()).queue();
+      return;
+    }
+
+    if (botChannel == null) {
+      joinVoiceChannel(ce);
+      readAttachment(ce);
+      return;
+    }
+
+    if (userChannel.equals(botChannel)) {
+      readAttachment(ce);
+    } else {
+      Settings.deleteInvoke(ce);
+      ce.getChannel().sendMessage(BotMessage.USER_NOT_IN_SAME_VC.getMessage()).queue();
+    }
+  }
+
+  /**
+   * Attempts to connect the bot to the same voice channel as the user.
+   *
+   * @param ce command event
+   */
+  private void joinVoiceChannel(CommandEvent ce) {
+    AudioChannel audioChannel = ce.getMember().getVoiceState().getChannel();
+    try {
+      ce.getGuild().getAudioManager().openAudioConnection(audioChannel);
+      ce.getChannel().sendMessage("Connected to <#" + audioChannel.getId() + ">").queue();
+    } catch (Exception e) { // Insufficient permissions
+      ce.getChannel().sendMessage("Unable to join <#" + audioChannel.getId() + ">").queue();
+    }
+  }
+
+  /**
+   * Checks if a supported playlist file was attached before importing it.
+   * <p>
+   * The {@link PlaylistImporter} deletes the command invocation
+   * after reading the file, since deleting it also deletes the file.
+   *
+   * @param ce command event
+   */
+  private void readAttachment(CommandEvent ce) {
+    List<Message.Attachment> attachments = ce.getMessage().getAttachments();
+    if (attachments.isEmpty() || !PlaylistImporter.isPlaylistFile(attachments.get(0))) {
+      Settings.deleteInvoke(ce);
+      ce.getChannel().sendMessage(Error.NO_PLAYLIST_FILE.getMessage()).queue();
+      return;
+    }
+    PlayerManager.getINSTANCE().getPlaylistImporter().importPlaylist(ce, attachments.get(0));
+  }
+
+  /**
+   * Types of import errors.
+   */
+  private enum Error {
+    /**
+     * No supported playlist file attached.
+     */
+    NO_PLAYLIST_FILE("Attach an M3U, PLS, or TXT playlist file.");
+
+    /**
+     * Message.
+     */
+    private final String message;
+
+    /**
+     * Associates an error with its message.
+     *
+     * @param message message
+     */
+    Error(String message) {
+      this.message = message;
+    }
+
+    /**
+     * Gets the error's message.
+     *
+     * @return error's message
+     */
+    @NotNull
+    public String getMessage() {
+      return this.message;
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package me.bam6561.astarya.commands.audio;
+
+import com.jagrosh.jdautilities.command.Command;
+import com.jagrosh.jdautilities.command.CommandEvent;
+import me.bam6561.astarya.commands.audio.managers.AudioScheduler;
+import me.bam6561.astarya.commands.audio.managers.PlayerManager;
+import me.bam6561.astarya.commands.audio.managers.QueueSearchIndex;
+import me.bam6561.astarya.commands.owner.Settings;
+import me.bam6561.astarya.enums.BotMessage;
+import net.dv8tion.jda.api.entities.channel.unions.AudioChannelUnion;
+
+import java.util.List;
+
+/**
+ * Command invocation that immediately plays a track from the {@link AudioScheduler#getTrackQueue() queue}
+ * by its queue number or the first track matching a search in the {@link QueueSearchIndex}.
+ *
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class Jump extends Command {
+  /**
+   * Associates the command with its properties.
+   */
+  public Jump() {
+    this.name = "jump";
+    this.aliases = new String[]{"jump", "skipto", "jt"};
+    this.arguments = "[1]QueueNumber [1 ++]TitleOrRequester";
+    this.help = "Skips to a track in the track queue.";
+  }
+
+  /**
+   * Checks if the user is in the same voice channel as the bot to read the command request.
+   *
+   * @param ce command event
+   */
+  @Override
+  protected void execute(CommandEvent ce) {
+    Settings.deleteInvoke(ce);
+
+    AudioChannelUnion userChannel = ce.getMember().getVoiceState().getChannel();
+    AudioChannelUnion botChannel = ce.getGuild().getSelfMember().getVoiceState().getChannel();
+
+    if (userChannel == null) {
+      ce.getChannel().sendMessage(BotMessage.USER_NOT_IN_VC.getMessage()).queue();
+      return;
+    }
+
+    if (userChannel.equals(botChannel)) {
+      new JumpRequest(ce).interpretRequest();
+    } else {
+      ce.getChannel().sendMessage(BotMessage.USER_NOT_IN_SAME_VC.getMessage()).queue();
+    }
+  }
+
+  /**
+   * Represents a jump to track query.
+   *
+   * @param ce command event
+   * @author Danny Nguyen
+   * @version 1.9.5
+   * @since 1.9.5
+   */
+  private record JumpRequest(CommandEvent ce) {
+    /**
+     * Checks if the command request was formatted correctly
+     * before finding the track to jump to.
+     */
+    private void interpretRequest() {
+      String[] parameters = ce.getMessage().getContentRaw().split("\\s", 2);
+      if (parameters.length < 2 || parameters[1].isBlank()) {
+        ce.getChannel().sendMessage(BotMessage.INVALID_NUMBER_OF_PARAMETERS.getMessage()).queue();
+        return;
+      }
+
+      AudioScheduler audioScheduler = PlayerManager.getINSTANCE().getPlaybackManager(ce.getGuild()).audioScheduler;
+      String target = parameters[1].trim();
+      try {
+        // Displayed indices to users are different from data index so subtract 1
+        int index = Integer.parseInt(target) - 1;
+        jumpToTrack(audioScheduler, new QueueSearchIndex.Match(index, audioScheduler.getTrackQueue().get(index)));
+      } catch (NumberFormatException e) {
+        List<QueueSearchIndex.Match> matches = audioScheduler.findTracks(target, 1);
+        if (matches.isEmpty()) {
+          ce.getChannel().sendMessage("No matches found.").queue();
+        } else {
+          jumpToTrack(audioScheduler, matches.get(0));
+        }
+      } catch (IndexOutOfBoundsException e) {
+        ce.getChannel().sendMessage(BotMessage.INVALID_QUEUE_NUMBER.getMessage()).queue();
+      }
+    }
+
+    /**
+     * Plays the track immediately and sends a confirmation.
+     *
+     * @param audioScheduler {@link AudioScheduler}
+     * @param match          track to jump to
+     */
+    private void jumpToTrack(AudioScheduler audioScheduler, QueueSearchIndex.Match match) {
+      TrackQueueIndex entry = match.entry();
+      audioScheduler.jumpTo(entry);
+
+      StringBuilder jumpConfirmation = new StringBuilder();
+      jumpConfirmation.append("**Jump:** **[").append(match.index() + 1).append("]** `")
+          .append(entry.getTitle()).append("` {*").append(TrackTime.convertLong(entry.getDuration())).append("*} ")
+          .append(entry.getRequester()).append(" [").append(ce.getAuthor().getAsTag()).append("]");
+      ce.getChannel().sendMessage(jumpConfirmation).queue();
+    }
+  }
+}
@@ -2,28 +2,22 @@ package me.bam6561.astarya.commands.audio;
 
 import com.jagrosh.jdautilities.command.Command;
 import com.jagrosh.jdautilities.command.CommandEvent;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import me.bam6561.astarya.commands.audio.managers.GeniusManager;
+import me.bam6561.astarya.commands.audio.managers.PlayerManager;
 import me.bam6561.astarya.commands.owner.Settings;
-import me.bam6561.astarya.enums.BotMessage;
 import net.dv8tion.jda.api.EmbedBuilder;
-import org.json.JSONException;
-import org.json.JSONObject;
-
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
-import java.util.stream.Collectors;
+import org.jetbrains.annotations.NotNull;
 
 /**
  * Command invocation that queries Genius API for a song's lyrics.
  * <p>
  * By default, the command is set to return the first five matches.
+ * <p>
+ * Searches are answered asynchronously by the {@link GeniusManager}.
  *
  * @author Danny Nguyen
- * @version 1.8.9
+ * @version 1.9.5
  * @since 1.7.2
  */
 public class Lyrics extends Command {
@@ -33,12 +27,12 @@ public class Lyrics extends Command {
   public Lyrics() {
     this.name = "lyrics";
     this.aliases = new String[]{"lyrics"};
-    this.arguments = "[1 ++]SongName";
+    this.arguments = "[0]CurrentTrack [1 ++]SongName";
     this.help = "Finds lyrics of a song using Genius.";
   }
 
   /**
-   * Checks if user provided parameters to process the command request.
+   * Searches for the user provided song, or the currently playing track if none was provided.
    *
    * @param ce command event
    */
@@ -50,144 +44,128 @@ public class Lyrics extends Command {
     int numberOfParameters = parameters.length - 1;
 
     if (numberOfParameters >= 1) {
-      new LyricsRequest(ce, parameters).queryGeniusApi();
+      new LyricsRequest(ce, buildSearchQuery(parameters)).queryGeniusApi();
+      return;
+    }
+
+    AudioTrack playingTrack = PlayerManager.getINSTANCE().getPlaybackManager(ce.getGuild()).audioScheduler.getAudioPlayer().getPlayingTrack();
+    if (playingTrack != null) {
+      new LyricsRequest(ce, cleanTrackTitle(playingTrack.getInfo().title)).queryGeniusApi();
     } else {
-      ce.getChannel().sendMessage(BotMessage.INVALID_NUMBER_OF_PARAMETERS.getMessage()).queue();
+      ce.getChannel().sendMessage(Error.NOTHING_PLAYING.getMessage()).queue();
     }
   }
 
   /**
-   * Represents a Genius track query.
+   * Builds a search query from user provided parameters.
    *
-   * @param ce         command event
    * @param parameters user provided parameters
-   * @author Danny Nguyen
-   * @version 1.8.9
-   * @since 1.8.9
+   * @return text containing search query
    */
-  private record LyricsRequest(CommandEvent ce, String[] parameters) {
-    /**
-     * Combines an endpoint URL with its search query to query Genius API with.
-     */
-    private void queryGeniusApi() {
-      try {
-        URL endpointUrlQuery = new URL("https://genius.com/api/search/song?q=" + buildSearchQuery());
-        String httpResponse = getHttpResponse(endpointUrlQuery);
-        parseHttpResponse(httpResponse);
-      } catch (MalformedURLException ignored) {
-        // Url is pre-set to be non-null
-      }
-    }
-
-    /**
-     * Builds a search query from user provided parameters.
-     *
-     * @return text containing search query
-     */
-    private String buildSearchQuery() {
-      StringBuilder searchQuery = new StringBuilder();
-      for (int i = 1; i < parameters.length; i++) {
-        searchQuery.append(parameters[i]);
-        if (i < parameters.length - 1) {
-          searchQuery.append("%20");
-        }
+  private static String buildSearchQuery(String[] parameters) {
+    StringBuilder searchQuery = new StringBuilder();
+    for (int i = 1; i < parameters.length; i++) {
+      searchQuery.append(parameters[i]);
+      if (i < parameters.length - 1) {
+        searchQuery.append(" ");
       }
-      return searchQuery.toString();
     }
+    return searchQuery.toString();
+  }
 
-    /**
-     * Gets the query response from Genius API.
-     *
-     * @param endpointUrlQuery endpoint and its search query
-     * @return HTTP response
-     */
-    private String getHttpResponse(URL endpointUrlQuery) {
-      try {
-        HttpURLConnection connection = (HttpURLConnection) endpointUrlQuery.openConnection();
-        connection.setRequestMethod("GET");
-        connection.connect();
-        return new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8)).lines().collect(Collectors.joining());
-      } catch (IOException e) {
-        System.out.println("Connection interrupted.");
-        return null;
-      }
-    }
+  /**
+   * Removes bracketed tags like (Official Video) or [Lyrics] from a track's title.
+   *
+   * @param title track title
+   * @return title without bracketed tags
+   */
+  private static String cleanTrackTitle(String title) {
+    String cleanedTitle = title.replaceAll("\\([^)]*\\)|\\[[^\\]]*\\]", "").trim();
+    return cleanedTitle.isEmpty() ? title : cleanedTitle;
+  }
 
+  /**
+   * Represents a Genius track query.
+   *
+   * @param ce          command event
+   * @param searchQuery search query
+   * @author Danny Nguyen
+   * @version 1.9.5
+   * @since 1.8.9
+   */
+  private record LyricsRequest(CommandEvent ce, String searchQuery) {
     /**
-     * Reads the HTTP response as a JSON and checks if
-     * any results were found before parsing its data.
-     *
-     * @param httpResponse the response from the http connection
+     * Searches Genius and responds once its results arrive.
      */
-    private void parseHttpResponse(String httpResponse) {
-      // Main JSON body
-      JSONObject httpResponseJSON = new JSONObject(httpResponse);
-      JSONObject section = (JSONObject) httpResponseJSON.getJSONObject("response").getJSONArray("sections").get(0);
-      try {
-        // Title & URL from top 5 matches
-        GeniusMatchResult[] matches = new GeniusMatchResult[5];
-        for (int i = 0; i < 5; i++) {
-          JSONObject match = section.getJSONArray("hits").getJSONObject(i).getJSONObject("result");
-          matches[i] = new GeniusMatchResult(match.getString("title_with_featured"), match.getString("url"));
+    private void queryGeniusApi() {
+      GeniusManager.getINSTANCE().search(searchQuery).whenComplete((searchResults, e) -> {
+        if (e != null) {
+          ce.getChannel().sendMessage(Error.UNABLE_TO_REACH_GENIUS.getMessage()).queue();
+        } else if (searchResults.matches().isEmpty()) {
+          ce.getChannel().sendMessage("No matches found.").queue();
+        } else {
+          sendLyricsEmbed(searchResults);
         }
-        sendLyricsEmbed(section, matches);
-      } catch (JSONException e) {
-        ce.getChannel().sendMessage("No matches found.").queue();
-      }
+      });
     }
 
     /**
      * Sends the lyrics results embed.
      *
-     * @param section main JSON body
-     * @param matches query matches
+     * @param searchResults {@link GeniusManager.SearchResults}
      */
-    private void sendLyricsEmbed(JSONObject section, GeniusMatchResult[] matches) {
+    private void sendLyricsEmbed(GeniusManager.SearchResults searchResults) {
       // - Title [Link](URL)
       StringBuilder descriptionBuilder = new StringBuilder();
-      for (GeniusMatchResult geniusMatchResult : matches) {
-        descriptionBuilder.append("- ").append(geniusMatchResult.getTitle());
-        descriptionBuilder.append(" [Link](").append(geniusMatchResult.getUrl()).append(") \n");
+      for (GeniusManager.Match match : searchResults.matches()) {
+        descriptionBuilder.append("- ").append(match.title());
+        descriptionBuilder.append(" [Link](").append(match.url()).append(") \n");
       }
-      // Embed Thumbnail
-      String firstMatchImageLink = section.getJSONArray("hits").getJSONObject(0).getJSONObject("result").getString("song_art_image_url");
 
       EmbedBuilder embed = new EmbedBuilder();
       embed.setAuthor("Lyrics Results");
-      embed.setThumbnail(firstMatchImageLink);
+      embed.setThumbnail(searchResults.thumbnailUrl());
       embed.setDescription(descriptionBuilder);
       Settings.sendEmbed(ce, embed);
     }
+  }
 
+  /**
+   * Types of lyrics errors.
+   */
+  private enum Error {
     /**
-     * Represents a track result from Genius API.
+     * No song provided and nothing playing.
+     */
+    NOTHING_PLAYING("Provide a song name or play a track."),
+
+    /**
+     * Genius unreachable.
+     */
+    UNABLE_TO_REACH_GENIUS("Unable to reach Genius. Try again later.");
+
+    /**
+     * Message.
+     */
+    private final String message;
+
+    /**
+     * Associates an error with its message.
      *
-     * @param title track title
-     * @param url   track url
-     * @author Danny Nguyen
-     * @version 1.7.8
-     * @since 1.7.2
+     * @param message message
      */
-    private record GeniusMatchResult(String title, String url) {
-      /**
-       * Gets the track's title.
-       *
-       * @return track's title
-       */
-      private String getTitle() {
-        return this.title;
-      }
+    Error(String message) {
+      this.message = message;
+    }
 
-      /**
-       * Gets the track's url.
-       *
-       * @return track's url
-       */
-      private String getUrl() {
-        return this.url;
-      }
+    /**
+     * Gets the error's message.
+     *
+     * @return error's message
+     */
+    @NotNull
+    public String getMessage() {
+      return this.message;
     }
   }
 }
-
-
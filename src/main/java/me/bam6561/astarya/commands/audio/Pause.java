@@ -2,21 +2,18 @@ package me.bam6561.astarya.commands.audio;
 
 import com.jagrosh.jdautilities.command.Command;
 import com.jagrosh.jdautilities.command.CommandEvent;
-import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
-import me.bam6561.astarya.Bot;
+import me.bam6561.astarya.commands.audio.managers.AudioScheduler;
 import me.bam6561.astarya.commands.audio.managers.PlayerManager;
+import me.bam6561.astarya.commands.audio.managers.PresenceManager;
 import me.bam6561.astarya.commands.owner.Settings;
 import me.bam6561.astarya.enums.BotMessage;
-import net.dv8tion.jda.api.OnlineStatus;
-import net.dv8tion.jda.api.entities.Activity;
 import net.dv8tion.jda.api.entities.channel.unions.AudioChannelUnion;
-import net.dv8tion.jda.api.managers.Presence;
 
 /**
  * Command invocation that pauses the audio player.
  *
  * @author Danny Nguyen
- * @version 1.8.10
+ * @version 1.9.5
  * @since 1.2.5
  */
 public class Pause extends Command {
@@ -54,31 +51,19 @@ public class Pause extends Command {
   }
 
   /**
-   * Pauses the audio player.
+   * Pauses the audio player, or resumes it if it's paused.
    * <p>
-   * Sets the bot's presence according to if it's paused, playing music, or not playing anything.
+   * The {@link AudioScheduler} reports to the {@link PresenceManager} if it's paused, playing music, or not playing anything.
    *
    * @param ce command event
    */
   private void setAudioPlayerPause(CommandEvent ce) {
-    AudioPlayer audioPlayer = PlayerManager.getINSTANCE().getPlaybackManager(ce.getGuild()).audioScheduler.getAudioPlayer();
-    Presence presence = Bot.getApi().getPresence();
-
-    if (!audioPlayer.isPaused()) { // Paused - Idle Yellow
-      audioPlayer.setPaused(true);
-      presence.setActivity(Activity.listening("Paused"));
-      presence.setStatus(OnlineStatus.IDLE);
-      ce.getChannel().sendMessage("Audio player paused.").queue();
-    } else { // Playing Music - Online Green || Not playing audio - Do Not Disturb Red
-      audioPlayer.setPaused(false);
-      try {
-        presence.setActivity(Activity.listening(audioPlayer.getPlayingTrack().getInfo().title));
-        presence.setStatus(OnlineStatus.ONLINE);
-      } catch (NullPointerException e) { // No track currently playing
-        presence.setActivity(Activity.listening("Nothing"));
-        presence.setStatus(OnlineStatus.DO_NOT_DISTURB);
-      }
-      ce.getChannel().sendMessage("Audio player resumed.").queue();
-    }
+    AudioScheduler audioScheduler = PlayerManager.getINSTANCE().getPlaybackManager(ce.getGuild()).audioScheduler;
+    audioScheduler.togglePaused()
+        .thenAccept(paused -> ce.getChannel().sendMessage(paused ? "Audio player paused." : "Audio player resumed.").queue())
+        .exceptionally(e -> {
+          ce.getChannel().sendMessage("Audio player unavailable. Try again.").queue();
+          return null;
+        });
   }
 }
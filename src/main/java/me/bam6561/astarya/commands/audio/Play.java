@@ -2,9 +2,9 @@ package me.bam6561.astarya.commands.audio;
 
 import com.jagrosh.jdautilities.command.Command;
 import com.jagrosh.jdautilities.command.CommandEvent;
-import io.github.cdimascio.dotenv.Dotenv;
 import me.bam6561.astarya.commands.audio.managers.AudioScheduler;
 import me.bam6561.astarya.commands.audio.managers.PlayerManager;
+import me.bam6561.astarya.commands.audio.managers.SpotifyManager;
 import me.bam6561.astarya.commands.owner.Settings;
 import me.bam6561.astarya.enums.BotMessage;
 import net.dv8tion.jda.api.entities.channel.middleman.AudioChannel;
@@ -14,10 +14,6 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 import se.michaelthelin.spotify.SpotifyApi;
 import se.michaelthelin.spotify.exceptions.SpotifyWebApiException;
-import se.michaelthelin.spotify.model_objects.credentials.ClientCredentials;
-import se.michaelthelin.spotify.requests.authorization.client_credentials.ClientCredentialsRequest;
-import se.michaelthelin.spotify.requests.data.albums.GetAlbumsTracksRequest;
-import se.michaelthelin.spotify.requests.data.playlists.GetPlaylistRequest;
 import se.michaelthelin.spotify.requests.data.tracks.GetTrackRequest;
 
 import java.io.IOException;
@@ -30,14 +26,17 @@ import java.io.IOException;
  * <p>
  * A Spotify API key is required to queue Spotify songs, playlists, and album links.
  * <p>
- * Spotify API limits:
+ * Spotify playlist and album tracks are queued as placeholders
+ * that are only searched for on YouTube when they're almost up.
+ * <p>
+ * Spotify playlists and albums are read in full, a page at a time:
  * <ul>
- *  <li> Playlists: 100
- *  <li> Albums: 50
+ *  <li> Playlists: 100 tracks per page
+ *  <li> Albums: 50 tracks per page
  * </ul>
  *
  * @author Danny Nguyen
- * @version 1.8.10
+ * @version 1.9.5
  * @since 1.1.0
  */
 public class Play extends Command {
@@ -151,25 +150,13 @@ public class Play extends Command {
     /**
      * Checks if a Spotify API Key was provided in order for the bot to look up the names
      * of tracks within Spotify track, playlist, and album links to play from YouTube.
+     * <p>
+     * The {@link SpotifyManager} keeps its access token fresh, so no token is requested here.
      */
     private void readSpotifyApiKey() {
-      Dotenv dotenv = Dotenv.load();
-      String spotifyClientId = dotenv.get("SPOTIFY_CLIENT_ID");
-      String spotifyClientSecret = dotenv.get("SPOTIFY_CLIENT_SECRET");
-
       if (parameters[1].contains("https://open.spotify.com/")) {
-        if (spotifyClientId != null && spotifyClientSecret != null) {
-          try {
-            spotifyApi = new SpotifyApi.Builder()
-                .setClientId(spotifyClientId)
-                .setClientSecret(spotifyClientSecret)
-                .build();
-            ClientCredentialsRequest clientCredentialsRequest = spotifyApi.clientCredentials().build();
-            ClientCredentials clientCredentials = clientCredentialsRequest.execute();
-            spotifyApi.setAccessToken(clientCredentials.getAccessToken());
-          } catch (IOException | ParseException | SpotifyWebApiException e) {
-            System.out.println(Error.ERROR_SPOTIFY_API.message);
-          }
+        spotifyApi = SpotifyManager.getINSTANCE().getSpotifyApi();
+        if (spotifyApi != null) {
           interpretSpotifyLinkType();
         } else {
           ce.getChannel().sendMessage("Unable to play Spotify links. No Spotify API key provided in .env file.").queue();
@@ -265,7 +252,7 @@ public class Play extends Command {
         // Match track with id and get track's artists
         GetTrackRequest getTrackRequest = spotifyApi.getTrack(spotifyTrack).build();
         JSONObject jsonTrack = new JSONObject(getTrackRequest.getJson());
-        JSONArray jsonTrackArtists = new JSONArray(jsonTrack.getJSONObject("album").getJSONArray("artists").toString());
+        JSONArray jsonTrackArtists = jsonTrack.getJSONObject("album").getJSONArray("artists");
 
         PlayerManager.getINSTANCE().createAudioTrack(ce, buildYouTubeSearchQuery(jsonTrack, jsonTrackArtists), false);
       } catch (IOException | SpotifyWebApiException | ParseException e) {
@@ -274,9 +261,9 @@ public class Play extends Command {
     }
 
     /**
-     * Deciphers Spotify song names through their Spotify playlist id, adds the
-     * track's associated artists with the song name as a search query on YouTube,
-     * and adds the first result to the {@link AudioScheduler#getTrackQueue() queue}.
+     * Deciphers Spotify song names through their Spotify playlist id and adds
+     * each track to the {@link AudioScheduler#getTrackQueue() queue} as a placeholder
+     * that searches YouTube for the song name and its artists once it's almost up.
      *
      * @param spotifyPlaylist Spotify playlist identified by id
      */
@@ -284,21 +271,13 @@ public class Play extends Command {
       // Id & Query -> Id only
       spotifyPlaylist = spotifyPlaylist.substring(0, 22);
       try {
-        // Match playlist with id and get playlist's tracks
-        GetPlaylistRequest getPlaylistRequest = spotifyApi.getPlaylist(spotifyPlaylist).build();
-        JSONObject jsonPlaylist = new JSONObject(getPlaylistRequest.getJson());
-        JSONArray jsonTracks = new JSONArray(jsonPlaylist.getJSONObject("tracks").getJSONArray("items").toString());
-
-        int numberOfTracksAdded = 0;
-        for (int i = 0; i < jsonTracks.length(); i++) { // Queue tracks from playlist's tracks
-          JSONObject jsonTrack = new JSONObject(jsonTracks.getJSONObject(i).getJSONObject("track").toString());
-          JSONArray jsonTrackArtists = new JSONArray(jsonTrack.getJSONObject("album").getJSONArray("artists").toString());
-
-          PlayerManager.getINSTANCE().createAudioTrack(ce, buildYouTubeSearchQuery(jsonTrack, jsonTrackArtists), true);
-          numberOfTracksAdded++;
-        }
-
+        AudioScheduler audioScheduler = PlayerManager.getINSTANCE().getPlaybackManager(ce.getGuild()).audioScheduler;
         String requester = "[" + ce.getAuthor().getAsTag() + "]";
+
+        // Match playlist with id and queue tracks from every page of the playlist's tracks
+        int numberOfTracksAdded = SpotifyManager.getINSTANCE().forEachPlaylistTrack(spotifyPlaylist, jsonTrack ->
+            audioScheduler.queue(buildPlaceholder(jsonTrack, jsonTrack.getJSONObject("album").getJSONArray("artists"), requester)));
+
         ce.getChannel().sendMessage("**Added:** `" + numberOfTracksAdded + "` tracks " + requester).queue();
       } catch (IOException | SpotifyWebApiException | ParseException e) {
         System.out.println(Error.ERROR_SPOTIFY_API.message);
@@ -306,31 +285,23 @@ public class Play extends Command {
     }
 
     /**
-     * Deciphers Spotify song names through their Spotify playlist id, adds the
-     * track's associated artists with the song name as a search query on YouTube,
-     * and adds the first result to the {@link AudioScheduler#getTrackQueue() queue}.
+     * Deciphers Spotify song names through their Spotify album id and adds
+     * each track to the {@link AudioScheduler#getTrackQueue() queue} as a placeholder
+     * that searches YouTube for the song name and its artists once it's almost up.
      *
-     * @param spotifyAlbum Spotify playlist identified by id
+     * @param spotifyAlbum Spotify album identified by id
      */
     private void addSpotifyAlbumToQueue(String spotifyAlbum) {
       // Id & Query -> Id only
       spotifyAlbum = spotifyAlbum.substring(0, 22);
       try {
-        // Match playlist with id and get album's tracks
-        GetAlbumsTracksRequest getAlbumsTracksRequest = spotifyApi.getAlbumsTracks(spotifyAlbum).limit(50).build();
-        JSONObject jsonAlbum = new JSONObject(getAlbumsTracksRequest.getJson());
-        JSONArray jsonTracks = new JSONArray(jsonAlbum.getJSONArray("items").toString());
-
-        int numberOfTracksAdded = 0;
-        for (int i = 0; i < jsonTracks.length(); i++) { // Queue tracks from album's tracks
-          JSONObject jsonTrack = new JSONObject(jsonTracks.getJSONObject(i).toString());
-          JSONArray jsonTrackArtists = new JSONArray(jsonTrack.getJSONArray("artists").toString());
-
-          PlayerManager.getINSTANCE().createAudioTrack(ce, buildYouTubeSearchQuery(jsonTrack, jsonTrackArtists), true);
-          numberOfTracksAdded++;
-        }
-
+        AudioScheduler audioScheduler = PlayerManager.getINSTANCE().getPlaybackManager(ce.getGuild()).audioScheduler;
         String requester = "[" + ce.getAuthor().getAsTag() + "]";
+
+        // Match album with id and queue tracks from every page of the album's tracks
+        int numberOfTracksAdded = SpotifyManager.getINSTANCE().forEachAlbumTrack(spotifyAlbum, jsonTrack ->
+            audioScheduler.queue(buildPlaceholder(jsonTrack, jsonTrack.getJSONArray("artists"), requester)));
+
         ce.getChannel().sendMessage("**Added:** `" + numberOfTracksAdded + "` tracks " + requester).queue();
       } catch (IOException | SpotifyWebApiException | ParseException e) {
         System.out.println(Error.ERROR_SPOTIFY_API.message);
@@ -353,6 +324,18 @@ public class Play extends Command {
       return "ytsearch:" + String.join(" ", fullTrackRequest);
     }
 
+    /**
+     * Builds a placeholder {@link TrackQueueIndex} from a Spotify track's name and duration.
+     *
+     * @param jsonTrack        track in json format
+     * @param jsonTrackArtists track's artists in json format
+     * @param requester        requesting user
+     * @return unresolved {@link TrackQueueIndex}
+     */
+    private TrackQueueIndex buildPlaceholder(JSONObject jsonTrack, JSONArray jsonTrackArtists, String requester) {
+      return new TrackQueueIndex(jsonTrack.getString("name"), jsonTrack.getLong("duration_ms"), buildYouTubeSearchQuery(jsonTrack, jsonTrackArtists), requester);
+    }
+
     /**
      * Types of errors.
      */
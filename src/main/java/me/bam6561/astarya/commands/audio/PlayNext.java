@@ -2,20 +2,18 @@ package me.bam6561.astarya.commands.audio;
 
 import com.jagrosh.jdautilities.command.Command;
 import com.jagrosh.jdautilities.command.CommandEvent;
-import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import me.bam6561.astarya.commands.audio.managers.AudioScheduler;
 import me.bam6561.astarya.commands.audio.managers.PlayerManager;
+import me.bam6561.astarya.commands.audio.managers.TrackQueue;
 import me.bam6561.astarya.commands.owner.Settings;
 import me.bam6561.astarya.enums.BotMessage;
 import net.dv8tion.jda.api.entities.channel.unions.AudioChannelUnion;
 
-import java.util.List;
-
 /**
  * Command invocation that sets the next track to be played in the {@link AudioScheduler#getTrackQueue() queue}.
  *
  * @author Danny Nguyen
- * @version 1.8.10
+ * @version 1.9.5
  * @since 1.2.13
  */
 public class PlayNext extends Command {
@@ -89,21 +87,16 @@ public class PlayNext extends Command {
      */
     private void processPlayNextRequest(int queueNumber) {
       try {
-        List<TrackQueueIndex> trackQueue = PlayerManager.getINSTANCE().getPlaybackManager(ce.getGuild()).audioScheduler.getTrackQueue();
-        AudioTrack audioTrack = trackQueue.get(queueNumber).getAudioTrack();
-        String trackDuration = TrackTime.convertLong(audioTrack.getDuration());
+        TrackQueue trackQueue = PlayerManager.getINSTANCE().getPlaybackManager(ce.getGuild()).audioScheduler.getTrackQueue();
 
         // Displayed indices to users are different from data index so subtract 1
-        queueNumber = queueNumber - 1;
-
-        trackQueue.remove(queueNumber);
-        String requester = "[" + ce.getAuthor().getAsTag() + "]";
-        trackQueue.add(0, new TrackQueueIndex(audioTrack, requester));
+        TrackQueueIndex nextTrack = trackQueue.moveToNext(queueNumber - 1);
+        String trackDuration = TrackTime.convertLong(nextTrack.getDuration());
 
         StringBuilder playNextConfirmation = new StringBuilder();
-        playNextConfirmation.append("**Play Next:** **[").append(queueNumber + 1).append("]** `")
-            .append(audioTrack.getInfo().title).append("` {*").append(trackDuration).append("*} ")
-            .append(trackQueue.get(queueNumber).getRequester()).append(" [").append(ce.getAuthor().getAsTag()).append("]");
+        playNextConfirmation.append("**Play Next:** **[").append(queueNumber).append("]** `")
+            .append(nextTrack.getTitle()).append("` {*").append(trackDuration).append("*} ")
+            .append(nextTrack.getRequester()).append(" [").append(ce.getAuthor().getAsTag()).append("]");
         ce.getChannel().sendMessage(playNextConfirmation).queue();
       } catch (IndexOutOfBoundsException e) {
         ce.getChannel().sendMessage(BotMessage.INVALID_QUEUE_NUMBER.getMessage()).queue();
@@ -6,17 +6,16 @@ import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import me.bam6561.astarya.commands.audio.managers.AudioScheduler;
 import me.bam6561.astarya.commands.audio.managers.PlayerManager;
+import me.bam6561.astarya.commands.audio.managers.TrackQueue;
 import me.bam6561.astarya.commands.owner.Settings;
 import me.bam6561.astarya.enums.BotMessage;
 import net.dv8tion.jda.api.EmbedBuilder;
 
-import java.util.List;
-
 /**
  * Command invocation that provides a list of tracks queued and what track is currently playing.
  *
  * @author Danny Nguyen
- * @version 1.8.12
+ * @version 1.9.5
  * @since 1.2.0
  */
 public class Queue extends Command {
@@ -35,6 +34,9 @@ public class Queue extends Command {
    * {@link AudioScheduler#getTrackQueue() queue} with 10 results
    * on each page or what track is currently playing if nothing is queued.
    * <p>
+   * Queue pages include the queue's total length and roughly when each track will play,
+   * unless the queue is shuffled.
+   * <p>
    * Users can optionally provide a queue page to be displayed with an additional parameter.
    *
    * @param ce command event
@@ -63,7 +65,7 @@ public class Queue extends Command {
    * Represents a track queue query.
    *
    * @author Danny Nguyen
-   * @version 1.8.12
+   * @version 1.9.5
    * @since 1.8.12
    */
   private static class QueueRequest {
@@ -104,9 +106,12 @@ public class Queue extends Command {
     private final AudioPlayer audioPlayer;
 
     /**
-     * {@link AudioScheduler#getTrackQueue() queue}
+     * Snapshot of the {@link AudioScheduler#getTrackQueue() queue}.
+     * <p>
+     * Rendering from a snapshot never blocks playback and
+     * isn't affected by tracks changing while the page is built.
      */
-    private final List<TrackQueueIndex> trackQueue;
+    private final TrackQueue.Snapshot trackQueue;
 
     /**
      * Associates a queue request with its command event and page requested.
@@ -119,7 +124,7 @@ public class Queue extends Command {
       this.pageRequested = pageRequested;
       this.audioScheduler = PlayerManager.getINSTANCE().getPlaybackManager(ce.getGuild()).audioScheduler;
       this.audioPlayer = audioScheduler.getAudioPlayer();
-      this.trackQueue = audioScheduler.getTrackQueue();
+      this.trackQueue = audioScheduler.getTrackQueue().snapshot();
     }
 
     /**
@@ -226,6 +231,7 @@ public class Queue extends Command {
             .append("`\nPage `").append(pageRequested + 1)
             .append("` / `").append(numberOfPages).append("`");
       }
+      nowPlaying.append(" | Length `").append(convertDuration(trackQueue.getTotalDuration())).append("`");
       return nowPlaying.toString();
     }
 
@@ -234,6 +240,9 @@ public class Queue extends Command {
      * <p>
      * For partially filled pages, calculate which comes first - the next ten
      * indices or the last track entry in the {@link AudioScheduler#getTrackQueue() queue}.
+     * <p>
+     * Each track's wait is the currently playing track's remaining time plus the
+     * durations before it, found once for the page and then carried forward.
      *
      * @return formatted text representing the tracks queue
      */
@@ -244,17 +253,65 @@ public class Queue extends Command {
       int numberOfTracksInQueue = trackQueue.size();
       int lastQueueIndexOnPage = Math.min((firstTrackQueueIndexOnPage + 10), numberOfTracksInQueue);
 
+      // Time until the first track on the page plays, unknown while shuffled
+      long wait = audioScheduler.getTrackQueue().isShuffled() ? Long.MAX_VALUE :
+          addDurations(getRemainingTime(), trackQueue.getDurationBefore(firstTrackQueueIndexOnPage));
+
       // Build contents of queue page embed
       for (int i = firstTrackQueueIndexOnPage; i < lastQueueIndexOnPage; i++) {
-        String trackDuration = TrackTime.convertLong(trackQueue.get(i).getAudioTrack().getDuration());
+        TrackQueueIndex entry = trackQueue.get(i);
+        String trackDuration = TrackTime.convertLong(entry.getDuration());
         queuePage.append("**[").append(i + 1).append("]** `")
-            .append(trackQueue.get(i).getAudioTrack().getInfo().title)
+            .append(entry.getTitle())
             .append("` {*").append(trackDuration).append("*} ")
-            .append(trackQueue.get(i).getRequester()).append("\n");
+            .append(entry.getRequester());
+        if (wait != Long.MAX_VALUE) {
+          queuePage.append(" *(plays in ~").append(TrackTime.convertLong(wait)).append(")*");
+        }
+        queuePage.append("\n");
+        wait = addDurations(wait, entry.getDuration());
       }
       return queuePage.toString();
     }
 
+    /**
+     * Gets the time left before the next queued track plays.
+     *
+     * @return remaining time in milliseconds, or Long.MAX_VALUE if it's unknown
+     */
+    private long getRemainingTime() {
+      AudioTrack audioTrack = audioPlayer.getPlayingTrack();
+      if (audioTrack == null) {
+        return 0;
+      }
+      if (audioScheduler.getAudioPlayerLooped() || audioTrack.getInfo().isStream) {
+        return Long.MAX_VALUE;
+      }
+      return Math.max(0, audioTrack.getDuration() - audioTrack.getPosition());
+    }
+
+    /**
+     * Adds two durations, staying unknown if either is.
+     *
+     * @param duration      duration in milliseconds or Long.MAX_VALUE
+     * @param otherDuration other duration in milliseconds or Long.MAX_VALUE
+     * @return total duration in milliseconds or Long.MAX_VALUE
+     */
+    private long addDurations(long duration, long otherDuration) {
+      long total = duration + otherDuration;
+      return total < 0 ? Long.MAX_VALUE : total;
+    }
+
+    /**
+     * Converts a duration to readable time, or a placeholder if it's unknown.
+     *
+     * @param duration duration in milliseconds or Long.MAX_VALUE
+     * @return readable time
+     */
+    private String convertDuration(long duration) {
+      return duration == Long.MAX_VALUE ? "Unknown" : TrackTime.convertLong(duration);
+    }
+
     /**
      * Adds conditional setting notes for the now playing section.
      *
@@ -267,6 +324,9 @@ public class Queue extends Command {
       if (audioScheduler.getAudioPlayerLooped()) {
         nowPlaying.append("(Loop) ");
       }
+      if (audioScheduler.getTrackQueue().isShuffled()) {
+        nowPlaying.append("(Shuffle) ");
+      }
     }
   }
 }
\ No newline at end of file
@@ -4,19 +4,20 @@ import com.jagrosh.jdautilities.command.Command;
 import com.jagrosh.jdautilities.command.CommandEvent;
 import me.bam6561.astarya.commands.audio.managers.AudioScheduler;
 import me.bam6561.astarya.commands.audio.managers.PlayerManager;
+import me.bam6561.astarya.commands.audio.managers.TrackQueue;
 import me.bam6561.astarya.commands.owner.Settings;
 import me.bam6561.astarya.enums.BotMessage;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.entities.channel.unions.AudioChannelUnion;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
 
 /**
  * Command invocation that removes track(s) from the {@link AudioScheduler#getTrackQueue() queue}.
  *
  * @author Danny Nguyen
- * @version 1.8.12
+ * @version 1.9.5
  * @since 1.2.2
  */
 public class Remove extends Command {
@@ -26,7 +27,7 @@ public class Remove extends Command {
   public Remove() {
     this.name = "remove";
     this.aliases = new String[]{"remove", "rm", "r"};
-    this.arguments = "[1]QueueNumber [1 ++]QueueNumbers";
+    this.arguments = "[1]QueueNumber/Range/User [1 ++]QueueNumbers/Ranges/Users";
     this.help = "Removes track(s) from the track queue.";
   }
 
@@ -58,7 +59,7 @@ public class Remove extends Command {
    * Represents a track remove query.
    *
    * @author Danny Nguyen
-   * @version 1.8.12
+   * @version 1.9.5
    * @since 1.8.12
    */
   private static class RemoveRequest {
@@ -89,84 +90,136 @@ public class Remove extends Command {
     }
 
     /**
-     * Either removes a singular track from the {@link AudioScheduler#getTrackQueue() queue} or multiple.
+     * Removes the tracks matching the request from the {@link AudioScheduler#getTrackQueue() queue} in one pass.
+     * <p>
+     * Parameters can be queue numbers, ranges like {@code 3-40} or {@code 10-},
+     * and user mentions, which remove every track that user requested. Queue
+     * numbers are read and the tracks removed while the queue is locked, so
+     * the tracks removed are the ones the numbers referred to.
      */
     private void interpretRequest() {
-      switch (numberOfParameters) {
-        case 0 -> ce.getChannel().sendMessage(BotMessage.INVALID_NUMBER_OF_PARAMETERS.getMessage()).queue();
-        case 1 -> {
-          try {
-            removeTrack(Integer.parseInt(parameters[1]));
-          } catch (NumberFormatException e) {
-            ce.getChannel().sendMessage("Provide queue number to be removed.").queue();
+      if (numberOfParameters == 0) {
+        ce.getChannel().sendMessage(BotMessage.INVALID_NUMBER_OF_PARAMETERS.getMessage()).queue();
+        return;
+      }
+
+      Set<String> requesters = new HashSet<>();
+      for (User user : ce.getMessage().getMentions().getUsers()) {
+        requesters.add("[" + user.getAsTag() + "]");
+      }
+
+      TrackQueue trackQueue = PlayerManager.getINSTANCE().getPlaybackManager(ce.getGuild()).audioScheduler.getTrackQueue();
+      List<Integer> removedQueueIndices = new ArrayList<>();
+      List<TrackQueueIndex> removedTracks;
+      synchronized (trackQueue) {
+        TrackQueue.Snapshot snapshot = trackQueue.snapshot();
+        BitSet queueIndices;
+        try {
+          queueIndices = parseQueueIndices(snapshot.size());
+        } catch (NumberFormatException e) {
+          ce.getChannel().sendMessage("Provide queue numbers, ranges, or users to be removed with a space between each.").queue();
+          return;
+        } catch (IndexOutOfBoundsException e) {
+          ce.getChannel().sendMessage(BotMessage.INVALID_QUEUE_NUMBER.getMessage()).queue();
+          return;
+        }
+
+        Set<TrackQueueIndex> selectedTracks = Collections.newSetFromMap(new IdentityHashMap<>());
+        int queueIndex = 0;
+        for (TrackQueueIndex entry : snapshot) {
+          if (queueIndices.get(queueIndex) || requesters.contains(entry.getRequester())) {
+            selectedTracks.add(entry);
+            removedQueueIndices.add(queueIndex);
           }
+          queueIndex++;
         }
-        default -> removeMultipleTracks();
+        removedTracks = trackQueue.removeMatching(selectedTracks::contains);
       }
-    }
 
-    /**
-     * Removes a track from the {@link AudioScheduler#getTrackQueue() queue}.
-     *
-     * @param queueIndex track to be removed from the {@link AudioScheduler#getTrackQueue() queue}
-     */
-    private void removeTrack(int queueIndex) {
-      try {
-        AudioScheduler audioScheduler = PlayerManager.getINSTANCE().getPlaybackManager(ce.getGuild()).audioScheduler;
-        List<TrackQueueIndex> trackQueue = audioScheduler.getTrackQueue();
-
-        // Displayed indices to users are different from data index, so subtract 1
-        queueIndex = queueIndex - 1;
-
-        // Confirmation is sent first before removal to show the correct track being removed
-        sendRemoveConfirmation(ce, queueIndex, trackQueue);
-        trackQueue.remove(queueIndex);
-      } catch (IndexOutOfBoundsException e) {
-        ce.getChannel().sendMessage(BotMessage.INVALID_QUEUE_NUMBER.getMessage()).queue();
+      switch (removedTracks.size()) {
+        case 0 -> ce.getChannel().sendMessage("No tracks to remove.").queue();
+        case 1 -> sendRemoveConfirmation(ce, removedQueueIndices.get(0), removedTracks.get(0));
+        default -> sendRemoveSummary(removedQueueIndices, removedTracks);
       }
     }
 
     /**
-     * Checks if user provided parameters are integers and adds the values into a list to be mass removed.
+     * Converts queue number and range parameters into queue indices.
+     * <p>
+     * Displayed indices to users are different from data indices, so 1 is
+     * subtracted. Ranges include both ends, and ranges without an end or
+     * past the end of the queue stop at the last track. User mentions are skipped.
+     *
+     * @param numberOfTracksInQueue number of tracks in the queue
+     * @return queue indices
+     * @throws NumberFormatException     not a queue number, range, or user mention
+     * @throws IndexOutOfBoundsException nonexistent queue number
      */
-    private void removeMultipleTracks() {
-      try {
-        // Validate and convert values to integers
-        List<Integer> queueIndices = new ArrayList<>();
-        for (int i = 1; i < numberOfParameters + 1; i++) {
-          parameters[i] = parameters[i].replace(",", "");
-          queueIndices.add(Integer.valueOf(parameters[i]));
+    private BitSet parseQueueIndices(int numberOfTracksInQueue) {
+      BitSet queueIndices = new BitSet(numberOfTracksInQueue);
+      for (int i = 1; i < numberOfParameters + 1; i++) {
+        String parameter = parameters[i].replace(",", "");
+        if (parameter.isEmpty() || parameter.startsWith("<@")) {
+          continue;
         }
-
-        try {
-          // Removes the largest queue numbers first as to avoid disrupting the queue order
-          Collections.sort(queueIndices);
-          for (int i = queueIndices.size() - 1; i >= 0; i--) {
-            removeTrack(queueIndices.get(i));
+        int separator = parameter.indexOf('-', 1);
+        int firstQueueIndex = Integer.parseInt(separator == -1 ? parameter : parameter.substring(0, separator)) - 1;
+        int lastQueueIndex = firstQueueIndex;
+        if (separator != -1) {
+          String end = parameter.substring(separator + 1);
+          lastQueueIndex = end.isEmpty() ? numberOfTracksInQueue - 1 : Math.min(Integer.parseInt(end), numberOfTracksInQueue) - 1;
+          if (lastQueueIndex < firstQueueIndex) {
+            throw new IndexOutOfBoundsException();
           }
-        } catch (IndexOutOfBoundsException e) {
-          ce.getChannel().sendMessage(BotMessage.INVALID_QUEUE_NUMBER.getMessage()).queue();
         }
-      } catch (NumberFormatException e) {
-        ce.getChannel().sendMessage("Provide queue numbers to be removed with a space between each.").queue();
+        Objects.checkIndex(firstQueueIndex, numberOfTracksInQueue);
+        queueIndices.set(firstQueueIndex, lastQueueIndex + 1);
       }
+      return queueIndices;
     }
 
     /**
      * Sends confirmation the track was removed from the {@link AudioScheduler#getTrackQueue() queue}.
      *
-     * @param ce         command event
-     * @param queueIndex index in the {@link AudioScheduler#getTrackQueue() queue} to be removed
-     * @param trackQueue {@link AudioScheduler#getTrackQueue() queue}
+     * @param ce           command event
+     * @param queueIndex   index in the {@link AudioScheduler#getTrackQueue() queue} that was removed
+     * @param removedTrack {@link TrackQueueIndex} removed from the {@link AudioScheduler#getTrackQueue() queue}
      */
-    private void sendRemoveConfirmation(CommandEvent ce, int queueIndex, List<TrackQueueIndex> trackQueue) {
+    private void sendRemoveConfirmation(CommandEvent ce, int queueIndex, TrackQueueIndex removedTrack) {
       StringBuilder removeTrackConfirmation = new StringBuilder();
       removeTrackConfirmation.append("**Removed:** **[").append(queueIndex + 1).append("]** `")
-          .append(trackQueue.get(queueIndex).getAudioTrack().getInfo().title).append("`")
-          .append(trackQueue.get(queueIndex).getRequester())
+          .append(removedTrack.getTitle()).append("`")
+          .append(removedTrack.getRequester())
           .append(" *[").append(ce.getAuthor().getAsTag()).append("]*");
       ce.getChannel().sendMessage(removeTrackConfirmation).queue();
     }
+
+    /**
+     * Sends one embed confirming multiple tracks were removed from the {@link AudioScheduler#getTrackQueue() queue}.
+     * <p>
+     * Only the first 10 removed tracks are listed.
+     *
+     * @param removedQueueIndices indices in the {@link AudioScheduler#getTrackQueue() queue} that were removed
+     * @param removedTracks       {@link TrackQueueIndex tracks} removed from the {@link AudioScheduler#getTrackQueue() queue}
+     */
+    private void sendRemoveSummary(List<Integer> removedQueueIndices, List<TrackQueueIndex> removedTracks) {
+      StringBuilder removeTracksSummary = new StringBuilder();
+      removeTracksSummary.append("**Removed:** `").append(removedTracks.size()).append("` tracks")
+          .append(" *[").append(ce.getAuthor().getAsTag()).append("]*\n");
+      for (int i = 0; i < Math.min(10, removedTracks.size()); i++) {
+        removeTracksSummary.append("**[").append(removedQueueIndices.get(i) + 1).append("]** `")
+            .append(removedTracks.get(i).getTitle()).append("` ")
+            .append(removedTracks.get(i).getRequester()).append("\n");
+      }
+      if (removedTracks.size() > 10) {
+        removeTracksSummary.append("*...and ").append(removedTracks.size() - 10).append(" more*");
+      }
+
+      EmbedBuilder embed = new EmbedBuilder();
+      embed.setAuthor("Remove");
+      embed.setDescription(removeTracksSummary);
+      Settings.sendEmbed(ce, embed);
+    }
   }
 }
 
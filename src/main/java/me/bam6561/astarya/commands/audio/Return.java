@@ -2,22 +2,22 @@ package me.bam6561.astarya.commands.audio;
 
 import com.jagrosh.jdautilities.command.Command;
 import com.jagrosh.jdautilities.command.CommandEvent;
-import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import me.bam6561.astarya.commands.audio.managers.AudioScheduler;
 import me.bam6561.astarya.commands.audio.managers.PlayerManager;
+import me.bam6561.astarya.commands.audio.managers.TrackHistory;
 import me.bam6561.astarya.commands.owner.Settings;
 import me.bam6561.astarya.enums.BotMessage;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.channel.unions.AudioChannelUnion;
 
-import java.util.LinkedList;
+import java.util.List;
 
 /**
- * Command invocation that displays {@link AudioScheduler#getSkippedTracks() skipped tracks} and provides
- * an option to return a recently skipped track to the {@link AudioScheduler#getTrackQueue() queue}.
+ * Command invocation that displays recently played and skipped tracks from the {@link AudioScheduler#getTrackHistory() history}
+ * and provides an option to return one of them to the {@link AudioScheduler#getTrackQueue() queue}.
  *
  * @author Danny Nguyen
- * @version 1.8.12
+ * @version 1.9.5
  * @since 1.5.2
  */
 public class Return extends Command {
@@ -27,8 +27,8 @@ public class Return extends Command {
   public Return() {
     this.name = "return";
     this.aliases = new String[]{"return", "ret"};
-    this.arguments = "[0]RecentlySkipped [1]SkippedTrackNumber";
-    this.help = "Returns a recently skipped track to the track queue.";
+    this.arguments = "[0]RecentlyPlayed [1]PlayedTrackNumber";
+    this.help = "Returns a recently played or skipped track to the track queue.";
   }
 
   /**
@@ -60,20 +60,20 @@ public class Return extends Command {
    *
    * @param ce command event
    * @author Danny Nguyen
-   * @version 1.8.12
+   * @version 1.9.5
    * @since 1.8.12
    */
   private record ReturnRequest(CommandEvent ce) {
     /**
-     * Either displays the skipped tracks or returns a skipped track
-     * back to the {@link AudioScheduler#getTrackQueue() queue}.
+     * Either displays the recently played tracks or returns a recently
+     * played track back to the {@link AudioScheduler#getTrackQueue() queue}.
      */
     private void interpretRequest() {
       String[] parameters = ce.getMessage().getContentRaw().split("\\s");
       int numberOfParameters = parameters.length - 1;
 
       switch (numberOfParameters) {
-        case 0 -> sendSkippedTracks();
+        case 0 -> sendRecentlyPlayedTracks();
         case 1 -> {
           try {
             processReturnTrackRequest(Integer.parseInt(parameters[1]));
@@ -86,44 +86,48 @@ public class Return extends Command {
     }
 
     /**
-     * Sends an embed containing recently {@link AudioScheduler#getSkippedTracks()}.
+     * Sends an embed containing the 10 most recently played tracks in the {@link AudioScheduler#getTrackHistory() history}.
      */
-    private void sendSkippedTracks() {
-      LinkedList<TrackQueueIndex> skippedTracks = PlayerManager.getINSTANCE().getPlaybackManager(ce.getGuild()).audioScheduler.getSkippedTracks();
-      if (!skippedTracks.isEmpty()) {
+    private void sendRecentlyPlayedTracks() {
+      List<TrackHistory.PlayedTrack> playedTracks = PlayerManager.getINSTANCE().getPlaybackManager(ce.getGuild()).audioScheduler.getTrackHistory().getRecent(10);
+      if (!playedTracks.isEmpty()) {
         EmbedBuilder embed = new EmbedBuilder();
-        embed.setAuthor("Recently Skipped");
-        embed.addField("**Tracks:**", (buildSkippedTracksPage(skippedTracks)), false);
+        embed.setAuthor("Recently Played");
+        embed.addField("**Tracks:**", (buildRecentlyPlayedTracksPage(playedTracks)), false);
         Settings.sendEmbed(ce, embed);
       } else {
-        ce.getChannel().sendMessage("No recently skipped tracks.").queue();
+        ce.getChannel().sendMessage("No recently played tracks.").queue();
       }
     }
 
     /**
-     * Checks if user provided integer within range of {@link AudioScheduler#getSkippedTracks() skipped tracks}
-     * before returning a skipped track to the {@link AudioScheduler#getTrackQueue() queue}.
+     * Checks if user provided integer within range of the {@link AudioScheduler#getTrackHistory() history}
+     * before returning a recently played track to the {@link AudioScheduler#getTrackQueue() queue}.
+     * <p>
+     * The track is decoded from the history, so it isn't searched for again.
      *
-     * @param skippedTracksIndex track index in {@link AudioScheduler#getSkippedTracks()} to be returned
+     * @param historyIndex track index in the {@link AudioScheduler#getTrackHistory() history} to be returned
      */
-    private void processReturnTrackRequest(int skippedTracksIndex) {
+    private void processReturnTrackRequest(int historyIndex) {
       try {
         AudioScheduler audioScheduler = PlayerManager.getINSTANCE().getPlaybackManager(ce.getGuild()).audioScheduler;
-        LinkedList<TrackQueueIndex> skippedTracks = audioScheduler.getSkippedTracks();
 
         // Displayed indices to users are different from data index, so subtract 1
-        AudioTrack skippedTrack = skippedTracks.get(skippedTracksIndex - 1).getAudioTrack();
+        TrackQueueIndex playedTrack = audioScheduler.getTrackHistory().get(historyIndex - 1).entry();
 
         String requester = "[" + ce.getAuthor().getAsTag() + "]";
-        audioScheduler.queue(skippedTrack, requester);
-        skippedTracks.remove(skippedTracksIndex - 1);
+        if (playedTrack.isResolved()) {
+          audioScheduler.queue(new TrackQueueIndex(playedTrack.getAudioTrack().makeClone(), requester, playedTrack.getTitle(), playedTrack.getDuration(), null));
+        } else {
+          audioScheduler.queue(new TrackQueueIndex(playedTrack.getTitle(), playedTrack.getDuration(), playedTrack.getSearchQuery(), requester));
+        }
 
         StringBuilder returnTrackConfirmation = new StringBuilder();
-        String trackDuration = TrackTime.convertLong(skippedTrack.getDuration());
+        String trackDuration = TrackTime.convertLong(playedTrack.getDuration());
         returnTrackConfirmation.append("**Returned:** `")
-            .append(skippedTrack.getInfo().title)
+            .append(playedTrack.getTitle())
             .append("` {*").append(trackDuration).append("*} ")
-            .append("[").append(ce.getAuthor().getAsTag()).append("]");
+            .append(requester);
         ce.getChannel().sendMessage(returnTrackConfirmation).queue();
       } catch (IndexOutOfBoundsException e) {
         ce.getChannel().sendMessage(BotMessage.INVALID_QUEUE_NUMBER.getMessage()).queue();
@@ -131,25 +135,26 @@ public class Return extends Command {
     }
 
     /**
-     * Creates the display text to represent the {@link AudioScheduler#getSkippedTracks() skipped tracks}.
+     * Creates the display text to represent the recently played tracks.
      * <p>
-     * Skipped tracks can only contain up to 10 tracks.
-     * <p>
-     * As another skipped track is added, all previously existing tracks indices are
-     * incremented by 1. After exceeding the amount, the least recent track is removed.
+     * As another track is played or skipped, all previously existing track indices are incremented by 1.
      *
-     * @param skippedTracks {@link AudioScheduler#getSkippedTracks()}
-     * @return string representing {@link AudioScheduler#getSkippedTracks() skipped tracks}
+     * @param playedTracks recently played tracks
+     * @return string representing the recently played tracks
      */
-    private String buildSkippedTracksPage(LinkedList<TrackQueueIndex> skippedTracks) {
-      StringBuilder skippedTracksPage = new StringBuilder();
-      for (int i = 0; i < skippedTracks.size(); i++) {
-        String trackDuration = TrackTime.convertLong(skippedTracks.get(i).getAudioTrack().getDuration());
-        skippedTracksPage.append("**[").append(i + 1).append("]** `").
-            append(skippedTracks.get(i).getAudioTrack().getInfo().title)
+    private String buildRecentlyPlayedTracksPage(List<TrackHistory.PlayedTrack> playedTracks) {
+      StringBuilder playedTracksPage = new StringBuilder();
+      for (int i = 0; i < playedTracks.size(); i++) {
+        TrackQueueIndex playedTrack = playedTracks.get(i).entry();
+        String trackDuration = TrackTime.convertLong(playedTrack.getDuration());
+        playedTracksPage.append("**[").append(i + 1).append("]** ");
+        if (playedTracks.get(i).skipped()) {
+          playedTracksPage.append("(Skipped) ");
+        }
+        playedTracksPage.append("`").append(playedTrack.getTitle())
             .append("` {*").append(trackDuration).append("*} ").append("\n");
       }
-      return skippedTracksPage.toString();
+      return playedTracksPage.toString();
     }
   }
 }
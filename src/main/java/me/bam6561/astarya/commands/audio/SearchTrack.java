@@ -6,21 +6,26 @@ import com.jagrosh.jdautilities.commons.waiter.EventWaiter;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import me.bam6561.astarya.commands.audio.managers.AudioScheduler;
 import me.bam6561.astarya.commands.audio.managers.PlayerManager;
+import me.bam6561.astarya.commands.audio.managers.SearchSessions;
 import me.bam6561.astarya.commands.owner.Settings;
 import me.bam6561.astarya.enums.BotMessage;
 import net.dv8tion.jda.api.entities.channel.unions.AudioChannelUnion;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Command invocation that searches for a track to add to the
  * {@link AudioScheduler#getTrackQueue() queue} using a query of user provided parameters.
+ * <p>
+ * Each user's search results are kept in their own {@link SearchSessions search session}
+ * per guild, so searches by different users or in different guilds don't interfere.
  *
  * @author Danny Nguyen
- * @version 1.9.3
+ * @version 1.9.5
  * @since 1.2.15
  */
 public class SearchTrack extends Command {
@@ -29,11 +34,6 @@ public class SearchTrack extends Command {
    */
   private final EventWaiter waiter;
 
-  /**
-   * Command user's id.
-   */
-  private long invokerUserId = -1;
-
   /**
    * Associates the command with its properties.
    *
@@ -86,6 +86,16 @@ public class SearchTrack extends Command {
      */
     private final CommandEvent ce;
 
+    /**
+     * {@link SearchSessions}
+     */
+    private final SearchSessions searchSessions = PlayerManager.getINSTANCE().getSearchSessions();
+
+    /**
+     * Requester's {@link SearchSessions.Session search session}.
+     */
+    private SearchSessions.Session session;
+
     /**
      * Associates a search track request with its command event.
      *
@@ -103,14 +113,14 @@ public class SearchTrack extends Command {
       int numberOfParameters = parameters.length - 1;
 
       if (numberOfParameters > 0) {
-        invokerUserId = Long.parseLong(ce.getAuthor().getId()); // Lock searchTrack command request to requester
+        session = searchSessions.open(ce.getGuild().getIdLong(), ce.getAuthor().getIdLong()); // Lock searchTrack command request to requester
 
         StringBuilder searchQuery = new StringBuilder();
         for (int i = 1; i < numberOfParameters; i++) {
           searchQuery.append(parameters[i]);
         }
         String youtubeSearchQuery = "ytsearch:" + String.join(" ", searchQuery);
-        PlayerManager.getINSTANCE().searchAudioTrack(ce, youtubeSearchQuery);
+        PlayerManager.getINSTANCE().searchAudioTrack(ce, youtubeSearchQuery, session);
 
         awaitUserResponse();
       } else {
@@ -120,18 +130,21 @@ public class SearchTrack extends Command {
 
     /**
      * Awaits for user response. After a response or period of
-     * inactivity, the locked status is removed from the requester.
+     * inactivity, the requester's search session is closed.
+     * <p>
+     * A newer search by the same requester replaces this one.
      */
     private void awaitUserResponse() {
       ce.getChannel().sendTyping().queue(response -> waiter.waitForEvent(MessageReceivedEvent.class,
-          // Message sent matches invoker user's Id
-          w -> Long.parseLong(w.getMessage().getAuthor().getId()) == invokerUserId,
-          w -> {
-            invokerUserId = -1;
-            readUserResponse(w);
-          }, 15, TimeUnit.SECONDS, () -> { // Timeout
-            invokerUserId = -1;
-            ce.getChannel().sendMessage("No response. Search timed out.").queue();
+          // Message sent by invoker user in the same channel while their search is open
+          w -> w.getAuthor().getIdLong() == ce.getAuthor().getIdLong()
+              && w.getChannel().getIdLong() == ce.getChannel().getIdLong()
+              && searchSessions.isOpen(session),
+          this::readUserResponse, SearchSessions.SESSION_DURATION, TimeUnit.SECONDS, () -> { // Timeout
+            if (searchSessions.isOpen(session)) {
+              searchSessions.close(session);
+              ce.getChannel().sendMessage("No response. Search timed out.").queue();
+            }
           }));
     }
 
@@ -142,15 +155,20 @@ public class SearchTrack extends Command {
      * @param w message received event
      */
     private void readUserResponse(MessageReceivedEvent w) {
+      List<AudioTrack> searchTrackResults = searchSessions.close(session);
+      if (searchTrackResults == null) {
+        ce.getChannel().sendMessage("Search results unavailable.").queue();
+        return;
+      }
+
       String[] parameters = w.getMessage().getContentRaw().split("\\s");
       try {
         int searchTrackResultsIndex = Integer.parseInt(parameters[0]);
         try {
           AudioScheduler audioScheduler = PlayerManager.getINSTANCE().getPlaybackManager(ce.getGuild()).audioScheduler;
-          AudioTrack[] searchTrackResults = PlayerManager.getINSTANCE().getSearchTrackResults();
 
           // Displayed indices to users are different from data index, so subtract 1
-          AudioTrack track = searchTrackResults[searchTrackResultsIndex - 1];
+          AudioTrack track = searchTrackResults.get(searchTrackResultsIndex - 1);
           String requester = "[" + ce.getAuthor().getAsTag() + "]";
 
           audioScheduler.queue(track, requester);
@@ -162,7 +180,6 @@ public class SearchTrack extends Command {
               .append(requester);
           ce.getChannel().sendMessage(userResponseConfirmation).queue();
         } catch (IndexOutOfBoundsException e) {
-          invokerUserId = -1;
           ce.getChannel().sendMessage("Responses must be in range of 1-5.").queue();
         }
       } catch (NumberFormatException e) {
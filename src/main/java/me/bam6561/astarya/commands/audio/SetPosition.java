@@ -2,7 +2,8 @@ package me.bam6561.astarya.commands.audio;
 
 import com.jagrosh.jdautilities.command.Command;
 import com.jagrosh.jdautilities.command.CommandEvent;
-import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import me.bam6561.astarya.commands.audio.managers.AudioScheduler;
 import me.bam6561.astarya.commands.audio.managers.PlayerManager;
 import me.bam6561.astarya.commands.owner.Settings;
 import me.bam6561.astarya.enums.BotMessage;
@@ -12,7 +13,7 @@ import net.dv8tion.jda.api.entities.channel.unions.AudioChannelUnion;
  * Command invocation that sets the position of the currently playing track.
  *
  * @author Danny Nguyen
- * @version 1.9.4
+ * @version 1.9.5
  * @since 1.2.11
  */
 public class SetPosition extends Command {
@@ -71,8 +72,9 @@ public class SetPosition extends Command {
         ce.getChannel().sendMessage(BotMessage.INVALID_NUMBER_OF_PARAMETERS.getMessage()).queue();
         return;
       }
-      AudioPlayer audioPlayer = PlayerManager.getINSTANCE().getPlaybackManager(ce.getGuild()).audioScheduler.getAudioPlayer();
-      if (audioPlayer.getPlayingTrack() == null) {
+      AudioScheduler audioScheduler = PlayerManager.getINSTANCE().getPlaybackManager(ce.getGuild()).audioScheduler;
+      AudioTrack playingTrack = audioScheduler.getAudioPlayer().getPlayingTrack();
+      if (playingTrack == null) {
         ce.getChannel().sendMessage("Nothing is currently playing.").queue();
         return;
       }
@@ -81,16 +83,23 @@ public class SetPosition extends Command {
         ce.getChannel().sendMessage("Invalid time frame. Provide hh:mm:ss.").queue();
         return;
       }
-      if (audioPlayer.getPlayingTrack().getDuration() > trackPositionToSet) {
+      if (playingTrack.getDuration() > trackPositionToSet) {
         ce.getChannel().sendMessage("Requested position exceeds track length.").queue();
         return;
       }
 
-      audioPlayer.getPlayingTrack().setPosition(trackPositionToSet);
-
-      StringBuilder setPositionConfirmation = new StringBuilder();
-      setPositionConfirmation.append("**Set Position:** {*").append(TrackTime.convertLong(trackPositionToSet)).append("*} [").append(ce.getAuthor().getAsTag()).append("]");
-      ce.getChannel().sendMessage(setPositionConfirmation).queue();
+      audioScheduler.seek(trackPositionToSet).thenAccept(seeked -> {
+        if (!seeked) {
+          ce.getChannel().sendMessage("Nothing is currently playing.").queue();
+          return;
+        }
+        StringBuilder setPositionConfirmation = new StringBuilder();
+        setPositionConfirmation.append("**Set Position:** {*").append(TrackTime.convertLong(trackPositionToSet)).append("*} [").append(ce.getAuthor().getAsTag()).append("]");
+        ce.getChannel().sendMessage(setPositionConfirmation).queue();
+      }).exceptionally(e -> {
+        ce.getChannel().sendMessage("Audio player unavailable. Try again.").queue();
+        return null;
+      });
     }
 
     /**
@@ -8,15 +8,11 @@ import me.bam6561.astarya.commands.owner.Settings;
 import me.bam6561.astarya.enums.BotMessage;
 import net.dv8tion.jda.api.entities.channel.unions.AudioChannelUnion;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Random;
-
 /**
- * Command invocation that shuffles the {@link AudioScheduler#getTrackQueue() queue}.
+ * Command invocation that toggles playing the {@link AudioScheduler#getTrackQueue() queue} in shuffled order.
  *
  * @author Danny Nguyen
- * @version 1.8.12
+ * @version 1.9.5
  * @since 1.2.6
  */
 public class Shuffle extends Command {
@@ -26,7 +22,7 @@ public class Shuffle extends Command {
   public Shuffle() {
     this.name = "shuffle";
     this.aliases = new String[]{"shuffle", "mix", "sh"};
-    this.help = "Shuffles the track queue.";
+    this.help = "Toggles shuffling the track queue.";
   }
 
   /**
@@ -47,28 +43,29 @@ public class Shuffle extends Command {
     }
 
     if (userChannel.equals(botChannel)) {
-      shuffleQueue(ce);
+      setTrackQueueShuffle(ce);
     } else {
       ce.getChannel().sendMessage(BotMessage.USER_NOT_IN_SAME_VC.getMessage()).queue();
     }
   }
 
   /**
-   * Shuffles the {@link AudioScheduler#getTrackQueue() queue}.
+   * Sets the shuffle status of the {@link AudioScheduler#getTrackQueue() queue}.
+   * <p>
+   * The queue's order is left untouched, so turning shuffle off plays it in its original order again.
    *
    * @param ce command event
    */
-  private void shuffleQueue(CommandEvent ce) {
-    List<TrackQueueIndex> trackQueue = PlayerManager.getINSTANCE().getPlaybackManager(ce.getGuild()).audioScheduler.getTrackQueue();
-
-    Random rand = new Random();
-    for (int i = 0; i < trackQueue.size(); i++) {
-      int indexSwitch = rand.nextInt(trackQueue.size());
-      Collections.swap(trackQueue, i, indexSwitch);
-    }
+  private void setTrackQueueShuffle(CommandEvent ce) {
+    AudioScheduler audioScheduler = PlayerManager.getINSTANCE().getPlaybackManager(ce.getGuild()).audioScheduler;
+    audioScheduler.toggleTrackQueueShuffled();
 
     StringBuilder shuffleConfirmation = new StringBuilder();
-    shuffleConfirmation.append("**Shuffle:** [").append(ce.getAuthor().getAsTag()).append("]");
+    if (audioScheduler.getTrackQueue().isShuffled()) {
+      shuffleConfirmation.append("**Shuffle:** `ON` [").append(ce.getAuthor().getAsTag()).append("]");
+    } else {
+      shuffleConfirmation.append("**Shuffle:** `OFF` [").append(ce.getAuthor().getAsTag()).append("]");
+    }
     ce.getChannel().sendMessage(shuffleConfirmation).queue();
   }
 }
@@ -13,7 +13,7 @@ import net.dv8tion.jda.api.entities.channel.unions.AudioChannelUnion;
  * Command invocation that skips the currently playing track in the audio player.
  *
  * @author Danny Nguyen
- * @version 1.8.12
+ * @version 1.9.5
  * @since 1.2.4
  */
 public class Skip extends Command {
@@ -61,9 +61,7 @@ public class Skip extends Command {
 
     boolean currentlyPlayingTrack = !(audioPlayer.getPlayingTrack() == null);
     if (currentlyPlayingTrack) {
-      String requester = "[" + ce.getAuthor().getAsTag() + "]";
-      audioScheduler.addToSkippedTracks(new TrackQueueIndex(audioPlayer.getPlayingTrack().makeClone(), requester));
-      audioScheduler.nextTrack();
+      audioScheduler.skipTrack();
 
       StringBuilder skipTrackConfirmation = new StringBuilder();
       skipTrackConfirmation.append("**Skip:** [").append(ce.getAuthor().getAsTag()).append("]");
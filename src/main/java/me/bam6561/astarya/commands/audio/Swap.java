@@ -2,21 +2,18 @@ package me.bam6561.astarya.commands.audio;
 
 import com.jagrosh.jdautilities.command.Command;
 import com.jagrosh.jdautilities.command.CommandEvent;
-import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import me.bam6561.astarya.commands.audio.managers.AudioScheduler;
 import me.bam6561.astarya.commands.audio.managers.PlayerManager;
+import me.bam6561.astarya.commands.audio.managers.TrackQueue;
 import me.bam6561.astarya.commands.owner.Settings;
 import me.bam6561.astarya.enums.BotMessage;
 import net.dv8tion.jda.api.entities.channel.unions.AudioChannelUnion;
 
-import java.util.Collections;
-import java.util.List;
-
 /**
  * Command invocation that swaps the position of a track in queue with another.
  *
  * @author Danny Nguyen
- * @version 1.8.12
+ * @version 1.9.5
  * @since 1.2.14
  */
 public class Swap extends Command {
@@ -83,24 +80,28 @@ public class Swap extends Command {
       int swapIndex = Integer.parseInt(parameters[2]) - 1;
 
       try {
-        List<TrackQueueIndex> trackQueue = PlayerManager.getINSTANCE().getPlaybackManager(ce.getGuild()).audioScheduler.getTrackQueue();
-        AudioTrack originalTrack = trackQueue.get(originalIndex).getAudioTrack();
-        AudioTrack swapTrack = trackQueue.get(swapIndex).getAudioTrack();
-
-        Collections.swap(trackQueue, originalIndex, swapIndex);
+        TrackQueue trackQueue = PlayerManager.getINSTANCE().getPlaybackManager(ce.getGuild()).audioScheduler.getTrackQueue();
+        TrackQueueIndex originalEntry;
+        TrackQueueIndex swapEntry;
 
-        String originalTrackDuration = TrackTime.convertLong(originalTrack.getDuration());
-        String swapTrackDuration = TrackTime.convertLong(swapTrack.getDuration());
+        // Read and swap under the queue's lock so another writer can't move the tracks in between
+        synchronized (trackQueue) {
+          originalEntry = trackQueue.get(originalIndex);
+          swapEntry = trackQueue.get(swapIndex);
+          trackQueue.swap(originalIndex, swapIndex);
+        }
+        String originalTrackDuration = TrackTime.convertLong(originalEntry.getDuration());
+        String swapTrackDuration = TrackTime.convertLong(swapEntry.getDuration());
 
         StringBuilder swapConfirmation = new StringBuilder();
         swapConfirmation.append("**Swap:** ").append(" [").
             append(ce.getAuthor().getAsTag()).append("]\n**[").append(originalIndex + 1).
-            append("]** `").append(originalTrack.getInfo().title).
+            append("]** `").append(originalEntry.getTitle()).
             append("` {*").append(originalTrackDuration).append("*} ").
-            append(trackQueue.get(originalIndex).getRequester()).append("\n**[").
-            append(swapIndex + 1).append("]** `").append(swapTrack.getInfo().title).
+            append(originalEntry.getRequester()).append("\n**[").
+            append(swapIndex + 1).append("]** `").append(swapEntry.getTitle()).
             append("` {*").append(swapTrackDuration).append("*} ").
-            append(trackQueue.get(swapIndex).getRequester());
+            append(swapEntry.getRequester());
         ce.getChannel().sendMessage(swapConfirmation).queue();
       } catch (IndexOutOfBoundsException e) {
         ce.getChannel().sendMessage(BotMessage.INVALID_QUEUE_NUMBER.getMessage()).queue();
@@ -2,23 +2,77 @@ package me.bam6561.astarya.commands.audio;
 
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
 
 /**
  * Represents an AudioTrack with its requester.
+ * <p>
+ * Tracks imported from Spotify are queued as placeholders that only hold
+ * their Spotify title, duration, and YouTube search query. Placeholders are
+ * replaced by a resolved entry once they come near the front of the queue.
  *
- * @param audioTrack audio track
- * @param requester  requesting user
+ * @param audioTrack  audio track, or null if not yet resolved
+ * @param requester   requesting user
+ * @param title       track title
+ * @param duration    track duration in milliseconds
+ * @param searchQuery search query to resolve the track with, or null if already resolved
  * @author Danny Nguyen
- * @version 1.7.8
+ * @version 1.9.5
  * @since 1.7.0
  */
-public record TrackQueueIndex(@NotNull AudioTrack audioTrack, @NotNull String requester) {
+public record TrackQueueIndex(@Nullable AudioTrack audioTrack, @NotNull String requester, @NotNull String title, long duration, @Nullable String searchQuery) {
   /**
-   * Gets the audio track.
+   * Associates an audio track with its requester.
+   *
+   * @param audioTrack audio track
+   * @param requester  requesting user
+   */
+  public TrackQueueIndex(@NotNull AudioTrack audioTrack, @NotNull String requester) {
+    this(Objects.requireNonNull(audioTrack, "Null track"), requester, audioTrack.getInfo().title, audioTrack.getDuration(), null);
+  }
+
+  /**
+   * Associates an unresolved track's metadata with its search query and requester.
+   *
+   * @param title       track title
+   * @param duration    track duration in milliseconds
+   * @param searchQuery search query to resolve the track with
+   * @param requester   requesting user
+   */
+  public TrackQueueIndex(@NotNull String title, long duration, @NotNull String searchQuery, @NotNull String requester) {
+    this(null, requester, title, duration, Objects.requireNonNull(searchQuery, "Null search query"));
+  }
+
+  /**
+   * Copies the placeholder with its resolved audio track.
+   * <p>
+   * The Spotify title and duration are kept so the queue doesn't change what it displays.
    *
-   * @return audio track
+   * @param audioTrack resolved audio track
+   * @return resolved {@link TrackQueueIndex}
    */
   @NotNull
+  public TrackQueueIndex resolve(@NotNull AudioTrack audioTrack) {
+    return new TrackQueueIndex(Objects.requireNonNull(audioTrack, "Null track"), requester, title, duration, null);
+  }
+
+  /**
+   * Gets if the audio track has been resolved.
+   *
+   * @return if the audio track has been resolved
+   */
+  public boolean isResolved() {
+    return this.audioTrack != null;
+  }
+
+  /**
+   * Gets the audio track.
+   *
+   * @return audio track, or null if not yet resolved
+   */
+  @Nullable
   public AudioTrack getAudioTrack() {
     return this.audioTrack;
   }
@@ -32,4 +86,33 @@ public record TrackQueueIndex(@NotNull AudioTrack audioTrack, @NotNull String re
   public String getRequester() {
     return this.requester;
   }
+
+  /**
+   * Gets the track title.
+   *
+   * @return track title
+   */
+  @NotNull
+  public String getTitle() {
+    return this.title;
+  }
+
+  /**
+   * Gets the track duration.
+   *
+   * @return track duration in milliseconds
+   */
+  public long getDuration() {
+    return this.duration;
+  }
+
+  /**
+   * Gets the search query the track is resolved with.
+   *
+   * @return search query, or null if already resolved
+   */
+  @Nullable
+  public String getSearchQuery() {
+    return this.searchQuery;
+  }
 }
@@ -0,0 +1,380 @@
+package me.bam6561.astarya.commands.audio.managers;
+
+import com.sedmelluq.discord.lavaplayer.filter.AudioFilter;
+import com.sedmelluq.discord.lavaplayer.filter.FloatPcmAudioFilter;
+import com.sedmelluq.discord.lavaplayer.filter.PcmFilterFactory;
+import com.sedmelluq.discord.lavaplayer.filter.UniversalPcmAudioFilter;
+import com.sedmelluq.discord.lavaplayer.filter.equalizer.Equalizer;
+import com.sedmelluq.discord.lavaplayer.format.AudioDataFormat;
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Represents a guild's audio filters: volume, bass boost, equalizer, and playback speed.
+ * <p>
+ * LavaPlayer can only pass opus tracks straight through to Discord without
+ * decoding them when no filters are attached and the volume is unchanged.
+ * The filter chain is therefore only attached to audio players while a PCM
+ * filter is active, and detached again once every filter is reset.
+ * <p>
+ * Filter settings are changed from command threads and read when LavaPlayer
+ * builds a track's filter chain, so the settings are replaced as a whole.
+ *
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class AudioFilters implements PcmFilterFactory {
+  /**
+   * Default volume.
+   */
+  public static final int DEFAULT_VOLUME = 100;
+
+  /**
+   * Equalizer gains added to the lowest bands per bass boost level.
+   */
+  private static final float[] BASS_BOOST_GAINS = {0.06f, 0.05f, 0.035f, 0.015f};
+
+  /**
+   * Current filter settings.
+   */
+  private volatile FilterSettings settings = new FilterSettings(DEFAULT_VOLUME, 0, new float[Equalizer.BAND_COUNT], 1.0);
+
+  /**
+   * No parameter constructor.
+   */
+  public AudioFilters() {
+  }
+
+  /**
+   * Applies the filters to an audio player, attaching the filter chain only while a PCM filter is active.
+   *
+   * @param audioPlayer audio player
+   */
+  public void apply(@NotNull AudioPlayer audioPlayer) {
+    Objects.requireNonNull(audioPlayer, "Null audio player");
+    FilterSettings settings = this.settings;
+    audioPlayer.setVolume(settings.volume());
+    audioPlayer.setFilterFactory(settings.hasPcmFilters() ? this : null);
+  }
+
+  /**
+   * Builds a track's filter chain from the current settings.
+   *
+   * @param track  audio track
+   * @param format output format
+   * @param output next filter in the pipeline
+   * @return filters from first to last
+   */
+  @Override
+  public List<AudioFilter> buildChain(AudioTrack track, AudioDataFormat format, UniversalPcmAudioFilter output) {
+    FilterSettings settings = this.settings;
+    List<AudioFilter> filters = new ArrayList<>();
+    FloatPcmAudioFilter next = output;
+    if (settings.hasEqualizer() && Equalizer.isCompatible(format)) {
+      next = new Equalizer(format.channelCount, next, settings.getEffectiveGains());
+      filters.add(0, next);
+    }
+    if (settings.speed() != 1.0) {
+      next = new SpeedFilter(format.channelCount, next, settings.speed());
+      filters.add(0, next);
+    }
+    return filters;
+  }
+
+  /**
+   * Sets the volume.
+   *
+   * @param volume volume from 0 to 150
+   * @throws IllegalArgumentException volume out of range
+   */
+  public void setVolume(int volume) {
+    if (volume < 0 || volume > 150) {
+      throw new IllegalArgumentException("Volume out of range");
+    }
+    FilterSettings settings = this.settings;
+    this.settings = new FilterSettings(volume, settings.bassBoost(), settings.gains(), settings.speed());
+  }
+
+  /**
+   * Sets the bass boost level.
+   *
+   * @param bassBoost bass boost level from 0 to 5
+   * @throws IllegalArgumentException level out of range
+   */
+  public void setBassBoost(int bassBoost) {
+    if (bassBoost < 0 || bassBoost > 5) {
+      throw new IllegalArgumentException("Bass boost out of range");
+    }
+    FilterSettings settings = this.settings;
+    this.settings = new FilterSettings(settings.volume(), bassBoost, settings.gains(), settings.speed());
+  }
+
+  /**
+   * Sets an equalizer band's gain.
+   *
+   * @param band equalizer band from 0 to 14
+   * @param gain gain from -0.25 to 1.0
+   * @throws IllegalArgumentException band or gain out of range
+   */
+  public void setGain(int band, float gain) {
+    if (band < 0 || band >= Equalizer.BAND_COUNT || gain < -0.25f || gain > 1.0f) {
+      throw new IllegalArgumentException("Band or gain out of range");
+    }
+    FilterSettings settings = this.settings;
+    float[] gains = settings.gains().clone();
+    gains[band] = gain;
+    this.settings = new FilterSettings(settings.volume(), settings.bassBoost(), gains, settings.speed());
+  }
+
+  /**
+   * Sets the playback speed, which also shifts pitch like a record played faster.
+   *
+   * @param speed playback speed from 0.5 to 2.0
+   * @throws IllegalArgumentException speed out of range
+   */
+  public void setSpeed(double speed) {
+    if (speed < 0.5 || speed > 2.0) {
+      throw new IllegalArgumentException("Speed out of range");
+    }
+    FilterSettings settings = this.settings;
+    this.settings = new FilterSettings(settings.volume(), settings.bassBoost(), settings.gains(), speed);
+  }
+
+  /**
+   * Resets every filter.
+   */
+  public void reset() {
+    this.settings = new FilterSettings(DEFAULT_VOLUME, 0, new float[Equalizer.BAND_COUNT], 1.0);
+  }
+
+  /**
+   * Gets if any filter is active, which prevents opus passthrough.
+   *
+   * @return if any filter is active
+   */
+  public boolean isActive() {
+    FilterSettings settings = this.settings;
+    return settings.volume() != DEFAULT_VOLUME || settings.hasPcmFilters();
+  }
+
+  /**
+   * Gets the volume.
+   *
+   * @return volume
+   */
+  public int getVolume() {
+    return this.settings.volume();
+  }
+
+  /**
+   * Gets the bass boost level.
+   *
+   * @return bass boost level
+   */
+  public int getBassBoost() {
+    return this.settings.bassBoost();
+  }
+
+  /**
+   * Gets a copy of the equalizer band gains.
+   *
+   * @return equalizer band gains
+   */
+  @NotNull
+  public float[] getGains() {
+    return this.settings.gains().clone();
+  }
+
+  /**
+   * Gets the playback speed.
+   *
+   * @return playback speed
+   */
+  public double getSpeed() {
+    return this.settings.speed();
+  }
+
+  /**
+   * Represents a snapshot of the filter settings.
+   *
+   * @param volume    volume
+   * @param bassBoost bass boost level
+   * @param gains     equalizer band gains, never modified once set
+   * @param speed     playback speed
+   * @author Danny Nguyen
+   * @version 1.9.5
+   * @since 1.9.5
+   */
+  private record FilterSettings(int volume, int bassBoost, float[] gains, double speed) {
+    /**
+     * Gets if any filter requires the PCM filter chain.
+     *
+     * @return if any PCM filter is active
+     */
+    private boolean hasPcmFilters() {
+      return hasEqualizer() || speed != 1.0;
+    }
+
+    /**
+     * Gets if the equalizer has any nonzero band.
+     *
+     * @return if the equalizer is active
+     */
+    private boolean hasEqualizer() {
+      if (bassBoost > 0) {
+        return true;
+      }
+      for (float gain : gains) {
+        if (gain != 0) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Gets the equalizer band gains with the bass boost added to the lowest bands.
+     *
+     * @return effective equalizer band gains
+     */
+    private float[] getEffectiveGains() {
+      float[] effectiveGains = Arrays.copyOf(gains, gains.length);
+      for (int band = 0; band < BASS_BOOST_GAINS.length; band++) {
+        effectiveGains[band] = Math.min(1.0f, effectiveGains[band] + BASS_BOOST_GAINS[band] * bassBoost);
+      }
+      return effectiveGains;
+    }
+  }
+
+  /**
+   * Represents a filter that changes playback speed by resampling with linear interpolation.
+   * <p>
+   * Faster speeds raise the pitch, which is how nightcore sounds.
+   *
+   * @author Danny Nguyen
+   * @version 1.9.5
+   * @since 1.9.5
+   */
+  private static class SpeedFilter implements FloatPcmAudioFilter {
+    /**
+     * Number of samples per channel sent downstream at once.
+     */
+    private static final int BUFFER_SIZE = 960;
+
+    /**
+     * Next filter.
+     */
+    private final FloatPcmAudioFilter downstream;
+
+    /**
+     * Input samples consumed per output sample.
+     */
+    private final double speed;
+
+    /**
+     * Previous input sample per channel.
+     */
+    private final float[] previousSamples;
+
+    /**
+     * Output samples waiting to be sent downstream.
+     */
+    private final float[][] outputBuffer;
+
+    /**
+     * Number of output samples per channel in the buffer.
+     */
+    private int bufferedSamples = 0;
+
+    /**
+     * Position of the next output sample between the previous and next input samples.
+     */
+    private double fraction = 0;
+
+    /**
+     * Associates the filter with its channels, next filter, and speed.
+     *
+     * @param channelCount number of channels
+     * @param downstream   next filter
+     * @param speed        playback speed
+     */
+    SpeedFilter(int channelCount, FloatPcmAudioFilter downstream, double speed) {
+      this.downstream = downstream;
+      this.speed = speed;
+      this.previousSamples = new float[channelCount];
+      this.outputBuffer = new float[channelCount][BUFFER_SIZE];
+    }
+
+    /**
+     * Interpolates output samples between each pair of input samples.
+     *
+     * @param input  input samples by channel
+     * @param offset first sample
+     * @param length number of samples per channel
+     * @throws InterruptedException interrupted while sending samples downstream
+     */
+    @Override
+    public void process(float[][] input, int offset, int length) throws InterruptedException {
+      for (int i = offset; i < offset + length; i++) {
+        while (fraction < 1.0) {
+          for (int channel = 0; channel < previousSamples.length; channel++) {
+            float previous = previousSamples[channel];
+            outputBuffer[channel][bufferedSamples] = (float) (previous + (input[channel][i] - previous) * fraction);
+          }
+          if (++bufferedSamples == BUFFER_SIZE) {
+            downstream.process(outputBuffer, 0, bufferedSamples);
+            bufferedSamples = 0;
+          }
+          fraction += speed;
+        }
+        fraction -= 1.0;
+        for (int channel = 0; channel < previousSamples.length; channel++) {
+          previousSamples[channel] = input[channel][i];
+        }
+      }
+    }
+
+    /**
+     * Drops buffered samples after a seek.
+     *
+     * @param requestedTime requested position
+     * @param providedTime  actual position
+     */
+    @Override
+    public void seekPerformed(long requestedTime, long providedTime) {
+      bufferedSamples = 0;
+      fraction = 0;
+      Arrays.fill(previousSamples, 0);
+      downstream.seekPerformed(requestedTime, providedTime);
+    }
+
+    /**
+     * Sends buffered samples downstream.
+     *
+     * @throws InterruptedException interrupted while sending samples downstream
+     */
+    @Override
+    public void flush() throws InterruptedException {
+      if (bufferedSamples > 0) {
+        downstream.process(outputBuffer, 0, bufferedSamples);
+        bufferedSamples = 0;
+      }
+      downstream.flush();
+    }
+
+    /**
+     * Closes the next filter.
+     */
+    @Override
+    public void close() {
+      downstream.close();
+    }
+  }
+}
@@ -0,0 +1,227 @@
+package me.bam6561.astarya.commands.audio.managers;
+
+import me.bam6561.astarya.utils.Histogram;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents a guild's audio path instrumentation.
+ * <p>
+ * The {@link AudioPlayerSendHandler} reports every time JDA polls it, so
+ * underruns, how many polls in a row they last, and how far each poll
+ * strays from JDA's 20ms cadence are measured where stutters happen.
+ * <p>
+ * Loads are timed from the request to the loaded track, and tracks that
+ * play right away are timed until their first frame is ready to send.
+ * <p>
+ * Send loop methods are only called from JDA's audio send thread and allocate nothing.
+ *
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class AudioMetrics {
+  /**
+   * Nanoseconds between JDA's polls for a frame.
+   */
+  private static final long FRAME_INTERVAL = TimeUnit.MILLISECONDS.toNanos(20);
+
+  /**
+   * Nanoseconds between polls past which the send loop is considered
+   * to have stopped rather than stalled, such as while disconnected.
+   */
+  private static final long MAXIMUM_POLL_GAP = TimeUnit.SECONDS.toNanos(1);
+
+  /**
+   * Consecutive polls without a frame ready while a track was playing.
+   */
+  private final Histogram missStreaks = new Histogram(1, 2, 3, 5, 10, 25, 50, 100, 250, 500);
+
+  /**
+   * Microseconds each poll was early or late.
+   */
+  private final Histogram pollJitter = new Histogram(250, 500, 1000, 2000, 5000, 10000, 20000, 50000, 100000);
+
+  /**
+   * Milliseconds from a track request to the track being loaded.
+   */
+  private final Histogram loadLatency = new Histogram(50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000);
+
+  /**
+   * Milliseconds from a track request to its first frame being ready, for tracks that play right away.
+   */
+  private final Histogram loadToFirstFrameLatency = new Histogram(50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000);
+
+  /**
+   * Milliseconds from a track starting to its first frame being ready.
+   */
+  private final Histogram startToFirstFrameLatency = new Histogram(5, 10, 20, 50, 100, 250, 500, 1000, 2500, 5000);
+
+  /**
+   * Polls without a frame ready while a track was playing.
+   */
+  private final AtomicLong underruns = new AtomicLong();
+
+  /**
+   * Time of the previous poll.
+   * <p>
+   * Only accessed from the send thread.
+   */
+  private long lastPoll = 0;
+
+  /**
+   * Current number of consecutive underruns.
+   * <p>
+   * Only accessed from the send thread.
+   */
+  private int missStreak = 0;
+
+  /**
+   * Time the request of a track about to play right away was made, or 0 if none.
+   */
+  private volatile long pendingLoadStart = 0;
+
+  /**
+   * Time the current track started, or 0 if its first frame was already ready.
+   */
+  private volatile long pendingTrackStart = 0;
+
+  /**
+   * No parameter constructor.
+   */
+  public AudioMetrics() {
+  }
+
+  /**
+   * Records how far a poll for a frame strayed from the 20ms cadence.
+   *
+   * @param now current time in nanoseconds
+   */
+  void onPoll(long now) {
+    long interval = now - lastPoll;
+    if (lastPoll != 0 && interval < MAXIMUM_POLL_GAP) {
+      pollJitter.record(Math.abs(interval - FRAME_INTERVAL) / 1000);
+    }
+    lastPoll = now;
+  }
+
+  /**
+   * Records a poll with a frame ready, ending any underrun streak,
+   * and times the first frame of a newly started track.
+   *
+   * @param now current time in nanoseconds
+   */
+  void onFrameReady(long now) {
+    if (missStreak > 0) {
+      missStreaks.record(missStreak);
+      missStreak = 0;
+    }
+    if (pendingTrackStart != 0) {
+      startToFirstFrameLatency.record(TimeUnit.NANOSECONDS.toMillis(now - pendingTrackStart));
+      pendingTrackStart = 0;
+      long loadStart = pendingLoadStart;
+      if (loadStart != 0) {
+        loadToFirstFrameLatency.record(TimeUnit.NANOSECONDS.toMillis(now - loadStart));
+        pendingLoadStart = 0;
+      }
+    }
+  }
+
+  /**
+   * Records a poll without a frame ready.
+   * <p>
+   * Only polls while a track is playing unpaused are underruns.
+   *
+   * @param isPlaying if a track is playing unpaused
+   */
+  void onFrameMissed(boolean isPlaying) {
+    if (isPlaying) {
+      underruns.incrementAndGet();
+      missStreak++;
+    } else if (missStreak > 0) {
+      missStreaks.record(missStreak);
+      missStreak = 0;
+    }
+  }
+
+  /**
+   * Records a loaded track request.
+   *
+   * @param requestTime time the track was requested in nanoseconds
+   * @param playsNext   if the track is about to play right away
+   */
+  public void onTrackLoaded(long requestTime, boolean playsNext) {
+    loadLatency.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - requestTime));
+    if (playsNext) {
+      pendingLoadStart = requestTime;
+    }
+  }
+
+  /**
+   * Marks a track as started, timing it until its first frame is ready.
+   */
+  void onTrackStart() {
+    pendingTrackStart = System.nanoTime();
+  }
+
+  /**
+   * Gets the consecutive underruns histogram.
+   *
+   * @return underrun streaks in polls
+   */
+  @NotNull
+  public Histogram getMissStreaks() {
+    return this.missStreaks;
+  }
+
+  /**
+   * Gets the poll jitter histogram.
+   *
+   * @return poll jitter in microseconds
+   */
+  @NotNull
+  public Histogram getPollJitter() {
+    return this.pollJitter;
+  }
+
+  /**
+   * Gets the load latency histogram.
+   *
+   * @return load latency in milliseconds
+   */
+  @NotNull
+  public Histogram getLoadLatency() {
+    return this.loadLatency;
+  }
+
+  /**
+   * Gets the load to first frame latency histogram.
+   *
+   * @return load to first frame latency in milliseconds
+   */
+  @NotNull
+  public Histogram getLoadToFirstFrameLatency() {
+    return this.loadToFirstFrameLatency;
+  }
+
+  /**
+   * Gets the track start to first frame latency histogram.
+   *
+   * @return start to first frame latency in milliseconds
+   */
+  @NotNull
+  public Histogram getStartToFirstFrameLatency() {
+    return this.startToFirstFrameLatency;
+  }
+
+  /**
+   * Gets the number of polls without a frame ready while a track was playing.
+   *
+   * @return number of underruns
+   */
+  public long getUnderruns() {
+    return this.underruns.get();
+  }
+}
@@ -5,51 +5,188 @@ import com.sedmelluq.discord.lavaplayer.track.playback.MutableAudioFrame;
 import net.dv8tion.jda.api.audio.AudioSendHandler;
 import org.jetbrains.annotations.NotNull;
 
+import java.lang.management.ManagementFactory;
 import java.nio.ByteBuffer;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Represents the component of LavaPlayer that handles the
  * bot's ability to play tracks in connected voice channels.
+ * <p>
+ * Opus frames are read into a small ring of slots sliced from one
+ * direct buffer allocated up front, so JDA's 20ms provide loop reads
+ * frames off-heap and the hot path allocates nothing per frame.
+ * <p>
+ * Frames are counted as filtered or unfiltered by whether the guild's
+ * {@link AudioFilters} were active when the frame was read. LavaPlayer doesn't
+ * mark which frames skipped decoding, so the counts don't tell opus passthrough
+ * apart from transcoding; unfiltered tracks from sources that aren't opus are still transcoded.
+ * <p>
+ * Each poll is reported to the guild's {@link AudioMetrics} to measure underruns and jitter.
+ * <p>
+ * Unfiltered frames are also appended to the current track's {@link StreamCache.Recording}.
+ * <p>
+ * While held by the {@link VoiceReconnectSupervisor}, no frames are read or sent,
+ * so frames already in the ring are sent once the voice connection is back.
  *
  * @author Danny Nguyen
- * @version 1.9.3
+ * @version 1.9.5
  * @since 1.1.0
  */
 public class AudioPlayerSendHandler implements AudioSendHandler {
   /**
-   * Audio player.
+   * Maximum size of an opus frame per 20ms.
    */
-  private final AudioPlayer audioPlayer;
+  private static final int FRAME_SIZE = 512;
 
   /**
-   * Byte buffer.
+   * Number of frames buffered ahead of JDA.
    */
-  private final ByteBuffer buffer = ByteBuffer.allocate(512); // Allocated memory per 20ms
+  private static final int RING_SIZE = 3;
 
   /**
-   * Audio frame.
+   * Number of provide calls between keeping standby players alive.
    */
-  private final MutableAudioFrame frame = new MutableAudioFrame();
+  private static final int KEEP_ALIVE_INTERVAL = 50;
 
   /**
-   * Associates the audio player with its audio player, buffer, and frame.
+   * Thread allocation counter, if supported by the JVM.
+   */
+  private static final com.sun.management.ThreadMXBean threadBean = createThreadBean();
+
+  /**
+   * {@link AudioScheduler}
+   */
+  private final AudioScheduler audioScheduler;
+
+  /**
+   * {@link AudioMetrics}
+   */
+  private final AudioMetrics audioMetrics;
+
+  /**
+   * Ring slots sliced from one direct buffer.
+   */
+  private final ByteBuffer[] slots = new ByteBuffer[RING_SIZE];
+
+  /**
+   * Audio frames writing into their matching ring slot.
+   */
+  private final MutableAudioFrame[] frames = new MutableAudioFrame[RING_SIZE];
+
+  /**
+   * Ring slot of the next frame to be sent.
+   */
+  private int head = 0;
+
+  /**
+   * Number of filled ring slots.
+   */
+  private int count = 0;
+
+  /**
+   * If frames are held while the voice connection reconnects.
+   */
+  private volatile boolean held = false;
+
+  /**
+   * Provide calls since standby players were last kept alive.
+   */
+  private int keepAliveCountdown = KEEP_ALIVE_INTERVAL;
+
+  /**
+   * Frames sent to JDA.
+   */
+  private final AtomicLong framesProvided = new AtomicLong();
+
+  /**
+   * Frames read while no {@link AudioFilters} were active.
+   */
+  private final AtomicLong unfilteredFrames = new AtomicLong();
+
+  /**
+   * Frames read while {@link AudioFilters} were active.
+   */
+  private final AtomicLong filteredFrames = new AtomicLong();
+
+  /**
+   * Times JDA asked for a frame and none was ready.
+   */
+  private final AtomicLong framesMissed = new AtomicLong();
+
+  /**
+   * Buffers allocated by the send handler, which stays at 1 after construction.
+   */
+  private final AtomicLong bufferAllocations = new AtomicLong();
+
+  /**
+   * Bytes allocated by the provide loop's thread while inside the send handler.
+   */
+  private final AtomicLong hotPathAllocatedBytes = new AtomicLong();
+
+  /**
+   * Associates the send handler with its {@link AudioScheduler}, {@link AudioMetrics}, buffer, and frames.
    *
-   * @param audioPlayer audio player
+   * @param audioScheduler {@link AudioScheduler}
    */
-  public AudioPlayerSendHandler(@NotNull AudioPlayer audioPlayer) {
-    this.audioPlayer = Objects.requireNonNull(audioPlayer, "Null audio player");
-    this.frame.setBuffer(buffer);
+  public AudioPlayerSendHandler(@NotNull AudioScheduler audioScheduler) {
+    this.audioScheduler = Objects.requireNonNull(audioScheduler, "Null audio scheduler");
+    this.audioMetrics = audioScheduler.getAudioMetrics();
+    ByteBuffer buffer = ByteBuffer.allocateDirect(FRAME_SIZE * RING_SIZE);
+    bufferAllocations.incrementAndGet();
+    for (int i = 0; i < RING_SIZE; i++) {
+      slots[i] = buffer.slice(i * FRAME_SIZE, FRAME_SIZE);
+      frames[i] = new MutableAudioFrame();
+      frames[i].setBuffer(slots[i]);
+    }
   }
 
   /**
    * Gets if the audio player can play an audio frame.
+   * <p>
+   * Tops up the ring with as many frames as the active audio player has ready,
+   * and periodically keeps the {@link TrackPrefetcher}'s standby players alive.
+   * <p>
+   * Nothing is read while frames are held.
    *
    * @return if the audio player can play an audio frame
    */
   @Override
   public boolean canProvide() {
-    return audioPlayer.provide(this.frame);
+    if (held) {
+      return false;
+    }
+    long allocatedBytes = getAllocatedBytes();
+    long now = System.nanoTime();
+    audioMetrics.onPoll(now);
+    if (--keepAliveCountdown == 0) {
+      keepAliveCountdown = KEEP_ALIVE_INTERVAL;
+      audioScheduler.getTrackPrefetcher().keepAlive();
+    }
+    boolean filtered = audioScheduler.getAudioFilters().isActive();
+    AtomicLong frameCounter = filtered ? filteredFrames : unfilteredFrames;
+    StreamCache.Recording recording = audioScheduler.getRecording();
+    if (recording != null && filtered) {
+      recording.abort();
+      recording = null;
+    }
+    while (count < RING_SIZE && audioScheduler.getAudioPlayer().provide(frames[(head + count) % RING_SIZE])) {
+      frameCounter.incrementAndGet();
+      if (recording != null) {
+        recording.append(frames[(head + count) % RING_SIZE]);
+      }
+      count++;
+    }
+    if (count == 0) {
+      framesMissed.incrementAndGet();
+      AudioPlayer audioPlayer = audioScheduler.getAudioPlayer();
+      audioMetrics.onFrameMissed(audioPlayer.getPlayingTrack() != null && !audioPlayer.isPaused());
+    } else {
+      audioMetrics.onFrameReady(now);
+    }
+    hotPathAllocatedBytes.addAndGet(getAllocatedBytes() - allocatedBytes);
+    return count > 0;
   }
 
   /**
@@ -60,7 +197,11 @@ public class AudioPlayerSendHandler implements AudioSendHandler {
   @NotNull
   @Override
   public ByteBuffer provide20MsAudio() {
-    return this.buffer.flip();
+    ByteBuffer slot = slots[head].flip();
+    head = (head + 1) % RING_SIZE;
+    count--;
+    framesProvided.incrementAndGet();
+    return slot;
   }
 
   /**
@@ -72,4 +213,89 @@ public class AudioPlayerSendHandler implements AudioSendHandler {
   public boolean isOpus() {
     return true;
   }
-}
\ No newline at end of file
+
+  /**
+   * Sets if frames are held while the voice connection reconnects.
+   *
+   * @param held if frames are held
+   */
+  public void setHeld(boolean held) {
+    this.held = held;
+  }
+
+  /**
+   * Gets the number of frames sent to JDA.
+   *
+   * @return number of frames sent
+   */
+  public long getFramesProvided() {
+    return this.framesProvided.get();
+  }
+
+  /**
+   * Gets the number of frames read while no filters were active.
+   *
+   * @return number of unfiltered frames
+   */
+  public long getUnfilteredFrames() {
+    return this.unfilteredFrames.get();
+  }
+
+  /**
+   * Gets the number of frames read while filters were active.
+   *
+   * @return number of filtered frames
+   */
+  public long getFilteredFrames() {
+    return this.filteredFrames.get();
+  }
+
+  /**
+   * Gets the number of times no frame was ready when JDA asked for one.
+   *
+   * @return number of missed frames
+   */
+  public long getFramesMissed() {
+    return this.framesMissed.get();
+  }
+
+  /**
+   * Gets the number of buffers the send handler has allocated.
+   *
+   * @return number of buffer allocations
+   */
+  public long getBufferAllocations() {
+    return this.bufferAllocations.get();
+  }
+
+  /**
+   * Gets the bytes allocated while providing frames, or -1 if the JVM can't measure it.
+   *
+   * @return bytes allocated on the hot path
+   */
+  public long getHotPathAllocatedBytes() {
+    return threadBean == null ? -1 : this.hotPathAllocatedBytes.get();
+  }
+
+  /**
+   * Gets the bytes the current thread has allocated so far.
+   *
+   * @return bytes allocated by the current thread, or 0 if unsupported
+   */
+  private static long getAllocatedBytes() {
+    return threadBean == null ? 0 : threadBean.getCurrentThreadAllocatedBytes();
+  }
+
+  /**
+   * Gets the JVM's thread allocation counter if it's available and enabled.
+   *
+   * @return thread allocation counter or null
+   */
+  private static com.sun.management.ThreadMXBean createThreadBean() {
+    if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadBean
+        && threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled()) {
+      return threadBean;
+    }
+    return null;
+  }
+}
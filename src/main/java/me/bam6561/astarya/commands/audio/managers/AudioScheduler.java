@@ -1,76 +1,269 @@
 package me.bam6561.astarya.commands.audio.managers;
 
+import com.sedmelluq.discord.lavaplayer.player.AudioLoadResultHandler;
 import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
 import com.sedmelluq.discord.lavaplayer.player.event.AudioEventAdapter;
+import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
+import com.sedmelluq.discord.lavaplayer.track.AudioPlaylist;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrackEndReason;
 import me.bam6561.astarya.Bot;
 import me.bam6561.astarya.commands.audio.TrackQueueIndex;
-import net.dv8tion.jda.api.OnlineStatus;
-import net.dv8tion.jda.api.entities.Activity;
-import net.dv8tion.jda.api.managers.Presence;
+import me.bam6561.astarya.commands.owner.Settings;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.channel.unions.AudioChannelUnion;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 /**
  * Represents the component of LavaPlayer that handles the audio
  * player's functionality related to playing tracks and track order.
+ * <p>
+ * Track transitions are requested from JDA command threads and LavaPlayer's
+ * playback thread, so they run one at a time on the scheduler's own mailbox
+ * thread. LavaPlayer dispatches track events while holding its own lock, so
+ * event handlers only post to the mailbox instead of waiting on it.
+ * <p>
+ * Upcoming tracks are buffered ahead of time by the {@link TrackPrefetcher}.
+ * When the next track was prefetched, its standby player becomes the active
+ * audio player instead of starting the track from scratch.
+ * <p>
+ * Placeholder entries are resolved into playable tracks once they're among
+ * the next few tracks to be played, so large imports don't search for every
+ * track at once.
+ * <p>
+ * Queue changes are journaled by the {@link QueueJournal}, and the queue is
+ * restored from it on startup without resolving or loading anything until
+ * playback resumes.
+ * <p>
+ * The guild's {@link AudioFilters} are applied to every audio player,
+ * so tracks stay on LavaPlayer's opus passthrough path unless a filter is set.
+ * Transcoded tracks are encoded at a quality scaled to the bot's voice channel bitrate.
+ * <p>
+ * Tracks in the {@link StreamCache} are played from their local copy, and
+ * the first full playback of other remotely sourced tracks is recorded into it.
+ * <p>
+ * The queue is searched by title, requester, or track identifier
+ * through a {@link QueueSearchIndex} kept up to date with each queue change.
  *
  * @author Danny Nguyen
- * @version 1.9.3
+ * @version 1.9.5
  * @since 1.1.0
  */
 public class AudioScheduler extends AudioEventAdapter {
   /**
-   * Audio player.
+   * Number of upcoming entries resolved ahead of time.
    */
-  private final AudioPlayer audioPlayer;
+  private static final int RESOLVE_DEPTH = 3;
 
   /**
-   * Track queue.
+   * Audio player manager.
    */
-  private final List<TrackQueueIndex> trackQueue = new ArrayList<>();
+  private final TunedAudioPlayerManager audioPlayerManager;
 
   /**
-   * Skipped tracks.
+   * Guild id.
    */
-  private final LinkedList<TrackQueueIndex> skippedTracks = new LinkedList<>();
+  private final long guildId;
+
+  /**
+   * Active audio player.
+   */
+  private volatile AudioPlayer audioPlayer;
+
+  /**
+   * {@link TrackQueue}
+   */
+  private final TrackQueue trackQueue = new TrackQueue();
+
+  /**
+   * {@link QueueSearchIndex}
+   */
+  private final QueueSearchIndex queueSearchIndex = new QueueSearchIndex();
+
+  /**
+   * {@link TrackPrefetcher}
+   */
+  private final TrackPrefetcher trackPrefetcher;
+
+  /**
+   * {@link TrackHistory}
+   */
+  private final TrackHistory trackHistory;
+
+  /**
+   * {@link AudioFilters}
+   */
+  private final AudioFilters audioFilters = new AudioFilters();
+
+  /**
+   * {@link AudioMetrics}
+   */
+  private final AudioMetrics audioMetrics = new AudioMetrics();
+
+  /**
+   * Single writer that runs track transitions in the order requested.
+   * <p>
+   * Its thread exits after a minute of inactivity. Once the scheduler is destroyed, late
+   * events from loads and listeners are discarded, and {@link Request requests}
+   * from commands are failed so they can still reply.
+   */
+  private final ThreadPoolExecutor mailbox = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+    Thread thread = new Thread(runnable, "AudioScheduler");
+    thread.setDaemon(true);
+    return thread;
+  }, AudioScheduler::reject);
+
+  /**
+   * Placeholder entries currently being resolved.
+   * <p>
+   * Only accessed from the mailbox thread.
+   */
+  private final Set<TrackQueueIndex> resolvingTracks = Collections.newSetFromMap(new IdentityHashMap<>());
+
+  /**
+   * Placeholder entry to be played as soon as it's resolved.
+   * <p>
+   * Only modified from the mailbox thread.
+   */
+  private volatile TrackQueueIndex awaitedTrack;
+
+  /**
+   * {@link TrackQueueIndex} of the currently playing track.
+   * <p>
+   * Only modified from the mailbox thread.
+   */
+  private volatile TrackQueueIndex currentTrack;
+
+  /**
+   * {@link QueueJournal}
+   */
+  private final QueueJournal queueJournal;
+
+  /**
+   * {@link StreamCache.Recording} of the currently playing track.
+   */
+  private volatile StreamCache.Recording recording;
+
+  /**
+   * If an upcoming tracks refresh is already waiting in the mailbox.
+   */
+  private final AtomicBoolean refreshPending = new AtomicBoolean();
+
+  /**
+   * If the audio player was paused because nobody was left listening.
+   * <p>
+   * Only accessed from the mailbox thread.
+   */
+  private boolean autoPaused = false;
+
+  /**
+   * If the audio player was paused while the voice connection reconnects.
+   * <p>
+   * Only modified from the mailbox thread.
+   */
+  private volatile boolean reconnectPaused = false;
 
   /**
    * If the audio player is looped.
    */
-  private boolean audioPlayerLooped = false;
+  private volatile boolean audioPlayerLooped = false;
 
   /**
-   * Associates an audio player with its audio player, track queue and skipped tracks.
+   * Associates an audio player manager with its guild, audio player, track
+   * queue, {@link TrackPrefetcher}, {@link TrackHistory}, and {@link QueueJournal}.
+   * <p>
+   * The journaled queue is restored and compacted before any new changes are journaled.
    *
-   * @param audioPlayer audio player
+   * @param audioPlayerManager {@link TunedAudioPlayerManager}
+   * @param guildId            guild id
+   * @param queueJournal       {@link QueueJournal}
+   * @param trackHistory       {@link TrackHistory}
    */
-  public AudioScheduler(@NotNull AudioPlayer audioPlayer) {
-    this.audioPlayer = Objects.requireNonNull(audioPlayer);
+  public AudioScheduler(@NotNull TunedAudioPlayerManager audioPlayerManager, long guildId, @NotNull QueueJournal queueJournal, @NotNull TrackHistory trackHistory) {
+    this.audioPlayerManager = Objects.requireNonNull(audioPlayerManager, "Null audio player manager");
+    this.guildId = guildId;
+    this.queueJournal = Objects.requireNonNull(queueJournal, "Null queue journal");
+    this.trackHistory = Objects.requireNonNull(trackHistory, "Null track history");
+    this.audioPlayer = audioPlayerManager.createPlayer(this::getOpusQuality);
+    this.audioPlayer.addListener(this);
+    this.trackPrefetcher = new TrackPrefetcher(audioPlayerManager, this, audioFilters, this::getOpusQuality);
+    this.mailbox.allowCoreThreadTimeOut(true);
+
+    for (TrackQueueIndex entry : queueJournal.restore()) {
+      trackQueue.add(entry);
+      queueSearchIndex.add(entry);
+    }
+    this.trackQueue.setChangeListener(new TrackQueue.ChangeListener() {
+      @Override
+      public void onAdd(int index, @NotNull TrackQueueIndex entry) {
+        queueSearchIndex.add(entry);
+        queueJournal.onAdd(index, entry);
+        onQueueChange();
+      }
+
+      @Override
+      public void onRemove(int index, @NotNull TrackQueueIndex removed) {
+        queueSearchIndex.remove(removed);
+        queueJournal.onRemove(index, removed);
+        onQueueChange();
+      }
+
+      @Override
+      public void onSet(int index, @NotNull TrackQueueIndex replaced, @NotNull TrackQueueIndex entry) {
+        queueSearchIndex.remove(replaced);
+        queueSearchIndex.add(entry);
+        queueJournal.onSet(index, replaced, entry);
+        onQueueChange();
+      }
+
+      @Override
+      public void onClear() {
+        queueSearchIndex.clear();
+        queueJournal.onClear();
+        onQueueChange();
+      }
+    });
+    compactQueue();
+    queueJournal.scheduleCheckpoints(this::checkpointQueue);
   }
 
   /**
-   * Updates the bot's presence when playing a new track if the audio player isn't looped.
+   * Updates the bot's presence when playing a new track if the audio player
+   * isn't looped, and starts recording the track into the {@link StreamCache}.
+   * <p>
+   * Standby players also start their tracks, which are ignored until they're promoted.
    *
    * @param audioPlayer      audio player
    * @param currentlyPlaying currently playing track
    */
   @Override
   public void onTrackStart(@NotNull AudioPlayer audioPlayer, @NotNull AudioTrack currentlyPlaying) {
-    if (!audioPlayerLooped) {
-      Presence presence = Bot.getApi().getPresence();
-      presence.setActivity(Activity.listening(Objects.requireNonNull(currentlyPlaying, "Null track").getInfo().title));
-      presence.setStatus(OnlineStatus.ONLINE);
+    if (audioPlayer == this.audioPlayer) {
+      audioMetrics.onTrackStart();
+      updatePresence(Objects.requireNonNull(currentlyPlaying, "Null track"));
+      startRecording(currentlyPlaying);
+      refreshUpcomingTracks();
     }
   }
 
   /**
    * Queues a copy of the currently playing track if the audio player is looped.
+   * <p>
+   * Tracks that finish while the audio player isn't looped are recorded in the {@link TrackHistory}.
+   * <p>
+   * Finished tracks' recordings are written to the {@link StreamCache}, and other recordings are discarded.
+   * <p>
+   * Events from standby players and players replaced by a promotion are ignored.
    *
    * @param audioPlayer audio player
    * @param loopedTrack currently looped track
@@ -78,11 +271,30 @@ public class AudioScheduler extends AudioEventAdapter {
    */
   @Override
   public void onTrackEnd(@NotNull AudioPlayer audioPlayer, @NotNull AudioTrack loopedTrack, @NotNull AudioTrackEndReason endReason) {
-    if (Objects.requireNonNull(endReason, "Null end reason").mayStartNext) {
-      if (audioPlayerLooped) {
-        Objects.requireNonNull(audioPlayer, "Null audio player").startTrack(Objects.requireNonNull(loopedTrack, "Null track").makeClone(), false);
+    if (audioPlayer != this.audioPlayer) {
+      return;
+    }
+    StreamCache.Recording finishedRecording = recording;
+    recording = null;
+    if (finishedRecording != null) {
+      if (endReason == AudioTrackEndReason.FINISHED) {
+        finishedRecording.finish();
+      } else {
+        finishedRecording.abort();
       }
-      nextTrack();
+    }
+    TrackQueueIndex finishedTrack = currentTrack;
+    if (endReason == AudioTrackEndReason.FINISHED && !audioPlayerLooped && finishedTrack != null) {
+      trackHistory.add(finishedTrack, false);
+    }
+    if (Objects.requireNonNull(endReason, "Null end reason").mayStartNext) {
+      Objects.requireNonNull(loopedTrack, "Null track");
+      mailbox.execute(() -> {
+        if (audioPlayerLooped) {
+          audioPlayer.startTrack(loopedTrack.makeClone(), false);
+        }
+        startNextTrack();
+      });
     }
   }
 
@@ -95,12 +307,34 @@ public class AudioScheduler extends AudioEventAdapter {
    * @param requester requesting user
    */
   public void queue(@NotNull AudioTrack track, @NotNull String requester) {
-    Objects.requireNonNull(track, "Null track");
-    if (audioPlayer.getPlayingTrack() == null) {
-      audioPlayer.startTrack(track, true);
-    } else {
-      trackQueue.add(new TrackQueueIndex(track, Objects.requireNonNull(requester, "Null requester")));
-    }
+    queue(new TrackQueueIndex(track, Objects.requireNonNull(requester, "Null requester")));
+  }
+
+  /**
+   * Adds a {@link TrackQueueIndex} to the {@link AudioScheduler#getTrackQueue() queue}.
+   * <p>
+   * If the audio player isn't currently playing anything, play the track immediately,
+   * resolving it first if it's a placeholder. If a restored queue is waiting,
+   * the track is added after it and the queue resumes instead.
+   *
+   * @param entry {@link TrackQueueIndex} to be added to the {@link AudioScheduler#getTrackQueue() queue}
+   */
+  public void queue(@NotNull TrackQueueIndex entry) {
+    Objects.requireNonNull(entry, "Null entry");
+    mailbox.execute(() -> {
+      if (audioPlayer.getPlayingTrack() != null || awaitedTrack != null) {
+        trackQueue.add(entry);
+      } else if (!trackQueue.isEmpty()) {
+        trackQueue.add(entry);
+        startNextTrack();
+      } else if (entry.isResolved()) {
+        currentTrack = entry;
+        audioPlayer.startTrack(getPlayableTrack(entry.getAudioTrack()), true);
+      } else {
+        awaitedTrack = entry;
+        resolve(entry);
+      }
+    });
   }
 
   /**
@@ -109,38 +343,601 @@ public class AudioScheduler extends AudioEventAdapter {
    * If the audio player has finished its queue, update the bot's presence and activity.
    */
   public void nextTrack() {
-    if (!trackQueue.isEmpty()) {
-      audioPlayer.startTrack(trackQueue.get(0).getAudioTrack(), false);
-      trackQueue.remove(0);
+    mailbox.execute(this::startNextTrack);
+  }
+
+  /**
+   * Starts the next track in the {@link AudioScheduler#getTrackQueue() queue}.
+   * <p>
+   * Only called from the mailbox thread.
+   */
+  private void startNextTrack() {
+    startTrack(trackQueue.pollNext());
+  }
+
+  /**
+   * Starts a track taken from the {@link AudioScheduler#getTrackQueue() queue}, or stops playing if there's none.
+   * <p>
+   * If the track was prefetched, its standby player is promoted to the active
+   * audio player with the same paused state, and the previous player is destroyed.
+   * Its track started while on standby, so it's timed to its first frame from the promotion.
+   * <p>
+   * If the track is an unresolved placeholder, it's played once resolved.
+   * <p>
+   * Only called from the mailbox thread.
+   *
+   * @param nextTrack {@link TrackQueueIndex} taken from the queue, or null if the queue is empty
+   */
+  private void startTrack(TrackQueueIndex nextTrack) {
+    if (nextTrack != null) {
+      if (!nextTrack.isResolved()) {
+        audioPlayer.stopTrack();
+        awaitedTrack = nextTrack;
+        resolve(nextTrack);
+        return;
+      }
+      currentTrack = nextTrack;
+      AudioPlayer prefetchedPlayer = trackPrefetcher.take(nextTrack);
+      if (prefetchedPlayer != null) {
+        AudioPlayer previousPlayer = audioPlayer;
+        prefetchedPlayer.setPaused(previousPlayer.isPaused());
+        audioMetrics.onTrackStart();
+        startRecording(prefetchedPlayer.getPlayingTrack());
+        audioPlayer = prefetchedPlayer;
+        previousPlayer.destroy();
+        updatePresence(prefetchedPlayer.getPlayingTrack());
+      } else {
+        audioPlayer.startTrack(getPlayableTrack(nextTrack.getAudioTrack()), false);
+      }
     } else if (!audioPlayerLooped) {
       audioPlayer.stopTrack();
+      PresenceManager.getINSTANCE().setStopped(guildId);
+    }
+  }
+
+  /**
+   * Resolves placeholders among the next tracks to be played from the {@link AudioScheduler#getTrackQueue() queue}
+   * and requests the {@link TrackPrefetcher} to match the resolved upcoming tracks.
+   * <p>
+   * Bursts of queue changes, like playlist imports, are coalesced into one refresh.
+   * Nothing is resolved or prefetched until playback starts, so a restored queue stays offline.
+   */
+  private void refreshUpcomingTracks() {
+    if (refreshPending.compareAndSet(false, true)) {
+      mailbox.execute(() -> {
+        refreshPending.set(false);
+        if (audioPlayer.getPlayingTrack() == null && awaitedTrack == null) {
+          trackPrefetcher.sync(List.of());
+          return;
+        }
+        List<TrackQueueIndex> upcomingTracks = trackQueue.upcoming(RESOLVE_DEPTH);
+        List<TrackQueueIndex> prefetchedTracks = new ArrayList<>();
+        for (int i = 0; i < upcomingTracks.size(); i++) {
+          TrackQueueIndex entry = upcomingTracks.get(i);
+          if (!entry.isResolved()) {
+            resolve(entry);
+          } else if (i < Settings.getPrefetchDepth()) {
+            prefetchedTracks.add(entry);
+          }
+        }
+        trackPrefetcher.sync(prefetchedTracks);
+      });
+    }
+  }
+
+  /**
+   * Searches for a placeholder's audio track unless it's already being searched for.
+   * <p>
+   * Results already in the {@link SearchCache} are used without searching again.
+   * <p>
+   * Only called from the mailbox thread.
+   *
+   * @param entry unresolved {@link TrackQueueIndex}
+   */
+  private void resolve(TrackQueueIndex entry) {
+    if (!resolvingTracks.add(entry)) {
+      return;
+    }
+    SearchCache searchCache = PlayerManager.getINSTANCE().getSearchCache();
+    AudioTrack cachedTrack = searchCache.get(entry.getSearchQuery());
+    if (cachedTrack != null) {
+      mailbox.execute(() -> finishResolve(entry, cachedTrack));
+      return;
+    }
+    audioPlayerManager.loadItemOrdered(this, entry.getSearchQuery(), new AudioLoadResultHandler() {
+      @Override
+      public void trackLoaded(@NotNull AudioTrack track) {
+        mailbox.execute(() -> finishResolve(entry, track));
+      }
+
+      @Override
+      public void playlistLoaded(@NotNull AudioPlaylist playlist) {
+        List<AudioTrack> tracks = playlist.getTracks();
+        if (!tracks.isEmpty()) {
+          searchCache.put(entry.getSearchQuery(), tracks.get(0));
+        }
+        mailbox.execute(() -> finishResolve(entry, tracks.isEmpty() ? null : tracks.get(0)));
+      }
+
+      @Override
+      public void noMatches() {
+        mailbox.execute(() -> finishResolve(entry, null));
+      }
+
+      @Override
+      public void loadFailed(FriendlyException throwable) {
+        mailbox.execute(() -> finishResolve(entry, null));
+      }
+    });
+  }
+
+  /**
+   * Replaces a placeholder with its resolved entry, or removes it if no track was found.
+   * <p>
+   * If the placeholder was awaited, it's played instead. Placeholders
+   * that were removed from the queue in the meantime are discarded.
+   * <p>
+   * Only called from the mailbox thread.
+   *
+   * @param entry unresolved {@link TrackQueueIndex}
+   * @param track resolved audio track or null
+   */
+  private void finishResolve(TrackQueueIndex entry, AudioTrack track) {
+    resolvingTracks.remove(entry);
+    if (entry == awaitedTrack) {
+      awaitedTrack = null;
+      if (track == null) {
+        startNextTrack();
+      } else if (audioPlayer.getPlayingTrack() == null) {
+        currentTrack = entry.resolve(track);
+        audioPlayer.startTrack(getPlayableTrack(track), false);
+      } else {
+        trackQueue.add(0, entry.resolve(track));
+      }
+      return;
+    }
+    synchronized (trackQueue) {
+      int index = 0;
+      for (TrackQueueIndex queuedEntry : trackQueue) {
+        if (queuedEntry == entry) {
+          if (track == null) {
+            trackQueue.remove(index);
+          } else {
+            trackQueue.set(index, entry.resolve(track));
+          }
+          return;
+        }
+        index++;
+      }
+    }
+  }
+
+  /**
+   * Gets the {@link StreamCache}'s local copy of a track if it's cached.
+   *
+   * @param track track about to be played
+   * @return cached or original track
+   */
+  private AudioTrack getPlayableTrack(AudioTrack track) {
+    AudioTrack cachedTrack = PlayerManager.getINSTANCE().getStreamCache().open(track);
+    return cachedTrack != null ? cachedTrack : track;
+  }
 
-      Presence presence = Bot.getApi().getPresence();
-      presence.setStatus(OnlineStatus.DO_NOT_DISTURB);
-      presence.setActivity(Activity.listening("Nothing"));
+  /**
+   * Starts recording a track into the {@link StreamCache}, discarding any previous recording.
+   * <p>
+   * Tracks encoded below the full opus quality for a low bitrate voice channel
+   * aren't recorded, so every guild is served a full quality cached copy.
+   *
+   * @param track track starting on the active audio player
+   */
+  private void startRecording(AudioTrack track) {
+    StreamCache.Recording previousRecording = recording;
+    if (audioPlayerManager.getOpusQuality(track) == Settings.getOpusQuality()) {
+      recording = PlayerManager.getINSTANCE().getStreamCache().startRecording(track);
+    } else {
+      recording = null;
+    }
+    if (previousRecording != null) {
+      previousRecording.abort();
     }
   }
 
   /**
-   * Adds the recently skipped track.
+   * Journals a queue change, compacting the journal if it's grown
+   * large enough, and refreshes the upcoming tracks.
    * <p>
-   * Recently skipped tracks go to the top and increment all existing track
-   * indices by 1. The maximum number of skipped tracks is 10,
-   * after which adding a new skipped track removes the least recent.
+   * Only called while the queue is locked.
+   */
+  private void onQueueChange() {
+    if (queueJournal.isCompactionDue()) {
+      compactQueue();
+    }
+    refreshUpcomingTracks();
+  }
+
+  /**
+   * Saves the currently playing or awaited track and its position, along with
+   * a snapshot of the {@link AudioScheduler#getTrackQueue() queue} if it changed.
+   */
+  public void checkpointQueue() {
+    saveQueue(false);
+  }
+
+  /**
+   * Saves a snapshot of the {@link AudioScheduler#getTrackQueue() queue} along
+   * with the currently playing or awaited track and its position.
+   */
+  private void compactQueue() {
+    saveQueue(true);
+  }
+
+  /**
+   * Saves the currently playing or awaited track and its position to the {@link QueueJournal}.
    *
-   * @param skippedTrack {@link TrackQueueIndex}
+   * @param compact if a snapshot of the queue is written regardless of whether it changed
    */
-  public void addToSkippedTracks(@NotNull TrackQueueIndex skippedTrack) {
-    skippedTracks.addFirst(Objects.requireNonNull(skippedTrack, "Null track"));
-    if (skippedTracks.size() > 10) {
-      skippedTracks.removeLast();
+  private void saveQueue(boolean compact) {
+    synchronized (trackQueue) {
+      AudioTrack playingTrack = audioPlayer.getPlayingTrack();
+      boolean playing = playingTrack != null && currentTrack != null;
+      TrackQueueIndex savedTrack = playing ? currentTrack : awaitedTrack;
+      long position = playing ? playingTrack.getPosition() : 0;
+      if (compact) {
+        queueJournal.compact(trackQueue.snapshot(), savedTrack, position);
+      } else {
+        queueJournal.checkpoint(trackQueue.snapshot(), savedTrack, position);
+      }
     }
   }
 
   /**
-   * Gets the audio player.
+   * Gets the opus encoding quality for the bot's current voice channel.
+   * <p>
+   * Read by the {@link TunedAudioPlayerManager} whenever a track starts,
+   * so bitrate changes and channel moves apply from the next track.
    *
-   * @return audio player
+   * @return opus encoding quality
+   */
+  private int getOpusQuality() {
+    Guild guild = Bot.getApi().getGuildById(guildId);
+    AudioChannelUnion audioChannel = guild != null ? guild.getAudioManager().getConnectedChannel() : null;
+    if (audioChannel == null) {
+      return Settings.getOpusQuality();
+    }
+    return TunedAudioPlayerManager.scaleOpusQuality(audioChannel.getBitrate());
+  }
+
+  /**
+   * Reports the currently playing track to the {@link PresenceManager} if the audio player isn't looped.
+   *
+   * @param currentlyPlaying currently playing track
+   */
+  private void updatePresence(AudioTrack currentlyPlaying) {
+    if (!audioPlayerLooped) {
+      if (audioPlayer.isPaused()) {
+        PresenceManager.getINSTANCE().setPaused(guildId);
+      } else {
+        PresenceManager.getINSTANCE().setPlaying(guildId, currentlyPlaying.getInfo().title);
+      }
+    }
+  }
+
+  /**
+   * Pauses the audio player, or resumes it if it's paused.
+   * <p>
+   * An audio player paused only because nobody was listening or the voice connection is
+   * reconnecting is paused by the user instead, so it isn't resumed automatically later.
+   * <p>
+   * Reports to the {@link PresenceManager} if it's paused, playing music, or not playing anything.
+   *
+   * @return future completed with if the audio player is now paused
+   */
+  @NotNull
+  public CompletableFuture<Boolean> togglePaused() {
+    return request(() -> {
+      boolean paused = !audioPlayer.isPaused() || autoPaused || reconnectPaused;
+      autoPaused = false;
+      reconnectPaused = false;
+      audioPlayer.setPaused(paused);
+      AudioTrack playingTrack = audioPlayer.getPlayingTrack();
+      if (paused) {
+        PresenceManager.getINSTANCE().setPaused(guildId);
+      } else if (playingTrack != null) {
+        PresenceManager.getINSTANCE().setPlaying(guildId, playingTrack.getInfo().title);
+      } else { // No track currently playing
+        PresenceManager.getINSTANCE().setStopped(guildId);
+      }
+      return paused;
+    });
+  }
+
+  /**
+   * Sets the position of the currently playing track.
+   * <p>
+   * Copies played from the {@link StreamCache} can't be seeked,
+   * so the original track is streamed from the position instead.
+   *
+   * @param position position in milliseconds
+   * @return future completed with if a track was playing
+   */
+  @NotNull
+  public CompletableFuture<Boolean> seek(long position) {
+    return request(() -> {
+      AudioTrack playingTrack = audioPlayer.getPlayingTrack();
+      if (playingTrack == null) {
+        return false;
+      }
+      TrackQueueIndex playingEntry = currentTrack;
+      if (PlayerManager.getINSTANCE().getStreamCache().isCachedCopy(playingTrack) && playingEntry != null && playingEntry.isResolved()) {
+        AudioTrack streamedTrack = playingEntry.getAudioTrack().makeClone();
+        streamedTrack.setPosition(position);
+        audioPlayer.startTrack(streamedTrack, false);
+      } else {
+        playingTrack.setPosition(position);
+      }
+      return true;
+    });
+  }
+
+  /**
+   * Runs a task on the mailbox and completes a future with its result.
+   *
+   * @param task task
+   * @param <T>  result type
+   * @return future completed with the task's result, or exceptionally if the scheduler was destroyed
+   */
+  private <T> CompletableFuture<T> request(Supplier<T> task) {
+    Request<T> request = new Request<>(task, new CompletableFuture<>());
+    mailbox.execute(request);
+    return request.result();
+  }
+
+  /**
+   * Discards a task posted after the mailbox shut down, failing it if it's a {@link Request}.
+   *
+   * @param task    discarded task
+   * @param mailbox mailbox
+   */
+  private static void reject(Runnable task, ThreadPoolExecutor mailbox) {
+    if (task instanceof Request<?> request) {
+      request.result().completeExceptionally(new RejectedExecutionException("Audio scheduler destroyed"));
+    }
+  }
+
+  /**
+   * Pauses the audio player when nobody is left listening, and resumes it when
+   * listeners return if it was paused that way, so empty channels don't decode audio.
+   *
+   * @param listenersPresent if anyone is listening in the bot's voice channel
+   */
+  public void setListenersPresent(boolean listenersPresent) {
+    mailbox.execute(() -> {
+      if (!listenersPresent && audioPlayer.getPlayingTrack() != null && !audioPlayer.isPaused()) {
+        audioPlayer.setPaused(true);
+        autoPaused = true;
+        PresenceManager.getINSTANCE().setPaused(guildId);
+      } else if (listenersPresent && autoPaused) {
+        autoPaused = false;
+        audioPlayer.setPaused(false);
+        AudioTrack playingTrack = audioPlayer.getPlayingTrack();
+        if (playingTrack != null) {
+          PresenceManager.getINSTANCE().setPlaying(guildId, playingTrack.getInfo().title);
+        }
+      }
+    });
+  }
+
+  /**
+   * Pauses the audio player while the voice connection reconnects, so it stays at the same position.
+   * <p>
+   * Presence is left as is, since reconnects are usually brief.
+   */
+  public void suspendForReconnect() {
+    mailbox.execute(() -> {
+      if (audioPlayer.getPlayingTrack() != null && !audioPlayer.isPaused()) {
+        audioPlayer.setPaused(true);
+        reconnectPaused = true;
+      }
+    });
+  }
+
+  /**
+   * Resumes the audio player after the voice connection reconnects if it was paused for it,
+   * unless it was also paused because nobody was left listening.
+   */
+  public void resumeAfterReconnect() {
+    mailbox.execute(() -> {
+      if (reconnectPaused) {
+        reconnectPaused = false;
+        if (!autoPaused) {
+          audioPlayer.setPaused(false);
+        }
+      }
+    });
+  }
+
+  /**
+   * Leaves the audio player paused after the voice connection stopped reconnecting.
+   */
+  public void abandonReconnect() {
+    mailbox.execute(() -> {
+      if (reconnectPaused) {
+        reconnectPaused = false;
+        PresenceManager.getINSTANCE().setPaused(guildId);
+      }
+    });
+  }
+
+  /**
+   * Polls the audio player while it's paused for a reconnect so LavaPlayer doesn't
+   * clean up its track, and keeps the {@link TrackPrefetcher}'s standby players alive.
+   * <p>
+   * Paused audio players don't give up frames when polled, so the position is kept.
+   */
+  public void keepAliveWhilePaused() {
+    if (audioPlayer.isPaused()) {
+      audioPlayer.provide();
+    }
+    trackPrefetcher.keepAlive();
+  }
+
+  /**
+   * Gets if a track is playing unpaused, about to play, or paused while the voice connection reconnects.
+   *
+   * @return if the audio player is active
+   */
+  public boolean isActive() {
+    AudioPlayer audioPlayer = this.audioPlayer;
+    return (audioPlayer.getPlayingTrack() != null && !audioPlayer.isPaused()) || awaitedTrack != null || reconnectPaused;
+  }
+
+  /**
+   * Saves the {@link AudioScheduler#getTrackQueue() queue} and releases the audio
+   * players, recording, and files so the guild's {@link PlaybackManager} can be evicted.
+   * <p>
+   * The {@link QueueJournal} is closed in the same lock as the final snapshot, so
+   * queue changes made through stale references afterwards aren't journaled.
+   * <p>
+   * Waits for the queue to be written, so the {@link QueueJournal} restores
+   * it up to date the next time the guild is used.
+   */
+  public void destroy() {
+    mailbox.execute(() -> {
+      synchronized (trackQueue) {
+        checkpointQueue();
+        queueJournal.close();
+      }
+      trackHistory.close();
+      trackPrefetcher.clear();
+      StreamCache.Recording discardedRecording = recording;
+      recording = null;
+      if (discardedRecording != null) {
+        discardedRecording.abort();
+      }
+      audioPlayer.destroy();
+      PresenceManager.getINSTANCE().setStopped(guildId);
+    });
+    mailbox.shutdown();
+    try {
+      mailbox.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    QueueJournal.awaitWrites(5000);
+  }
+
+  /**
+   * Applies changed {@link AudioFilters} to the active audio player.
+   * <p>
+   * Prefetched tracks were buffered with the previous filters, so they're prefetched again.
+   */
+  public void updateFilters() {
+    mailbox.execute(() -> {
+      audioFilters.apply(audioPlayer);
+      trackPrefetcher.clear();
+      refreshUpcomingTracks();
+    });
+  }
+
+  /**
+   * Finds the tracks matching a search, in queue order.
+   *
+   * @param search search by title, requester, or track identifier
+   * @param limit  maximum number of matches
+   * @return {@link QueueSearchIndex.Match matches}
+   */
+  @NotNull
+  public List<QueueSearchIndex.Match> findTracks(@NotNull String search, int limit) {
+    synchronized (trackQueue) {
+      return locate(queueSearchIndex.search(Objects.requireNonNull(search, "Null search")), limit);
+    }
+  }
+
+  /**
+   * Gets the queue index of the first queued copy of a track.
+   *
+   * @param track audio track
+   * @return queue index, or -1 if the track isn't queued
+   */
+  public int findDuplicate(@NotNull AudioTrack track) {
+    synchronized (trackQueue) {
+      List<QueueSearchIndex.Match> duplicates = locate(queueSearchIndex.getDuplicates(Objects.requireNonNull(track, "Null track")), 1);
+      return duplicates.isEmpty() ? -1 : duplicates.get(0).index();
+    }
+  }
+
+  /**
+   * Records the currently playing track as skipped in the {@link TrackHistory}
+   * and plays a queued track immediately, leaving the rest of the queue in place.
+   * <p>
+   * Nothing happens if the track was dequeued in the meantime.
+   *
+   * @param entry queued {@link TrackQueueIndex}
+   */
+  public void jumpTo(@NotNull TrackQueueIndex entry) {
+    Set<TrackQueueIndex> jumpedTrack = Collections.newSetFromMap(new IdentityHashMap<>());
+    jumpedTrack.add(Objects.requireNonNull(entry, "Null entry"));
+    mailbox.execute(() -> {
+      TrackQueueIndex nextTrack;
+      synchronized (trackQueue) {
+        List<QueueSearchIndex.Match> matches = locate(jumpedTrack, 1);
+        if (matches.isEmpty()) {
+          return;
+        }
+        nextTrack = trackQueue.remove(matches.get(0).index());
+      }
+      TrackQueueIndex skippedTrack = currentTrack;
+      if (skippedTrack != null && audioPlayer.getPlayingTrack() != null) {
+        trackHistory.add(skippedTrack, true);
+      }
+      startTrack(nextTrack);
+    });
+  }
+
+  /**
+   * Finds where entries are in the {@link AudioScheduler#getTrackQueue() queue}.
+   * <p>
+   * The queue is walked in order and the walk stops once every entry is found.
+   * <p>
+   * Only called while the queue is locked.
+   *
+   * @param entries entries compared by identity
+   * @param limit   maximum number of matches
+   * @return {@link QueueSearchIndex.Match matches} in queue order
+   */
+  private List<QueueSearchIndex.Match> locate(Set<TrackQueueIndex> entries, int limit) {
+    List<QueueSearchIndex.Match> matches = new ArrayList<>();
+    int remaining = entries.size();
+    int index = 0;
+    for (Iterator<TrackQueueIndex> iterator = trackQueue.snapshot().iterator(); iterator.hasNext() && remaining > 0 && matches.size() < limit; index++) {
+      TrackQueueIndex entry = iterator.next();
+      if (entries.contains(entry)) {
+        matches.add(new QueueSearchIndex.Match(index, entry));
+        remaining--;
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * Records the currently playing track as skipped in the {@link TrackHistory} and goes to the next track.
+   */
+  public void skipTrack() {
+    TrackQueueIndex skippedTrack = currentTrack;
+    if (skippedTrack != null && audioPlayer.getPlayingTrack() != null) {
+      trackHistory.add(skippedTrack, true);
+    }
+    nextTrack();
+  }
+
+  /**
+   * Gets the active audio player.
+   * <p>
+   * The active audio player changes when a prefetched track is promoted,
+   * so callers should get it again rather than keep a reference.
+   *
+   * @return active audio player
    */
   @NotNull
   public AudioPlayer getAudioPlayer() {
@@ -148,23 +945,63 @@ public class AudioScheduler extends AudioEventAdapter {
   }
 
   /**
-   * Gets the track queue.
+   * Gets the {@link TrackQueue}.
    *
-   * @return track queue
+   * @return {@link TrackQueue}
    */
   @NotNull
-  public List<TrackQueueIndex> getTrackQueue() {
+  public TrackQueue getTrackQueue() {
     return this.trackQueue;
   }
 
   /**
-   * Gets the skipped tracks.
+   * Gets the {@link TrackPrefetcher}.
+   *
+   * @return {@link TrackPrefetcher}
+   */
+  @NotNull
+  public TrackPrefetcher getTrackPrefetcher() {
+    return this.trackPrefetcher;
+  }
+
+  /**
+   * Gets the {@link StreamCache.Recording} of the currently playing track.
+   *
+   * @return {@link StreamCache.Recording}, or null if the track isn't being recorded
+   */
+  @Nullable
+  public StreamCache.Recording getRecording() {
+    return this.recording;
+  }
+
+  /**
+   * Gets the {@link TrackHistory}.
+   *
+   * @return {@link TrackHistory}
+   */
+  @NotNull
+  public TrackHistory getTrackHistory() {
+    return this.trackHistory;
+  }
+
+  /**
+   * Gets the {@link AudioFilters}.
+   *
+   * @return {@link AudioFilters}
+   */
+  @NotNull
+  public AudioFilters getAudioFilters() {
+    return this.audioFilters;
+  }
+
+  /**
+   * Gets the {@link AudioMetrics}.
    *
-   * @return skipped tracks
+   * @return {@link AudioMetrics}
    */
   @NotNull
-  public LinkedList<TrackQueueIndex> getSkippedTracks() {
-    return this.skippedTracks;
+  public AudioMetrics getAudioMetrics() {
+    return this.audioMetrics;
   }
 
   /**
@@ -182,4 +1019,37 @@ public class AudioScheduler extends AudioEventAdapter {
   public void toggleAudioPlayerLooped() {
     audioPlayerLooped = !audioPlayerLooped;
   }
+
+  /**
+   * Toggles playing the {@link AudioScheduler#getTrackQueue() queue} in shuffled
+   * order and refreshes the upcoming tracks to match the new order.
+   */
+  public void toggleTrackQueueShuffled() {
+    trackQueue.toggleShuffled();
+    refreshUpcomingTracks();
+  }
+
+  /**
+   * Represents a task posted to the mailbox by a command awaiting its result.
+   *
+   * @param task   task
+   * @param result future completed with the task's result
+   * @param <T>    result type
+   * @author Danny Nguyen
+   * @version 1.9.5
+   * @since 1.9.5
+   */
+  private record Request<T>(Supplier<T> task, CompletableFuture<T> result) implements Runnable {
+    /**
+     * Runs the task and completes the future with its result.
+     */
+    @Override
+    public void run() {
+      try {
+        result.complete(task.get());
+      } catch (RuntimeException e) {
+        result.completeExceptionally(e);
+      }
+    }
+  }
 }
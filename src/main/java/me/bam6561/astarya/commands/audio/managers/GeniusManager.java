@@ -0,0 +1,251 @@
+package me.bam6561.astarya.commands.audio.managers;
+
+import me.bam6561.astarya.utils.ExpiringCache;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents a shared Genius API client that songs' lyrics are looked up with.
+ * <p>
+ * Searches are sent asynchronously over one HTTP client that reuses its
+ * connections, so a slow Genius never holds up the command threads.
+ * Each response is parsed once into its {@link SearchResults}, which are
+ * cached for repeated lookups. Concurrent lookups of the same query share one request.
+ *
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class GeniusManager {
+  /**
+   * Instance of the Genius manager.
+   */
+  private static GeniusManager INSTANCE;
+
+  /**
+   * Genius song search endpoint.
+   */
+  private static final String SEARCH_ENDPOINT = "https://genius.com/api/search/song?q=";
+
+  /**
+   * Seconds to wait for a connection.
+   */
+  private static final int CONNECT_TIMEOUT = 5;
+
+  /**
+   * Seconds to wait for a complete response.
+   */
+  private static final int REQUEST_TIMEOUT = 10;
+
+  /**
+   * Maximum number of matches per search.
+   */
+  private static final int MAXIMUM_MATCHES = 5;
+
+  /**
+   * Maximum number of cached searches.
+   */
+  private static final int MAXIMUM_SIZE = 256;
+
+  /**
+   * Milliseconds before a cached search expires.
+   */
+  private static final long TIME_TO_LIVE = TimeUnit.HOURS.toMillis(6);
+
+  /**
+   * HTTP client shared by all searches.
+   */
+  private final HttpClient httpClient = HttpClient.newBuilder()
+      .connectTimeout(Duration.ofSeconds(CONNECT_TIMEOUT))
+      .followRedirects(HttpClient.Redirect.NORMAL)
+      .build();
+
+  /**
+   * Cached {@link SearchResults} by normalized query.
+   */
+  private final ExpiringCache<String, SearchResults> results = new ExpiringCache<>(MAXIMUM_SIZE, TIME_TO_LIVE);
+
+  /**
+   * Searches in progress by normalized query.
+   */
+  private final Map<String, CompletableFuture<SearchResults>> pendingSearches = new ConcurrentHashMap<>();
+
+  /**
+   * No parameter constructor.
+   */
+  private GeniusManager() {
+  }
+
+  /**
+   * Searches Genius for songs matching a query.
+   * <p>
+   * Cached results complete immediately.
+   *
+   * @param query search query
+   * @return {@link SearchResults}, completed exceptionally if Genius couldn't be reached
+   */
+  @NotNull
+  public CompletableFuture<SearchResults> search(@NotNull String query) {
+    String key = normalize(Objects.requireNonNull(query, "Null query"));
+    SearchResults cachedResults = results.get(key);
+    if (cachedResults != null) {
+      return CompletableFuture.completedFuture(cachedResults);
+    }
+
+    CompletableFuture<SearchResults> search = new CompletableFuture<>();
+    CompletableFuture<SearchResults> pendingSearch = pendingSearches.putIfAbsent(key, search);
+    if (pendingSearch != null) {
+      return pendingSearch;
+    }
+
+    HttpRequest request = HttpRequest.newBuilder(URI.create(SEARCH_ENDPOINT + URLEncoder.encode(key, StandardCharsets.UTF_8)))
+        .timeout(Duration.ofSeconds(REQUEST_TIMEOUT))
+        .header("Accept", "application/json")
+        .GET()
+        .build();
+    httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+        .orTimeout(REQUEST_TIMEOUT, TimeUnit.SECONDS)
+        .thenApply(GeniusManager::parseResponse)
+        .whenComplete((searchResults, e) -> {
+          pendingSearches.remove(key, search);
+          if (e != null) {
+            System.out.println(Error.UNABLE_TO_SEARCH.getMessage());
+            search.completeExceptionally(e);
+          } else {
+            results.put(key, searchResults);
+            search.complete(searchResults);
+          }
+        });
+    return search;
+  }
+
+  /**
+   * Normalizes a query's case and spacing so equivalent queries share cached results.
+   *
+   * @param query search query
+   * @return normalized query
+   */
+  private static String normalize(String query) {
+    return query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Reads the top matches and their thumbnail from a search response.
+   *
+   * @param response HTTP response
+   * @return {@link SearchResults}
+   */
+  private static SearchResults parseResponse(HttpResponse<String> response) {
+    if (response.statusCode() != 200) {
+      throw new CompletionException(new IOException("Unexpected status " + response.statusCode()));
+    }
+    try {
+      JSONArray sections = new JSONObject(response.body()).getJSONObject("response").getJSONArray("sections");
+      JSONArray hits = sections.isEmpty() ? new JSONArray() : sections.getJSONObject(0).getJSONArray("hits");
+      List<Match> matches = new ArrayList<>();
+      String thumbnailUrl = null;
+      for (int i = 0; i < Math.min(hits.length(), MAXIMUM_MATCHES); i++) {
+        JSONObject match = hits.getJSONObject(i).getJSONObject("result");
+        matches.add(new Match(match.getString("title_with_featured"), match.getString("url")));
+        if (i == 0) {
+          thumbnailUrl = match.optString("song_art_image_url", null);
+        }
+      }
+      return new SearchResults(List.copyOf(matches), thumbnailUrl);
+    } catch (JSONException e) {
+      throw new CompletionException(e);
+    }
+  }
+
+  /**
+   * Gets an instance of the Genius manager.
+   *
+   * @return instance of the Genius manager
+   */
+  @NotNull
+  public static synchronized GeniusManager getINSTANCE() {
+    if (INSTANCE == null) {
+      INSTANCE = new GeniusManager();
+    }
+    return INSTANCE;
+  }
+
+  /**
+   * Represents the top matches of a Genius search.
+   *
+   * @param matches      matches in order of relevance
+   * @param thumbnailUrl first match's song art, or null if none
+   * @author Danny Nguyen
+   * @version 1.9.5
+   * @since 1.9.5
+   */
+  public record SearchResults(@NotNull List<Match> matches, @Nullable String thumbnailUrl) {
+  }
+
+  /**
+   * Represents a song result from Genius.
+   *
+   * @param title song title with featured artists
+   * @param url   song's lyrics page url
+   * @author Danny Nguyen
+   * @version 1.9.5
+   * @since 1.9.5
+   */
+  public record Match(@NotNull String title, @NotNull String url) {
+  }
+
+  /**
+   * Types of errors.
+   */
+  private enum Error {
+    /**
+     * Unable to search Genius.
+     */
+    UNABLE_TO_SEARCH("Unable to search Genius.");
+
+    /**
+     * Message.
+     */
+    private final String message;
+
+    /**
+     * Associates an error with its message.
+     *
+     * @param message message
+     */
+    Error(String message) {
+      this.message = message;
+    }
+
+    /**
+     * Gets the error's message.
+     *
+     * @return error's message
+     */
+    @NotNull
+    public String getMessage() {
+      return this.message;
+    }
+  }
+}
@@ -0,0 +1,265 @@
+package me.bam6561.astarya.commands.audio.managers;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.cdimascio.dotenv.Dotenv;
+import me.bam6561.astarya.utils.Histogram;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Represents a scrape endpoint serving every guild's {@link AudioMetrics} in the Prometheus text format.
+ * <p>
+ * The endpoint is only started if a METRICS_PORT is provided in the .env file,
+ * and listens on localhost unless a METRICS_HOST is provided too.
+ *
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class MetricsServer {
+  /**
+   * Instance of the metrics server.
+   */
+  private static MetricsServer INSTANCE;
+
+  /**
+   * Scrape endpoint path.
+   */
+  private static final String PATH = "/metrics";
+
+  /**
+   * HTTP server, or null if not configured.
+   */
+  private final HttpServer httpServer;
+
+  /**
+   * Starts the HTTP server if configured.
+   */
+  private MetricsServer() {
+    this.httpServer = startHttpServer();
+  }
+
+  /**
+   * Reads the endpoint's address from the .env file and starts serving it.
+   *
+   * @return HTTP server, or null if not configured or unable to start
+   */
+  private HttpServer startHttpServer() {
+    Dotenv dotenv = Dotenv.load();
+    String port = dotenv.get("METRICS_PORT");
+    if (port == null || port.isBlank()) {
+      return null;
+    }
+    String host = dotenv.get("METRICS_HOST", "127.0.0.1");
+    try {
+      HttpServer server = HttpServer.create(new InetSocketAddress(host, Integer.parseInt(port.trim())), 0);
+      server.createContext(PATH, this::handleScrape);
+      server.setExecutor(Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MetricsServer");
+        thread.setDaemon(true);
+        return thread;
+      }));
+      server.start();
+      return server;
+    } catch (IOException | IllegalArgumentException e) {
+      System.out.println(Error.UNABLE_TO_START.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Responds to a scrape with the current metrics.
+   *
+   * @param exchange HTTP exchange
+   * @throws IOException if the response couldn't be sent
+   */
+  private void handleScrape(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      if (!exchange.getRequestMethod().equals("GET") || !exchange.getRequestURI().getPath().equals(PATH)) {
+        exchange.sendResponseHeaders(404, -1);
+        return;
+      }
+      byte[] body = writeMetrics().getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream responseBody = exchange.getResponseBody()) {
+        responseBody.write(body);
+      }
+    }
+  }
+
+  /**
+   * Writes every guild's metrics in the Prometheus text format.
+   *
+   * @return metrics
+   */
+  @NotNull
+  public String writeMetrics() {
+    Map<Long, PlaybackManager> playbackManagers = PlayerManager.getINSTANCE().getPlaybackManagers();
+    StringBuilder metrics = new StringBuilder();
+    metrics.append("# HELP astarya_audio_guilds Guilds with audio in use.\n");
+    metrics.append("# TYPE astarya_audio_guilds gauge\n");
+    metrics.append("astarya_audio_guilds ").append(playbackManagers.size()).append("\n");
+
+    writeCounter(metrics, playbackManagers, "astarya_audio_frames_provided_total", "Frames sent to Discord.", 0,
+        playbackManager -> playbackManager.getSendHandler().getFramesProvided());
+    writeCounter(metrics, playbackManagers, "astarya_audio_frames_missed_total", "Polls for a frame with none ready.", 0,
+        playbackManager -> playbackManager.getSendHandler().getFramesMissed());
+    writeCounter(metrics, playbackManagers, "astarya_audio_underruns_total", "Polls for a frame with none ready while a track was playing.", 0,
+        playbackManager -> playbackManager.audioScheduler.getAudioMetrics().getUnderruns());
+    writeCounter(metrics, playbackManagers, "astarya_audio_unfiltered_frames_total", "Frames read without filters.", 0,
+        playbackManager -> playbackManager.getSendHandler().getUnfilteredFrames());
+    writeCounter(metrics, playbackManagers, "astarya_audio_filtered_frames_total", "Frames read with filters, which are always transcoded.", 0,
+        playbackManager -> playbackManager.getSendHandler().getFilteredFrames());
+    writeHistogram(metrics, playbackManagers, "astarya_audio_underrun_streak_polls", "Consecutive underruns.", 0,
+        playbackManager -> playbackManager.audioScheduler.getAudioMetrics().getMissStreaks());
+    writeHistogram(metrics, playbackManagers, "astarya_audio_poll_jitter_seconds", "Deviation of polls from the 20ms frame interval.", 6,
+        playbackManager -> playbackManager.audioScheduler.getAudioMetrics().getPollJitter());
+    writeHistogram(metrics, playbackManagers, "astarya_audio_load_seconds", "Time from a track request to the track being loaded.", 3,
+        playbackManager -> playbackManager.audioScheduler.getAudioMetrics().getLoadLatency());
+    writeHistogram(metrics, playbackManagers, "astarya_audio_load_to_first_frame_seconds", "Time from a track request to its first frame, for tracks played right away.", 3,
+        playbackManager -> playbackManager.audioScheduler.getAudioMetrics().getLoadToFirstFrameLatency());
+    writeHistogram(metrics, playbackManagers, "astarya_audio_start_to_first_frame_seconds", "Time from a track starting to its first frame.", 3,
+        playbackManager -> playbackManager.audioScheduler.getAudioMetrics().getStartToFirstFrameLatency());
+    writeCounter(metrics, playbackManagers, "astarya_voice_reconnects_total", "Voice reconnects completed.", 0,
+        playbackManager -> playbackManager.getReconnectSupervisor().getReconnects());
+    writeCounter(metrics, playbackManagers, "astarya_voice_reconnect_failures_total", "Voice reconnects given up on.", 0,
+        playbackManager -> playbackManager.getReconnectSupervisor().getFailedReconnects());
+    writeCounter(metrics, playbackManagers, "astarya_voice_reconnect_seconds_total", "Time spent reconnecting.", 3,
+        playbackManager -> playbackManager.getReconnectSupervisor().getTotalReconnectLatency());
+    return metrics.toString();
+  }
+
+  /**
+   * Writes a counter for each guild.
+   * <p>
+   * Values are recorded as whole numbers, so they're converted
+   * to the metric's unit by shifting their decimal point left.
+   *
+   * @param metrics          metrics being written
+   * @param playbackManagers {@link PlaybackManager PlaybackManagers} by guild id
+   * @param name             metric name
+   * @param help             metric description
+   * @param decimalShift     places to shift the decimal point left
+   * @param counter          counter of a {@link PlaybackManager}
+   */
+  private static void writeCounter(StringBuilder metrics, Map<Long, PlaybackManager> playbackManagers, String name, String help, int decimalShift, ToLongFunction<PlaybackManager> counter) {
+    metrics.append("# HELP ").append(name).append(" ").append(help).append("\n");
+    metrics.append("# TYPE ").append(name).append(" counter\n");
+    for (Map.Entry<Long, PlaybackManager> entry : playbackManagers.entrySet()) {
+      metrics.append(name).append("{guild=\"").append(entry.getKey()).append("\"} ")
+          .append(shift(counter.applyAsLong(entry.getValue()), decimalShift)).append("\n");
+    }
+  }
+
+  /**
+   * Writes a histogram for each guild.
+   *
+   * @param metrics          metrics being written
+   * @param playbackManagers {@link PlaybackManager PlaybackManagers} by guild id
+   * @param name             metric name
+   * @param help             metric description
+   * @param decimalShift     places to shift the decimal point left
+   * @param histogram        {@link Histogram} of a {@link PlaybackManager}
+   */
+  private static void writeHistogram(StringBuilder metrics, Map<Long, PlaybackManager> playbackManagers, String name, String help, int decimalShift, Function<PlaybackManager, Histogram> histogram) {
+    metrics.append("# HELP ").append(name).append(" ").append(help).append("\n");
+    metrics.append("# TYPE ").append(name).append(" histogram\n");
+    for (Map.Entry<Long, PlaybackManager> entry : playbackManagers.entrySet()) {
+      String guild = "guild=\"" + entry.getKey() + "\"";
+      Histogram guildHistogram = histogram.apply(entry.getValue());
+      long[] bounds = guildHistogram.getBounds();
+      for (int i = 0; i < bounds.length; i++) {
+        metrics.append(name).append("_bucket{").append(guild).append(",le=\"").append(shift(bounds[i], decimalShift)).append("\"} ")
+            .append(guildHistogram.getCumulativeCount(i)).append("\n");
+      }
+      long count = guildHistogram.getCount();
+      metrics.append(name).append("_bucket{").append(guild).append(",le=\"+Inf\"} ").append(count).append("\n");
+      metrics.append(name).append("_sum{").append(guild).append("} ").append(shift(guildHistogram.getSum(), decimalShift)).append("\n");
+      metrics.append(name).append("_count{").append(guild).append("} ").append(count).append("\n");
+    }
+  }
+
+  /**
+   * Shifts a whole number's decimal point left.
+   *
+   * @param value        whole number
+   * @param decimalShift places to shift the decimal point left
+   * @return shifted number
+   */
+  private static String shift(long value, int decimalShift) {
+    return BigDecimal.valueOf(value).movePointLeft(decimalShift).stripTrailingZeros().toPlainString();
+  }
+
+  /**
+   * Gets the address the scrape endpoint is served on.
+   *
+   * @return scrape endpoint's address, or null if it isn't running
+   */
+  @Nullable
+  public String getAddress() {
+    if (httpServer == null) {
+      return null;
+    }
+    InetSocketAddress address = httpServer.getAddress();
+    return "http://" + address.getHostString() + ":" + address.getPort() + PATH;
+  }
+
+  /**
+   * Gets an instance of the metrics server.
+   *
+   * @return instance of the metrics server
+   */
+  @NotNull
+  public static synchronized MetricsServer getINSTANCE() {
+    if (INSTANCE == null) {
+      INSTANCE = new MetricsServer();
+    }
+    return INSTANCE;
+  }
+
+  /**
+   * Types of errors.
+   */
+  private enum Error {
+    /**
+     * Unable to start the scrape endpoint.
+     */
+    UNABLE_TO_START("Unable to start metrics endpoint. Check METRICS_PORT and METRICS_HOST in .env file.");
+
+    /**
+     * Message.
+     */
+    private final String message;
+
+    /**
+     * Associates an error with its message.
+     *
+     * @param message message
+     */
+    Error(String message) {
+      this.message = message;
+    }
+
+    /**
+     * Gets the error's message.
+     *
+     * @return error's message
+     */
+    @NotNull
+    public String getMessage() {
+      return this.message;
+    }
+  }
+}
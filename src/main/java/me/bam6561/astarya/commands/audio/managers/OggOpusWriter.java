@@ -0,0 +1,249 @@
+package me.bam6561.astarya.commands.audio.managers;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Represents a writer of 48kHz stereo opus packets into an Ogg Opus file.
+ * <p>
+ * Packets are grouped into pages of about a second each, so the
+ * Ogg container adds little overhead to the recorded packets.
+ *
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class OggOpusWriter {
+  /**
+   * Maximum number of packets per page.
+   */
+  private static final int PACKETS_PER_PAGE = 50;
+
+  /**
+   * Maximum number of lacing values per page.
+   */
+  private static final int MAXIMUM_SEGMENTS = 255;
+
+  /**
+   * Samples per channel of 10, 20, 40, and 60ms SILK frames.
+   */
+  private static final int[] SILK_FRAME_SIZES = {480, 960, 1920, 2880};
+
+  /**
+   * Ogg page checksum lookup table.
+   */
+  private static final int[] CRC_TABLE = createCrcTable();
+
+  /**
+   * Output.
+   */
+  private final OutputStream output;
+
+  /**
+   * Logical bitstream serial number.
+   */
+  private final int serialNumber;
+
+  /**
+   * Packets of the current page.
+   */
+  private final byte[] pageData = new byte[MAXIMUM_SEGMENTS * 255];
+
+  /**
+   * Lacing values of the current page.
+   */
+  private final byte[] segmentTable = new byte[MAXIMUM_SEGMENTS];
+
+  /**
+   * Number of bytes in the current page.
+   */
+  private int pageLength = 0;
+
+  /**
+   * Number of lacing values in the current page.
+   */
+  private int numberOfSegments = 0;
+
+  /**
+   * Number of packets in the current page.
+   */
+  private int numberOfPackets = 0;
+
+  /**
+   * Number of pages written.
+   */
+  private int pageSequence = 0;
+
+  /**
+   * Number of samples per channel in all packets so far.
+   */
+  private long granulePosition = 0;
+
+  /**
+   * Associates the writer with its output and writes the Ogg Opus headers.
+   *
+   * @param output       output
+   * @param serialNumber logical bitstream serial number
+   * @throws IOException unable to write
+   */
+  public OggOpusWriter(@NotNull OutputStream output, int serialNumber) throws IOException {
+    this.output = Objects.requireNonNull(output, "Null output");
+    this.serialNumber = serialNumber;
+
+    byte[] opusHead = new byte[19];
+    System.arraycopy("OpusHead".getBytes(StandardCharsets.US_ASCII), 0, opusHead, 0, 8);
+    opusHead[8] = 1; // Version
+    opusHead[9] = 2; // Channels
+    writeIntLE(opusHead, 12, 48000); // Input sample rate
+    addPacket(opusHead, 0, opusHead.length);
+    writePage(0x02);
+
+    byte[] vendor = "Astarya".getBytes(StandardCharsets.US_ASCII);
+    byte[] opusTags = new byte[16 + vendor.length];
+    System.arraycopy("OpusTags".getBytes(StandardCharsets.US_ASCII), 0, opusTags, 0, 8);
+    writeIntLE(opusTags, 8, vendor.length);
+    System.arraycopy(vendor, 0, opusTags, 12, vendor.length);
+    addPacket(opusTags, 0, opusTags.length);
+    writePage(0);
+  }
+
+  /**
+   * Writes an opus packet, starting a new page when the current one is full.
+   *
+   * @param packet packet data
+   * @param offset packet offset
+   * @param length packet length
+   * @throws IOException unable to write
+   */
+  public void writePacket(@NotNull byte[] packet, int offset, int length) throws IOException {
+    if (numberOfPackets == PACKETS_PER_PAGE || numberOfSegments + length / 255 + 1 > MAXIMUM_SEGMENTS) {
+      writePage(0);
+    }
+    addPacket(packet, offset, length);
+    granulePosition += getSampleCount(packet, offset, length);
+  }
+
+  /**
+   * Writes the last page.
+   *
+   * @throws IOException unable to write
+   */
+  public void finish() throws IOException {
+    writePage(0x04);
+    output.flush();
+  }
+
+  /**
+   * Gets the number of samples per channel in an opus packet from its table of contents byte.
+   *
+   * @param packet packet data
+   * @param offset packet offset
+   * @param length packet length
+   * @return number of samples per channel at 48kHz
+   */
+  public static int getSampleCount(@NotNull byte[] packet, int offset, int length) {
+    if (length < 1) {
+      return 0;
+    }
+    int toc = packet[offset] & 0xFF;
+    int config = toc >> 3;
+    int frameSize;
+    if (config < 12) { // SILK
+      frameSize = SILK_FRAME_SIZES[config & 3];
+    } else if (config < 16) { // Hybrid
+      frameSize = (config & 1) == 0 ? 480 : 960;
+    } else { // CELT
+      frameSize = 120 << (config & 3);
+    }
+    int numberOfFrames = switch (toc & 3) {
+      case 0 -> 1;
+      case 1, 2 -> 2;
+      default -> length > 1 ? packet[offset + 1] & 0x3F : 0;
+    };
+    return frameSize * numberOfFrames;
+  }
+
+  /**
+   * Adds a packet to the current page.
+   *
+   * @param packet packet data
+   * @param offset packet offset
+   * @param length packet length
+   */
+  private void addPacket(byte[] packet, int offset, int length) {
+    System.arraycopy(packet, offset, pageData, pageLength, length);
+    pageLength += length;
+    int remaining = length;
+    while (remaining >= 255) {
+      segmentTable[numberOfSegments++] = (byte) 255;
+      remaining -= 255;
+    }
+    segmentTable[numberOfSegments++] = (byte) remaining;
+    numberOfPackets++;
+  }
+
+  /**
+   * Writes the current page with its checksum.
+   *
+   * @param headerType header type flags
+   * @throws IOException unable to write
+   */
+  private void writePage(int headerType) throws IOException {
+    byte[] page = new byte[27 + numberOfSegments + pageLength];
+    System.arraycopy("OggS".getBytes(StandardCharsets.US_ASCII), 0, page, 0, 4);
+    page[5] = (byte) headerType;
+    writeIntLE(page, 6, (int) granulePosition);
+    writeIntLE(page, 10, (int) (granulePosition >>> 32));
+    writeIntLE(page, 14, serialNumber);
+    writeIntLE(page, 18, pageSequence++);
+    page[26] = (byte) numberOfSegments;
+    System.arraycopy(segmentTable, 0, page, 27, numberOfSegments);
+    System.arraycopy(pageData, 0, page, 27 + numberOfSegments, pageLength);
+
+    int crc = 0;
+    for (byte b : page) {
+      crc = (crc << 8) ^ CRC_TABLE[((crc >>> 24) ^ (b & 0xFF)) & 0xFF];
+    }
+    writeIntLE(page, 22, crc);
+    output.write(page);
+
+    pageLength = 0;
+    numberOfSegments = 0;
+    numberOfPackets = 0;
+  }
+
+  /**
+   * Writes a little endian integer into an array.
+   *
+   * @param array  array
+   * @param offset offset
+   * @param value  value
+   */
+  private static void writeIntLE(byte[] array, int offset, int value) {
+    array[offset] = (byte) value;
+    array[offset + 1] = (byte) (value >>> 8);
+    array[offset + 2] = (byte) (value >>> 16);
+    array[offset + 3] = (byte) (value >>> 24);
+  }
+
+  /**
+   * Creates the lookup table of the Ogg page checksum, a CRC-32 with polynomial 0x04C11DB7.
+   *
+   * @return checksum lookup table
+   */
+  private static int[] createCrcTable() {
+    int[] table = new int[256];
+    for (int i = 0; i < 256; i++) {
+      int crc = i << 24;
+      for (int bit = 0; bit < 8; bit++) {
+        crc = (crc & 0x80000000) != 0 ? (crc << 1) ^ 0x04C11DB7 : crc << 1;
+      }
+      table[i] = crc;
+    }
+    return table;
+  }
+}
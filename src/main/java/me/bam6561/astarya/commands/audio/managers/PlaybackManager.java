@@ -1,7 +1,5 @@
 package me.bam6561.astarya.commands.audio.managers;
 
-import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
-import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Objects;
@@ -11,15 +9,10 @@ import java.util.Objects;
  * components together into one referencable instance object.
  *
  * @author Danny Nguyen
- * @version 1.8.7
+ * @version 1.9.5
  * @since 1.1.0s
  */
 public class PlaybackManager {
-  /**
-   * Audio player.
-   */
-  public final AudioPlayer audioPlayer;
-
   /**
    * {@link AudioScheduler}
    */
@@ -27,20 +20,31 @@ public class PlaybackManager {
 
   /**
    * {@link AudioPlayerSendHandler}
+   * <p>
+   * Each guild owns its own send handler and frame buffer, so
+   * multiple guilds can stream audio simultaneously without
+   * overwriting each other's frames.
+   */
+  private final AudioPlayerSendHandler sendHandler;
+
+  /**
+   * {@link VoiceReconnectSupervisor}
    */
-  private static AudioPlayerSendHandler sendHandler;
+  private final VoiceReconnectSupervisor reconnectSupervisor;
 
   /**
-   * Associates the audio player manager with its audio player,
-   * {@link AudioScheduler}, and {@link AudioPlayerSendHandler}.
+   * Associates the audio player manager with its guild, {@link AudioScheduler}, {@link AudioPlayerSendHandler},
+   * {@link VoiceReconnectSupervisor}, {@link QueueJournal}, and {@link TrackHistory}.
    *
-   * @param audioPlayerManager audio player manager
+   * @param audioPlayerManager {@link TunedAudioPlayerManager}
+   * @param guildId            guild id
+   * @param queueJournal       {@link QueueJournal}
+   * @param trackHistory       {@link TrackHistory}
    */
-  public PlaybackManager(@NotNull AudioPlayerManager audioPlayerManager) {
-    this.audioPlayer = Objects.requireNonNull(audioPlayerManager, "Null audio player manager").createPlayer();
-    this.audioScheduler = new AudioScheduler(this.audioPlayer);
-    this.audioPlayer.addListener(this.audioScheduler);
-    sendHandler = new AudioPlayerSendHandler(this.audioPlayer);
+  public PlaybackManager(@NotNull TunedAudioPlayerManager audioPlayerManager, long guildId, @NotNull QueueJournal queueJournal, @NotNull TrackHistory trackHistory) {
+    this.audioScheduler = new AudioScheduler(Objects.requireNonNull(audioPlayerManager, "Null audio player manager"), guildId, queueJournal, trackHistory);
+    this.sendHandler = new AudioPlayerSendHandler(this.audioScheduler);
+    this.reconnectSupervisor = new VoiceReconnectSupervisor(guildId, this.audioScheduler, this.sendHandler);
   }
 
   /**
@@ -49,7 +53,17 @@ public class PlaybackManager {
    * @return {@link AudioPlayerSendHandler}
    */
   @NotNull
-  public static AudioPlayerSendHandler getSendHandler() {
-    return sendHandler;
+  public AudioPlayerSendHandler getSendHandler() {
+    return this.sendHandler;
+  }
+
+  /**
+   * Gets the {@link VoiceReconnectSupervisor}.
+   *
+   * @return {@link VoiceReconnectSupervisor}
+   */
+  @NotNull
+  public VoiceReconnectSupervisor getReconnectSupervisor() {
+    return this.reconnectSupervisor;
   }
 }
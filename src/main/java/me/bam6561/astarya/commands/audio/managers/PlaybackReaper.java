@@ -0,0 +1,174 @@
+package me.bam6561.astarya.commands.audio.managers;
+
+import me.bam6561.astarya.Bot;
+import me.bam6561.astarya.commands.owner.Settings;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.GuildVoiceState;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.channel.unions.AudioChannelUnion;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the component of the {@link PlayerManager} that reclaims idle guilds' {@link PlaybackManager PlaybackManagers}.
+ * <p>
+ * The audio player is paused as soon as nobody is left listening in the
+ * bot's voice channel, and resumed when a listener returns. A guild is idle
+ * while the bot isn't connected, nobody is listening, or nothing is playing.
+ * Once a guild has been idle for the idle timeout in {@link Settings}, the
+ * bot disconnects, and its {@link PlaybackManager} is destroyed and evicted
+ * with its queue persisted, so memory only grows with active guilds.
+ *
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class PlaybackReaper {
+  /**
+   * Seconds between checks for idle guilds.
+   */
+  private static final int SWEEP_INTERVAL = 30;
+
+  /**
+   * {@link PlaybackManager} by guild id.
+   */
+  private final Map<Long, PlaybackManager> playbackManagers;
+
+  /**
+   * Time each idle guild became idle by guild id.
+   */
+  private final Map<Long, Long> idleSince = new ConcurrentHashMap<>();
+
+  /**
+   * Evictions in progress by guild id, completed once the guild's queue is saved.
+   */
+  private final Map<Long, CompletableFuture<Void>> evictions = new ConcurrentHashMap<>();
+
+  /**
+   * Associates the reaper with the {@link PlaybackManager PlaybackManagers} and schedules periodic sweeps.
+   *
+   * @param playbackManagers {@link PlaybackManager} by guild id
+   */
+  public PlaybackReaper(@NotNull Map<Long, PlaybackManager> playbackManagers) {
+    this.playbackManagers = Objects.requireNonNull(playbackManagers, "Null playback managers");
+    ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "PlaybackReaper");
+      thread.setDaemon(true);
+      return thread;
+    });
+    sweeper.scheduleWithFixedDelay(this::sweep, SWEEP_INTERVAL, SWEEP_INTERVAL, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Pauses or resumes a guild's audio player after someone joins, leaves, or deafens in voice.
+   * <p>
+   * Guilds without a {@link PlaybackManager} are ignored rather than created.
+   *
+   * @param guild guild
+   */
+  public void updateListeners(@NotNull Guild guild) {
+    PlaybackManager playbackManager = playbackManagers.get(Objects.requireNonNull(guild, "Null guild").getIdLong());
+    if (playbackManager != null) {
+      playbackManager.audioScheduler.setListenersPresent(hasListeners(guild));
+    }
+  }
+
+  /**
+   * Tracks how long each guild has been idle, and evicts guilds idle past the idle timeout.
+   */
+  private void sweep() {
+    long now = System.currentTimeMillis();
+    long idleTimeout = TimeUnit.MINUTES.toMillis(Settings.getIdleTimeout());
+    for (Map.Entry<Long, PlaybackManager> entry : playbackManagers.entrySet()) {
+      long guildId = entry.getKey();
+      Guild guild = Bot.getApi().getGuildById(guildId);
+      if (guild == null) { // Left the guild
+        evict(guildId, null);
+        continue;
+      }
+      if (hasListeners(guild) && entry.getValue().audioScheduler.isActive()) {
+        idleSince.remove(guildId);
+        continue;
+      }
+      if (now - idleSince.computeIfAbsent(guildId, id -> now) >= idleTimeout) {
+        evict(guildId, guild);
+      }
+    }
+    idleSince.keySet().retainAll(playbackManagers.keySet());
+  }
+
+  /**
+   * Removes a guild's {@link PlaybackManager}, destroys it, and disconnects from voice.
+   * <p>
+   * The eviction is registered before the entry is removed and destroyed
+   * outside the map's lock, so a command arriving meanwhile waits in
+   * {@link #awaitEviction(long)} to restore the saved queue. The eviction
+   * only completes once the voice connection is torn down, so the guild's
+   * next {@link PlaybackManager} is never detached or disconnected by it.
+   *
+   * @param guildId guild id
+   * @param guild   guild, or null if the bot left it
+   */
+  private void evict(long guildId, Guild guild) {
+    idleSince.remove(guildId);
+    PlaybackManager playbackManager = playbackManagers.get(guildId);
+    if (playbackManager == null) {
+      return;
+    }
+    CompletableFuture<Void> eviction = new CompletableFuture<>();
+    evictions.put(guildId, eviction);
+    try {
+      if (playbackManagers.remove(guildId, playbackManager)) {
+        playbackManager.getReconnectSupervisor().close();
+        playbackManager.audioScheduler.destroy();
+        if (guild != null) {
+          guild.getAudioManager().setSendingHandler(null);
+          guild.getAudioManager().setConnectionListener(null);
+          guild.getAudioManager().closeAudioConnection();
+        }
+      }
+    } finally {
+      evictions.remove(guildId, eviction);
+      eviction.complete(null);
+    }
+  }
+
+  /**
+   * Waits for a guild's eviction in progress to finish saving its queue.
+   *
+   * @param guildId guild id
+   */
+  public void awaitEviction(long guildId) {
+    CompletableFuture<Void> eviction = evictions.get(guildId);
+    if (eviction != null) {
+      eviction.join();
+    }
+  }
+
+  /**
+   * Gets if anyone besides bots is listening in the bot's voice channel.
+   *
+   * @param guild guild
+   * @return if anyone is listening
+   */
+  private static boolean hasListeners(Guild guild) {
+    AudioChannelUnion audioChannel = guild.getAudioManager().getConnectedChannel();
+    if (audioChannel == null) {
+      return false;
+    }
+    for (Member member : audioChannel.getMembers()) {
+      GuildVoiceState voiceState = member.getVoiceState();
+      if (!member.getUser().isBot() && (voiceState == null || !voiceState.isDeafened())) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
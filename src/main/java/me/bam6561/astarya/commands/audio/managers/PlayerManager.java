@@ -2,12 +2,11 @@ package me.bam6561.astarya.commands.audio.managers;
 
 import com.jagrosh.jdautilities.command.CommandEvent;
 import com.sedmelluq.discord.lavaplayer.player.AudioLoadResultHandler;
-import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
-import com.sedmelluq.discord.lavaplayer.player.DefaultAudioPlayerManager;
 import com.sedmelluq.discord.lavaplayer.source.AudioSourceManagers;
 import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
 import com.sedmelluq.discord.lavaplayer.track.AudioPlaylist;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.playback.NonAllocatingAudioFrameBuffer;
 import me.bam6561.astarya.commands.audio.SearchTrack;
 import me.bam6561.astarya.commands.audio.TrackTime;
 import me.bam6561.astarya.commands.owner.Settings;
@@ -15,17 +14,20 @@ import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Guild;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.HashMap;
+import java.nio.file.Path;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Represents a LavaPlayer component that converts files and
  * search queries into playable tracks for the {@link AudioScheduler}.
  *
  * @author Danny Nguyen
- * @version 1.9.3
+ * @version 1.9.5
  * @since 1.1.0
  */
 public class PlayerManager {
@@ -35,27 +37,74 @@ public class PlayerManager {
   private static PlayerManager INSTANCE;
 
   /**
-   * {@link PlaybackManager}
+   * {@link PlaybackManager} by guild id.
+   * <p>
+   * Guilds are created from multiple JDA threads at once, so the map is concurrent.
+   */
+  private final Map<Long, PlaybackManager> musicManagers = new ConcurrentHashMap<>();
+
+  /**
+   * {@link PlaybackReaper}
    */
-  private final Map<Long, PlaybackManager> musicManagers = new HashMap<>();
+  private final PlaybackReaper playbackReaper = new PlaybackReaper(this.musicManagers);
 
   /**
-   * Audio player manager.
+   * {@link TunedAudioPlayerManager}
    */
-  private final AudioPlayerManager audioPlayerManager = new DefaultAudioPlayerManager();
+  private final TunedAudioPlayerManager audioPlayerManager = new TunedAudioPlayerManager();
 
   /**
-   * Search results from {@link SearchTrack}.
+   * {@link SearchCache}
    */
-  private final AudioTrack[] searchTrackResults = new AudioTrack[5];
+  private final SearchCache searchCache;
+
+  /**
+   * {@link StreamCache}
+   */
+  private final StreamCache streamCache;
+
+  /**
+   * {@link SearchTrack} sessions.
+   */
+  private final SearchSessions searchSessions = new SearchSessions();
+
+  /**
+   * {@link PlaylistImporter}
+   */
+  private final PlaylistImporter playlistImporter = new PlaylistImporter(this);
+
+  /**
+   * {@link TrackEncoder}
+   */
+  private final TrackEncoder trackEncoder = new TrackEncoder(this.audioPlayerManager);
+
+  /**
+   * Directory of persisted {@link QueueJournal queues}.
+   */
+  private final Path queueDirectory = Path.of("resources", "queues");
+
+  /**
+   * Directory of {@link TrackHistory} logs.
+   */
+  private final Path historyDirectory = Path.of("resources", "history");
 
   /**
    * Associates player manager with its music managers, audio
-   * player managers, audio source managers, and search track results.
+   * player managers, audio source managers, and search sessions.
+   * <p>
+   * Tracks buffer frames into preallocated memory instead of allocating each
+   * frame, so the {@link AudioPlayerSendHandler} can copy them out without garbage.
+   * <p>
+   * {@link AudioFilters} are swapped into playing tracks instead of waiting for the next track.
    */
   public PlayerManager() {
+    this.audioPlayerManager.getConfiguration().setFrameBufferFactory(NonAllocatingAudioFrameBuffer::new);
+    this.audioPlayerManager.getConfiguration().setFilterHotSwapEnabled(true);
     AudioSourceManagers.registerRemoteSources(this.audioPlayerManager);
     AudioSourceManagers.registerLocalSource(this.audioPlayerManager);
+    this.searchCache = new SearchCache(this.trackEncoder, Path.of("resources", "search_cache.dat"));
+    this.streamCache = new StreamCache(this.audioPlayerManager, Path.of("resources", "stream_cache"));
+    Runtime.getRuntime().addShutdownHook(new Thread(this::checkpointQueues, "QueueJournal-Shutdown"));
   }
 
   /**
@@ -65,6 +114,10 @@ public class PlayerManager {
    * YouTube video links and media files are handled by the trackLoaded method.
    * <p>
    * YouTube playlist links and search queries are handled by the playlistLoaded method.
+   * <p>
+   * Search queries answered by the {@link SearchCache} are queued without searching again.
+   * <p>
+   * Loads are timed in the guild's {@link AudioMetrics}.
    *
    * @param ce       command event
    * @param trackUrl either a direct url link to the track(s) requested or a YouTube search query
@@ -73,15 +126,27 @@ public class PlayerManager {
   public void createAudioTrack(@NotNull CommandEvent ce, @NotNull String trackUrl, boolean isSilent) {
     final PlaybackManager playbackManager = this.getPlaybackManager(Objects.requireNonNull(ce, "Null command event").getGuild());
     AudioScheduler audioScheduler = playbackManager.audioScheduler;
-    this.audioPlayerManager.loadItemOrdered(playbackManager, Objects.requireNonNull(trackUrl, "Null track url"), new AudioLoadResultHandler() {
+    long requestTime = System.nanoTime();
+    if (SearchCache.isSearchQuery(Objects.requireNonNull(trackUrl, "Null track url"))) {
+      AudioTrack cachedTrack = searchCache.get(trackUrl);
+      if (cachedTrack != null) {
+        recordLoad(audioScheduler, requestTime);
+        processYouTubeLinksAndMediaFiles(ce, audioScheduler, cachedTrack, isSilent);
+        return;
+      }
+    }
+    this.audioPlayerManager.loadItemOrdered(playbackManager, trackUrl, new AudioLoadResultHandler() {
       @Override
       public void trackLoaded(@NotNull AudioTrack track) {
+        recordLoad(audioScheduler, requestTime);
         processYouTubeLinksAndMediaFiles(ce, audioScheduler, Objects.requireNonNull(track, "Null track"), isSilent);
       }
 
       @Override
       public void playlistLoaded(@NotNull AudioPlaylist trackPlaylist) {
+        recordLoad(audioScheduler, requestTime);
         if (Objects.requireNonNull(trackPlaylist, "Null track playlist").isSearchResult()) {
+          searchCache.put(trackUrl, trackPlaylist.getTracks().get(0));
           processYouTubeSearchQueries(ce, audioScheduler, trackPlaylist, isSilent);
         } else {
           processYouTubePlaylistLinks(ce, audioScheduler, trackPlaylist, isSilent);
@@ -104,8 +169,22 @@ public class PlayerManager {
     });
   }
 
+  /**
+   * Records how long a track request took to load, and if its first frame should
+   * be timed too because nothing is playing or queued ahead of it.
+   *
+   * @param audioScheduler {@link AudioScheduler}
+   * @param requestTime    time the track was requested in nanoseconds
+   */
+  private void recordLoad(AudioScheduler audioScheduler, long requestTime) {
+    boolean playsNext = audioScheduler.getAudioPlayer().getPlayingTrack() == null && audioScheduler.getTrackQueue().isEmpty();
+    audioScheduler.getAudioMetrics().onTrackLoaded(requestTime, playsNext);
+  }
+
   /**
    * Adds a YouTube video or media file into the {@link AudioScheduler#getTrackQueue() queue}.
+   * <p>
+   * The confirmation notes if the track is already queued.
    *
    * @param ce             command event
    * @param audioScheduler {@link AudioScheduler}
@@ -114,14 +193,17 @@ public class PlayerManager {
    */
   private void processYouTubeLinksAndMediaFiles(CommandEvent ce, AudioScheduler audioScheduler, AudioTrack track, boolean isSilent) {
     String requester = "[" + ce.getAuthor().getAsTag() + "]";
+    int duplicateIndex = audioScheduler.findDuplicate(track);
     audioScheduler.queue(track, requester);
     if (!isSilent) {
-      ce.getChannel().sendMessage("**Added:** `" + track.getInfo().title + "` {*" + TrackTime.convertLong(track.getDuration()) + "*} " + requester).queue();
+      ce.getChannel().sendMessage("**Added:** `" + track.getInfo().title + "` {*" + TrackTime.convertLong(track.getDuration()) + "*} " + requester + describeDuplicate(duplicateIndex)).queue();
     }
   }
 
   /**
    * Adds the first match from a YouTube search query into the {@link AudioScheduler#getTrackQueue() queue}.
+   * <p>
+   * The confirmation notes if the track is already queued.
    *
    * @param ce             command event
    * @param audioScheduler {@link AudioScheduler}
@@ -132,12 +214,24 @@ public class PlayerManager {
     List<AudioTrack> searchResults = trackPlaylist.getTracks();
     AudioTrack track = searchResults.get(0);
     String requester = "[" + ce.getAuthor().getAsTag() + "]";
+    int duplicateIndex = audioScheduler.findDuplicate(track);
     audioScheduler.queue(track, requester);
     if (!isSilent) {
-      ce.getChannel().sendMessage("**Added:** `" + searchResults.get(0).getInfo().title + "` {*" + TrackTime.convertLong(track.getDuration()) + "*} " + requester).queue();
+      ce.getChannel().sendMessage("**Added:** `" + searchResults.get(0).getInfo().title + "` {*" + TrackTime.convertLong(track.getDuration()) + "*} " + requester + describeDuplicate(duplicateIndex)).queue();
     }
   }
 
+  /**
+   * Describes where an added track was already queued.
+   *
+   * @param duplicateIndex queue index of the already queued copy, or -1 if none
+   * @return duplicate note, or an empty string if the track wasn't already queued
+   */
+  private String describeDuplicate(int duplicateIndex) {
+    // Displayed indices to users are different from data index so add 1
+    return duplicateIndex < 0 ? "" : " *(Already queued at **[" + (duplicateIndex + 1) + "]**)*";
+  }
+
   /**
    * Adds each YouTube video from the playlist into the {@link AudioScheduler#getTrackQueue() queue}.
    *
@@ -156,15 +250,71 @@ public class PlayerManager {
     }
   }
 
+  /**
+   * Loads the tracks of a url or search query without queueing them.
+   * <p>
+   * Unlike the play command, loads aren't ordered per guild,
+   * so a {@link PlaylistImporter} can resolve several entries at once.
+   * <p>
+   * Search queries only resolve to their first match, and are answered by the {@link SearchCache} when possible.
+   *
+   * @param trackUrl either a direct url link to the track(s) or a YouTube search query
+   * @return loaded tracks, empty if nothing was found or the track couldn't be loaded
+   */
+  @NotNull
+  public CompletableFuture<List<AudioTrack>> loadTracks(@NotNull String trackUrl) {
+    boolean isSearchQuery = SearchCache.isSearchQuery(Objects.requireNonNull(trackUrl, "Null track url"));
+    if (isSearchQuery) {
+      AudioTrack cachedTrack = searchCache.get(trackUrl);
+      if (cachedTrack != null) {
+        return CompletableFuture.completedFuture(List.of(cachedTrack));
+      }
+    }
+
+    CompletableFuture<List<AudioTrack>> tracks = new CompletableFuture<>();
+    this.audioPlayerManager.loadItem(trackUrl, new AudioLoadResultHandler() {
+      @Override
+      public void trackLoaded(@NotNull AudioTrack track) {
+        tracks.complete(List.of(track));
+      }
+
+      @Override
+      public void playlistLoaded(@NotNull AudioPlaylist trackPlaylist) {
+        List<AudioTrack> playlistTracks = trackPlaylist.getTracks();
+        if (playlistTracks.isEmpty()) {
+          tracks.complete(List.of());
+        } else if (trackPlaylist.isSearchResult() || isSearchQuery) {
+          searchCache.put(trackUrl, playlistTracks.get(0));
+          tracks.complete(List.of(playlistTracks.get(0)));
+        } else {
+          tracks.complete(List.copyOf(playlistTracks));
+        }
+      }
+
+      @Override
+      public void noMatches() {
+        tracks.complete(List.of());
+      }
+
+      @Override
+      public void loadFailed(FriendlyException throwable) {
+        tracks.complete(List.of());
+      }
+    });
+    return tracks;
+  }
+
   /**
    * Used in conjunction with {@link SearchTrack},
    * this method displays tracks from a YouTube search query and
-   * adds them into a list for the user to later choose from to queue.
+   * adds them into the user's search session to later choose from to queue.
    *
    * @param ce                 command event
    * @param youtubeSearchQuery youtube search query
+   * @param session            user's {@link SearchSessions.Session search session}
    */
-  public void searchAudioTrack(@NotNull CommandEvent ce, @NotNull String youtubeSearchQuery) {
+  public void searchAudioTrack(@NotNull CommandEvent ce, @NotNull String youtubeSearchQuery, @NotNull SearchSessions.Session session) {
+    Objects.requireNonNull(session, "Null session");
     final PlaybackManager playbackManager = this.getPlaybackManager(Objects.requireNonNull(ce, "Null command event").getGuild());
     this.audioPlayerManager.loadItemOrdered(playbackManager, Objects.requireNonNull(youtubeSearchQuery, "Null youtube search query"), new AudioLoadResultHandler() {
       @Override
@@ -174,7 +324,7 @@ public class PlayerManager {
 
       @Override
       public void playlistLoaded(@NotNull AudioPlaylist playlist) {
-        processSearchTrackResults(ce, Objects.requireNonNull(playlist, "Null track playlist"));
+        processSearchTrackResults(ce, Objects.requireNonNull(playlist, "Null track playlist"), session);
       }
 
       @Override
@@ -195,18 +345,17 @@ public class PlayerManager {
    *
    * @param ce       command event
    * @param playlist YouTube search results
+   * @param session  user's {@link SearchSessions.Session search session}
    */
-  private void processSearchTrackResults(CommandEvent ce, AudioPlaylist playlist) {
-    List<AudioTrack> searchResults = playlist.getTracks();
-    for (int i = 0; i < 5; i++) {
-      searchTrackResults[i] = searchResults.get(i);
-    }
+  private void processSearchTrackResults(CommandEvent ce, AudioPlaylist playlist, SearchSessions.Session session) {
+    List<AudioTrack> searchTrackResults = playlist.getTracks().subList(0, Math.min(5, playlist.getTracks().size()));
+    session.setResults(searchTrackResults);
 
     StringBuilder searchResultsDisplay = new StringBuilder();
-    for (int i = 0; i < 5; i++) {
-      long trackDurationLong = searchTrackResults[i].getDuration();
+    for (int i = 0; i < searchTrackResults.size(); i++) {
+      long trackDurationLong = searchTrackResults.get(i).getDuration();
       String trackDuration = TrackTime.convertLong(trackDurationLong);
-      searchResultsDisplay.append("**[").append(i + 1).append("]** `").append(searchTrackResults[i].getInfo().title).append("` {*").append(trackDuration).append("*}\n");
+      searchResultsDisplay.append("**[").append(i + 1).append("]** `").append(searchTrackResults.get(i).getInfo().title).append("` {*").append(trackDuration).append("*}\n");
     }
 
     EmbedBuilder embed = new EmbedBuilder();
@@ -216,30 +365,110 @@ public class PlayerManager {
   }
 
   /**
-   * Gets search track results.
+   * Gets the {@link SearchCache}.
+   *
+   * @return {@link SearchCache}
+   */
+  @NotNull
+  public SearchCache getSearchCache() {
+    return this.searchCache;
+  }
+
+  /**
+   * Gets the {@link StreamCache}.
+   *
+   * @return {@link StreamCache}
+   */
+  @NotNull
+  public StreamCache getStreamCache() {
+    return this.streamCache;
+  }
+
+  /**
+   * Gets the {@link PlaybackReaper}.
+   *
+   * @return {@link PlaybackReaper}
+   */
+  @NotNull
+  public PlaybackReaper getPlaybackReaper() {
+    return this.playbackReaper;
+  }
+
+  /**
+   * Gets the {@link SearchTrack} sessions.
+   *
+   * @return {@link SearchSessions}
+   */
+  @NotNull
+  public SearchSessions getSearchSessions() {
+    return this.searchSessions;
+  }
+
+  /**
+   * Gets the {@link PlaybackManager PlaybackManagers} of guilds currently in use.
+   *
+   * @return unmodifiable view of {@link PlaybackManager PlaybackManagers} by guild id
+   */
+  @NotNull
+  public Map<Long, PlaybackManager> getPlaybackManagers() {
+    return Collections.unmodifiableMap(this.musicManagers);
+  }
+
+  /**
+   * Gets the {@link PlaylistImporter}.
    *
-   * @return search track results
+   * @return {@link PlaylistImporter}
    */
-  public AudioTrack[] getSearchTrackResults() {
-    return this.searchTrackResults;
+  @NotNull
+  public PlaylistImporter getPlaylistImporter() {
+    return this.playlistImporter;
   }
 
   /**
    * Returns object that allows for conversion of track
    * query results into playable audio in a voice channel.
+   * <p>
+   * The guild's persisted queue and history are restored the first time it's requested,
+   * after any eviction of the guild in progress has saved them, and its {@link VoiceReconnectSupervisor} starts listening to the voice connection.
    *
    * @param guild Discord server the bot is in
    * @return playbackManager as an object
    */
   @NotNull
   public PlaybackManager getPlaybackManager(@NotNull Guild guild) {
-    return this.musicManagers.computeIfAbsent(Objects.requireNonNull(guild, "Null guild").getIdLong(), (guildId) -> {
-      final PlaybackManager playbackManager = new PlaybackManager(this.audioPlayerManager);
-      guild.getAudioManager().setSendingHandler(PlaybackManager.getSendHandler());
+    final long id = Objects.requireNonNull(guild, "Null guild").getIdLong();
+    final PlaybackManager existingManager = this.musicManagers.get(id);
+    if (existingManager != null) {
+      return existingManager;
+    }
+    this.playbackReaper.awaitEviction(id);
+    return this.musicManagers.computeIfAbsent(id, (guildId) -> {
+      final QueueJournal queueJournal = new QueueJournal(this.trackEncoder, this.queueDirectory, guildId);
+      final TrackHistory trackHistory = new TrackHistory(this.trackEncoder, this.historyDirectory, guildId);
+      final PlaybackManager playbackManager = new PlaybackManager(this.audioPlayerManager, guildId, queueJournal, trackHistory);
+      guild.getAudioManager().setSendingHandler(playbackManager.getSendHandler());
+      guild.getAudioManager().setConnectionListener(playbackManager.getReconnectSupervisor());
       return playbackManager;
     });
   }
 
+  /**
+   * Applies changed engine tuning {@link Settings} to the {@link TunedAudioPlayerManager}.
+   */
+  public void applyEngineSettings() {
+    this.audioPlayerManager.applySettings();
+  }
+
+  /**
+   * Saves a snapshot of every guild's queue and waits for them to be written.
+   */
+  public void checkpointQueues() {
+    for (PlaybackManager playbackManager : this.musicManagers.values()) {
+      playbackManager.audioScheduler.checkpointQueue();
+    }
+    QueueJournal.awaitWrites(5000);
+  }
+
   /**
    * Gets an instance of the player manager.
    *
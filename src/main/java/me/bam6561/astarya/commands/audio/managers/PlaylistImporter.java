@@ -0,0 +1,555 @@
+package me.bam6561.astarya.commands.audio.managers;
+
+import com.jagrosh.jdautilities.command.CommandEvent;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import me.bam6561.astarya.commands.audio.Import;
+import me.bam6561.astarya.commands.owner.Settings;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Message;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the {@link Import} of M3U, PLS, and plain text playlist files.
+ * <p>
+ * Files are read a line at a time straight from the attachment's download
+ * stream, so even long playlists are never held in memory whole. A few
+ * entries are resolved by the {@link PlayerManager} at once, and their
+ * tracks are added to the queue in the file's order as they're resolved.
+ * <p>
+ * Progress is reported by editing one message rather than sending one per track.
+ *
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class PlaylistImporter {
+  /**
+   * Maximum number of entries read from a file.
+   */
+  private static final int MAXIMUM_ENTRIES = 1000;
+
+  /**
+   * Maximum number of tracks added from a file.
+   */
+  private static final int MAXIMUM_TRACKS = 1000;
+
+  /**
+   * Maximum number of entries resolved at once.
+   */
+  private static final int RESOLVE_CONCURRENCY = 4;
+
+  /**
+   * Seconds to wait for an entry to resolve.
+   */
+  private static final int RESOLVE_TIMEOUT = 30;
+
+  /**
+   * Milliseconds between progress message edits.
+   */
+  private static final long PROGRESS_INTERVAL = 2000;
+
+  /**
+   * {@link PlayerManager}
+   */
+  private final PlayerManager playerManager;
+
+  /**
+   * Threads reading playlist files.
+   */
+  private final ExecutorService importers = Executors.newFixedThreadPool(2, runnable -> {
+    Thread thread = new Thread(runnable, "PlaylistImporter");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * Associates the playlist importer with the {@link PlayerManager} that resolves its entries.
+   *
+   * @param playerManager {@link PlayerManager}
+   */
+  public PlaylistImporter(@NotNull PlayerManager playerManager) {
+    this.playerManager = Objects.requireNonNull(playerManager, "Null player manager");
+  }
+
+  /**
+   * Checks if an attachment is a supported playlist file.
+   *
+   * @param attachment message attachment
+   * @return if the attachment is a supported playlist file
+   */
+  public static boolean isPlaylistFile(@NotNull Message.Attachment attachment) {
+    return Format.of(Objects.requireNonNull(attachment, "Null attachment").getFileExtension()) != null;
+  }
+
+  /**
+   * Reads a playlist file and adds its tracks to the
+   * {@link AudioScheduler#getTrackQueue() queue} in the background.
+   * <p>
+   * The command invocation is deleted once the file is read, since deleting it also deletes the file.
+   *
+   * @param ce         command event
+   * @param attachment playlist file
+   */
+  public void importPlaylist(@NotNull CommandEvent ce, @NotNull Message.Attachment attachment) {
+    Objects.requireNonNull(ce, "Null command event");
+    Format format = Objects.requireNonNull(Format.of(Objects.requireNonNull(attachment, "Null attachment").getFileExtension()), "Unsupported file");
+    Progress progress = new Progress(ce, attachment.getFileName());
+    attachment.getProxy().download()
+        .thenAcceptAsync(inputStream -> readPlaylist(ce.getGuild(), "[" + ce.getAuthor().getAsTag() + "]", format, inputStream, progress), importers)
+        .whenComplete((result, e) -> {
+          if (e != null) {
+            progress.fail(Error.UNABLE_TO_READ_FILE.getMessage());
+          }
+          Settings.deleteInvoke(ce);
+        });
+  }
+
+  /**
+   * Resolves the file's entries a few at a time, adding their tracks to the queue in order.
+   *
+   * @param guild       guild importing the playlist
+   * @param requester   requesting user
+   * @param format      playlist file {@link Format}
+   * @param inputStream file's download stream
+   * @param progress    {@link Progress}
+   */
+  private void readPlaylist(Guild guild, String requester, Format format, InputStream inputStream, Progress progress) {
+    Deque<CompletableFuture<List<AudioTrack>>> resolving = new ArrayDeque<>(RESOLVE_CONCURRENCY);
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+      EntryReader entryReader = new EntryReader(reader, format);
+      String entry;
+      int entries = 0;
+      boolean isTruncated = false;
+      while (entries < MAXIMUM_ENTRIES && !progress.isFull() && (entry = entryReader.next()) != null) {
+        entries++;
+        resolving.add(playerManager.loadTracks(entry).completeOnTimeout(List.of(), RESOLVE_TIMEOUT, TimeUnit.SECONDS));
+        if (resolving.size() >= RESOLVE_CONCURRENCY) {
+          isTruncated |= !queueTracks(guild, requester, resolving.poll().join(), progress);
+        }
+      }
+      while (!resolving.isEmpty()) {
+        isTruncated |= !queueTracks(guild, requester, resolving.poll().join(), progress);
+      }
+      progress.finish(isTruncated || ((entries == MAXIMUM_ENTRIES || progress.isFull()) && entryReader.next() != null));
+    } catch (IOException e) {
+      while (!resolving.isEmpty()) {
+        queueTracks(guild, requester, resolving.poll().join(), progress);
+      }
+      progress.fail(Error.UNABLE_TO_READ_FILE.getMessage());
+    }
+  }
+
+  /**
+   * Adds a resolved entry's tracks to the {@link AudioScheduler#getTrackQueue() queue},
+   * up to the {@link #MAXIMUM_TRACKS} added from the file.
+   * <p>
+   * The guild's {@link AudioScheduler} is looked up again each time in
+   * case the guild was reclaimed by the {@link PlaybackReaper} mid-import.
+   *
+   * @param guild     guild importing the playlist
+   * @param requester requesting user
+   * @param tracks    resolved tracks
+   * @param progress  {@link Progress}
+   * @return if all the tracks were added
+   */
+  private boolean queueTracks(Guild guild, String requester, List<AudioTrack> tracks, Progress progress) {
+    if (tracks.isEmpty()) {
+      progress.update(0, 1);
+      return true;
+    }
+    int addedTracks = Math.min(tracks.size(), MAXIMUM_TRACKS - progress.added);
+    if (addedTracks > 0) {
+      AudioScheduler audioScheduler = playerManager.getPlaybackManager(guild).audioScheduler;
+      for (AudioTrack track : tracks.subList(0, addedTracks)) {
+        audioScheduler.queue(track, requester);
+      }
+    }
+    progress.update(addedTracks, 0);
+    return addedTracks == tracks.size();
+  }
+
+  /**
+   * Represents the playlist file formats.
+   */
+  private enum Format {
+    /**
+     * Extended M3U: locations, with #EXTINF titles.
+     */
+    M3U,
+
+    /**
+     * PLS: numbered FileN and TitleN keys.
+     */
+    PLS,
+
+    /**
+     * Plain text: one url or search per line.
+     */
+    TEXT;
+
+    /**
+     * Gets the format of a file extension.
+     *
+     * @param fileExtension file extension
+     * @return format, or null if unsupported
+     */
+    @Nullable
+    private static Format of(@Nullable String fileExtension) {
+      if (fileExtension == null) {
+        return null;
+      }
+      return switch (fileExtension.toLowerCase(Locale.ROOT)) {
+        case "m3u", "m3u8" -> M3U;
+        case "pls" -> PLS;
+        case "txt" -> TEXT;
+        default -> null;
+      };
+    }
+  }
+
+  /**
+   * Represents a reader of a playlist file's entries as loadable urls or search queries.
+   * <p>
+   * Urls are loaded as is. Local file paths can't be played from here,
+   * so they're searched for on YouTube by their title, or by their file name if untitled.
+   *
+   * @author Danny Nguyen
+   * @version 1.9.5
+   * @since 1.9.5
+   */
+  private static class EntryReader {
+    /**
+     * File's lines.
+     */
+    private final BufferedReader reader;
+
+    /**
+     * Playlist file {@link Format}.
+     */
+    private final Format format;
+
+    /**
+     * Title of the next M3U location, or the current PLS entry.
+     */
+    private String title = null;
+
+    /**
+     * Number of the current PLS entry.
+     */
+    private String plsNumber = null;
+
+    /**
+     * Location of the current PLS entry.
+     */
+    private String plsLocation = null;
+
+    /**
+     * If the first line has been read.
+     */
+    private boolean isFirstLine = true;
+
+    /**
+     * Associates the entry reader with the file's lines and format.
+     *
+     * @param reader file's lines
+     * @param format playlist file {@link Format}
+     */
+    EntryReader(BufferedReader reader, Format format) {
+      this.reader = reader;
+      this.format = format;
+    }
+
+    /**
+     * Reads the next entry.
+     *
+     * @return url or search query, or null if there are no entries left
+     * @throws IOException if the file couldn't be read
+     */
+    @Nullable
+    String next() throws IOException {
+      String line;
+      while ((line = readLine()) != null) {
+        String entry = switch (format) {
+          case M3U -> readM3uLine(line);
+          case PLS -> readPlsLine(line);
+          case TEXT -> line.isEmpty() ? null : toQuery(line, null);
+        };
+        if (entry != null) {
+          return entry;
+        }
+      }
+      return format == Format.PLS ? takePlsEntry() : null;
+    }
+
+    /**
+     * Reads the next trimmed line, dropping the byte order mark some editors write.
+     *
+     * @return line, or null at the end of the file
+     * @throws IOException if the file couldn't be read
+     */
+    private String readLine() throws IOException {
+      String line = reader.readLine();
+      if (line == null) {
+        return null;
+      }
+      if (isFirstLine) {
+        isFirstLine = false;
+        if (line.startsWith("\uFEFF")) {
+          line = line.substring(1);
+        }
+      }
+      return line.trim();
+    }
+
+    /**
+     * Reads an M3U line, remembering #EXTINF titles for the location after them.
+     *
+     * @param line M3U line
+     * @return entry, or null if the line isn't a location
+     */
+    private String readM3uLine(String line) {
+      if (line.isEmpty()) {
+        return null;
+      }
+      if (line.startsWith("#")) {
+        if (line.regionMatches(true, 0, "#EXTINF:", 0, 8)) {
+          int titleStart = line.indexOf(',');
+          title = titleStart == -1 ? null : line.substring(titleStart + 1).trim();
+        }
+        return null;
+      }
+      String entry = toQuery(line, title);
+      title = null;
+      return entry;
+    }
+
+    /**
+     * Reads a PLS line, returning the previous entry once a new one begins.
+     *
+     * @param line PLS line
+     * @return previous entry, or null if it isn't complete yet
+     */
+    private String readPlsLine(String line) {
+      int separator = line.indexOf('=');
+      if (separator == -1) {
+        return null;
+      }
+      String key = line.substring(0, separator).trim().toLowerCase(Locale.ROOT);
+      String value = line.substring(separator + 1).trim();
+      if (key.startsWith("file") && key.length() > 4) {
+        String entry = takePlsEntry();
+        plsNumber = key.substring(4);
+        plsLocation = value;
+        return entry;
+      } else if (key.startsWith("title") && key.length() > 5) {
+        String number = key.substring(5);
+        if (number.equals(plsNumber)) {
+          title = value;
+        }
+      }
+      return null;
+    }
+
+    /**
+     * Takes the current PLS entry.
+     *
+     * @return current entry, or null if there isn't one
+     */
+    private String takePlsEntry() {
+      String entry = plsLocation == null || plsLocation.isEmpty() ? null : toQuery(plsLocation, title);
+      plsNumber = null;
+      plsLocation = null;
+      title = null;
+      return entry;
+    }
+
+    /**
+     * Converts a location into a url or YouTube search query.
+     *
+     * @param location url, file path, or search
+     * @param title    location's title, or null if none
+     * @return url or search query
+     */
+    private static String toQuery(String location, String title) {
+      if (location.regionMatches(true, 0, "http://", 0, 7) || location.regionMatches(true, 0, "https://", 0, 8)) {
+        return location;
+      }
+      if (title != null && !title.isEmpty()) {
+        return "ytsearch:" + title;
+      }
+      if (location.indexOf('/') == -1 && location.indexOf('\\') == -1) {
+        return "ytsearch:" + location;
+      }
+      String fileName = location.substring(Math.max(location.lastIndexOf('/'), location.lastIndexOf('\\')) + 1);
+      int extensionStart = fileName.lastIndexOf('.');
+      return "ytsearch:" + (extensionStart > 0 ? fileName.substring(0, extensionStart) : fileName);
+    }
+  }
+
+  /**
+   * Represents an import's progress message.
+   * <p>
+   * The message is edited at most once per {@link #PROGRESS_INTERVAL}, and once more when the import ends.
+   *
+   * @author Danny Nguyen
+   * @version 1.9.5
+   * @since 1.9.5
+   */
+  private static class Progress {
+    /**
+     * Progress message after its latest edit.
+     * <p>
+     * Edits are chained so they're applied in the order they were made.
+     */
+    private CompletableFuture<Message> message;
+
+    /**
+     * Playlist file name.
+     */
+    private final String fileName;
+
+    /**
+     * Requesting user.
+     */
+    private final String requester;
+
+    /**
+     * Number of tracks added.
+     */
+    private int added = 0;
+
+    /**
+     * Number of entries that couldn't be found.
+     */
+    private int failed = 0;
+
+    /**
+     * When the message was last edited.
+     */
+    private long lastEdit = System.currentTimeMillis();
+
+    /**
+     * Sends the progress message.
+     *
+     * @param ce       command event
+     * @param fileName playlist file name
+     */
+    Progress(CommandEvent ce, String fileName) {
+      this.fileName = fileName;
+      this.requester = "[" + ce.getAuthor().getAsTag() + "]";
+      this.message = ce.getChannel().sendMessage("**Importing:** `" + fileName + "` " + requester).submit();
+    }
+
+    /**
+     * Counts a resolved entry and edits the message if it hasn't been edited recently.
+     *
+     * @param addedTracks  number of tracks added
+     * @param failedTracks number of entries that couldn't be found
+     */
+    void update(int addedTracks, int failedTracks) {
+      added += addedTracks;
+      failed += failedTracks;
+      long now = System.currentTimeMillis();
+      if (now - lastEdit >= PROGRESS_INTERVAL) {
+        lastEdit = now;
+        edit("**Importing:** `" + fileName + "` `" + added + "` tracks added" + describeFailed() + " " + requester);
+      }
+    }
+
+    /**
+     * Gets if the {@link #MAXIMUM_TRACKS} were added.
+     *
+     * @return if no more tracks can be added
+     */
+    boolean isFull() {
+      return added >= MAXIMUM_TRACKS;
+    }
+
+    /**
+     * Reports the finished import.
+     *
+     * @param isTruncated if entries past the {@link #MAXIMUM_ENTRIES} or tracks past the {@link #MAXIMUM_TRACKS} were left out
+     */
+    void finish(boolean isTruncated) {
+      String truncated = !isTruncated ? "" : isFull() ? " *(First " + MAXIMUM_TRACKS + " tracks)*" : " *(First " + MAXIMUM_ENTRIES + " entries)*";
+      edit("**Imported:** `" + fileName + "` `" + added + "` tracks" + describeFailed() + truncated + " " + requester);
+    }
+
+    /**
+     * Reports a failed import, including any tracks already added.
+     *
+     * @param reason failure reason
+     */
+    void fail(String reason) {
+      edit(reason + " **Imported:** `" + fileName + "` `" + added + "` tracks" + describeFailed() + " " + requester);
+    }
+
+    /**
+     * Describes how many entries couldn't be found.
+     *
+     * @return failed entries note, or an empty string if none failed
+     */
+    private String describeFailed() {
+      return failed == 0 ? "" : ", `" + failed + "` not found";
+    }
+
+    /**
+     * Edits the progress message once it's sent and any earlier edits are applied.
+     *
+     * @param content new content
+     */
+    private void edit(String content) {
+      message = message.thenCompose(sentMessage -> sentMessage.editMessage(content).submit());
+    }
+  }
+
+  /**
+   * Types of errors.
+   */
+  private enum Error {
+    /**
+     * Unable to read file.
+     */
+    UNABLE_TO_READ_FILE("Unable to read playlist file.");
+
+    /**
+     * Message.
+     */
+    private final String message;
+
+    /**
+     * Associates an error with its message.
+     *
+     * @param message message
+     */
+    Error(String message) {
+      this.message = message;
+    }
+
+    /**
+     * Gets the error's message.
+     *
+     * @return error's message
+     */
+    @NotNull
+    public String getMessage() {
+      return this.message;
+    }
+  }
+}
@@ -0,0 +1,249 @@
+package me.bam6561.astarya.commands.audio.managers;
+
+import me.bam6561.astarya.Bot;
+import net.dv8tion.jda.api.OnlineStatus;
+import net.dv8tion.jda.api.entities.Activity;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents the bot's presence across every guild's audio player.
+ * <p>
+ * The presence is global while audio players are per guild, so guilds only
+ * report their state here. The presence is sent at most once per update
+ * window with the state of the guild that most recently started playing,
+ * or was paused if none are playing. States superseded within the window
+ * are dropped, and unchanged presences aren't sent again, which keeps
+ * busy bots under Discord's presence rate limit.
+ *
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class PresenceManager {
+  /**
+   * Instance of the presence manager.
+   */
+  private static PresenceManager INSTANCE;
+
+  /**
+   * Minimum milliseconds between presence updates.
+   * <p>
+   * Discord allows 5 presence updates per 20 seconds.
+   */
+  private static final long UPDATE_WINDOW = 5000;
+
+  /**
+   * Maximum length of an activity name.
+   */
+  private static final int MAXIMUM_ACTIVITY_LENGTH = 128;
+
+  /**
+   * {@link GuildPresence} of guilds that are playing or paused by guild id.
+   */
+  private final Map<Long, GuildPresence> guildPresences = new ConcurrentHashMap<>();
+
+  /**
+   * Order in which guild states were reported.
+   */
+  private final AtomicLong sequence = new AtomicLong();
+
+  /**
+   * If a presence update is already scheduled.
+   */
+  private final AtomicBoolean updatePending = new AtomicBoolean();
+
+  /**
+   * Background presence updater.
+   */
+  private final ScheduledExecutorService updater = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "PresenceManager");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * Last sent online status.
+   * <p>
+   * Only accessed from the updater thread.
+   */
+  private OnlineStatus lastStatus = OnlineStatus.DO_NOT_DISTURB;
+
+  /**
+   * Last sent activity name.
+   * <p>
+   * Only accessed from the updater thread.
+   */
+  private String lastActivity = "Nothing";
+
+  /**
+   * Time the last presence update started.
+   */
+  private volatile long lastUpdate = 0;
+
+  /**
+   * No parameter constructor.
+   */
+  private PresenceManager() {
+  }
+
+  /**
+   * Reports that a guild started playing a track.
+   *
+   * @param guildId guild id
+   * @param title   track title
+   */
+  public void setPlaying(long guildId, @NotNull String title) {
+    Objects.requireNonNull(title, "Null title");
+    guildPresences.put(guildId, new GuildPresence(OnlineStatus.ONLINE, title, sequence.incrementAndGet()));
+    requestUpdate();
+  }
+
+  /**
+   * Reports that a guild's audio player was paused.
+   *
+   * @param guildId guild id
+   */
+  public void setPaused(long guildId) {
+    guildPresences.put(guildId, new GuildPresence(OnlineStatus.IDLE, "Paused", sequence.incrementAndGet()));
+    requestUpdate();
+  }
+
+  /**
+   * Reports that a guild isn't playing anything.
+   *
+   * @param guildId guild id
+   */
+  public void setStopped(long guildId) {
+    if (guildPresences.remove(guildId) != null) {
+      requestUpdate();
+    }
+  }
+
+  /**
+   * Schedules a presence update at the start of the next update window unless one is already scheduled.
+   */
+  private void requestUpdate() {
+    if (updatePending.compareAndSet(false, true)) {
+      long delay = Math.max(0, lastUpdate + UPDATE_WINDOW - System.currentTimeMillis());
+      updater.schedule(this::updatePresence, delay, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Sets the bot's presence to the representative guild's state if it changed.
+   * <p>
+   * Playing guilds take priority over paused guilds, and more recent states over older ones.
+   * <p>
+   * Playing Music - Online Green || Paused - Idle Yellow || Not playing audio - Do Not Disturb Red
+   */
+  private void updatePresence() {
+    lastUpdate = System.currentTimeMillis(); // Before clearing, so the next request waits out this window
+    updatePending.set(false);
+    GuildPresence representative = null;
+    for (GuildPresence guildPresence : guildPresences.values()) {
+      if (representative == null || guildPresence.outranks(representative)) {
+        representative = guildPresence;
+      }
+    }
+
+    OnlineStatus status = representative != null ? representative.status() : OnlineStatus.DO_NOT_DISTURB;
+    String activity = representative != null ? representative.activity() : "Nothing";
+    if (activity.length() > MAXIMUM_ACTIVITY_LENGTH) {
+      activity = activity.substring(0, MAXIMUM_ACTIVITY_LENGTH);
+    }
+    if (status == lastStatus && activity.equals(lastActivity)) {
+      return;
+    }
+
+    try {
+      Bot.getApi().getPresence().setPresence(status, Activity.listening(activity));
+      lastStatus = status;
+      lastActivity = activity;
+    } catch (RuntimeException e) {
+      System.out.println(Error.UNABLE_TO_UPDATE.getMessage());
+    }
+  }
+
+  /**
+   * Gets an instance of the presence manager.
+   *
+   * @return instance of the presence manager
+   */
+  @NotNull
+  public static synchronized PresenceManager getINSTANCE() {
+    if (INSTANCE == null) {
+      INSTANCE = new PresenceManager();
+    }
+    return INSTANCE;
+  }
+
+  /**
+   * Represents a guild's reported state.
+   *
+   * @param status   online status
+   * @param activity activity name
+   * @param sequence order in which the state was reported
+   * @author Danny Nguyen
+   * @version 1.9.5
+   * @since 1.9.5
+   */
+  private record GuildPresence(OnlineStatus status, String activity, long sequence) {
+    /**
+     * Gets if the state better represents the bot than another.
+     *
+     * @param other other state
+     * @return if the state takes priority
+     */
+    private boolean outranks(GuildPresence other) {
+      boolean isPlaying = status == OnlineStatus.ONLINE;
+      boolean isOtherPlaying = other.status == OnlineStatus.ONLINE;
+      if (isPlaying != isOtherPlaying) {
+        return isPlaying;
+      }
+      return sequence > other.sequence;
+    }
+  }
+
+  /**
+   * Types of errors.
+   */
+  private enum Error {
+    /**
+     * Unable to update presence.
+     */
+    UNABLE_TO_UPDATE("Unable to update presence.");
+
+    /**
+     * Message.
+     */
+    private final String message;
+
+    /**
+     * Associates an error with its message.
+     *
+     * @param message message
+     */
+    Error(String message) {
+      this.message = message;
+    }
+
+    /**
+     * Gets the error's message.
+     *
+     * @return error's message
+     */
+    @NotNull
+    public String getMessage() {
+      return this.message;
+    }
+  }
+}
@@ -0,0 +1,608 @@
+package me.bam6561.astarya.commands.audio.managers;
+
+import me.bam6561.astarya.commands.audio.TrackQueueIndex;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Represents a guild's {@link TrackQueue} persisted on disk as a
+ * compacted snapshot followed by an append-only journal of mutations.
+ * <p>
+ * Each queue mutation appends one checksummed record to the journal. Once
+ * enough records build up, the queue, the currently playing track, and its
+ * position are written as a new snapshot and the journal starts over.
+ * Periodic checkpoints only write a snapshot if the queue changed since the
+ * last one, and otherwise append the currently playing track's progress.
+ * <p>
+ * Tracks are stored by the {@link TrackEncoder}, so restoring
+ * a queue decodes tracks locally without any network calls.
+ * <p>
+ * Records and snapshots carry sequence numbers and checksums, so a crash at
+ * any point never replays a mutation twice, a record torn by a crash only
+ * loses itself, and a corrupted snapshot is discarded rather than misread. All file writes happen in order on one shared writer thread.
+ *
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class QueueJournal implements TrackQueue.ChangeListener {
+  /**
+   * Snapshot format version.
+   */
+  private static final int SNAPSHOT_VERSION = 2;
+
+  /**
+   * Number of journal records before the queue is compacted into a snapshot.
+   */
+  private static final int COMPACTION_THRESHOLD = 1000;
+
+  /**
+   * Largest record in bytes, past which a record's length is considered corrupted.
+   */
+  static final int MAXIMUM_RECORD_SIZE = 1024 * 1024;
+
+  /**
+   * Seconds between checkpoints.
+   */
+  private static final int CHECKPOINT_INTERVAL = 60;
+
+  /**
+   * Writer shared by all journals.
+   */
+  private static final ScheduledThreadPoolExecutor writer = createWriter();
+
+  /**
+   * {@link TrackEncoder}
+   */
+  private final TrackEncoder trackEncoder;
+
+  /**
+   * Snapshot file.
+   */
+  private final Path snapshotFile;
+
+  /**
+   * Journal file.
+   */
+  private final Path journalFile;
+
+  /**
+   * Sequence number of the last mutation.
+   * <p>
+   * Only accessed while the queue is locked.
+   */
+  private long lastSequence = 0;
+
+  /**
+   * Mutations since the last compaction.
+   * <p>
+   * Only accessed while the queue is locked.
+   */
+  private int recordsSinceCompaction = 0;
+
+  /**
+   * If the queue changed since the last compaction.
+   * <p>
+   * Only accessed while the queue is locked.
+   */
+  private boolean queueChanged = false;
+
+  /**
+   * Currently playing track last saved, or null if none.
+   * <p>
+   * Only accessed while the queue is locked.
+   */
+  private TrackQueueIndex savedTrack;
+
+  /**
+   * Position of the currently playing track last saved.
+   * <p>
+   * Only accessed while the queue is locked.
+   */
+  private long savedPosition = 0;
+
+  /**
+   * Sequence number of the last mutation included in the latest snapshot.
+   * <p>
+   * Only accessed from the writer thread.
+   */
+  private long compactedSequence = 0;
+
+  /**
+   * Open journal file.
+   * <p>
+   * Only accessed from the writer thread.
+   */
+  private DataOutputStream journal;
+
+  /**
+   * If the journal was closed, after which mutations and snapshots are ignored.
+   */
+  private volatile boolean closed = false;
+
+  /**
+   * Periodic checkpoints, or null if not scheduled.
+   */
+  private volatile ScheduledFuture<?> checkpoints;
+
+  /**
+   * Associates a guild's journal with its {@link TrackEncoder} and files.
+   *
+   * @param trackEncoder {@link TrackEncoder}
+   * @param directory    directory of persisted queues
+   * @param guildId      guild id
+   */
+  public QueueJournal(@NotNull TrackEncoder trackEncoder, @NotNull Path directory, long guildId) {
+    this.trackEncoder = Objects.requireNonNull(trackEncoder, "Null track encoder");
+    Objects.requireNonNull(directory, "Null directory");
+    this.snapshotFile = directory.resolve(guildId + ".snapshot");
+    this.journalFile = directory.resolve(guildId + ".journal");
+  }
+
+  /**
+   * Reads the queue back from the latest snapshot and the journal records after it.
+   * <p>
+   * The track that was playing is put back at the front of the queue at its last saved position.
+   * Reading stops at the first incomplete or corrupted journal record,
+   * and a corrupted snapshot is discarded along with its journal.
+   *
+   * @return restored queue
+   */
+  @NotNull
+  public List<TrackQueueIndex> restore() {
+    List<TrackQueueIndex> entries = new ArrayList<>();
+    TrackQueueIndex[] currentTrack = {null};
+    long[] position = {0};
+    long snapshotSequence = 0;
+    if (Files.exists(snapshotFile)) {
+      try (CheckedInputStream checkedInput = new CheckedInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)), new CRC32());
+           DataInputStream input = new DataInputStream(checkedInput)) {
+        if (input.readInt() != SNAPSHOT_VERSION) {
+          throw new IOException("Unknown snapshot version");
+        }
+        snapshotSequence = input.readLong();
+        if (input.readBoolean()) {
+          currentTrack[0] = trackEncoder.readEntry(input);
+          position[0] = input.readLong();
+        }
+        int numberOfEntries = input.readInt();
+        for (int i = 0; i < numberOfEntries; i++) {
+          entries.add(trackEncoder.readEntry(input));
+        }
+        long checksum = checkedInput.getChecksum().getValue();
+        if (input.readLong() != checksum) {
+          throw new IOException("Corrupted snapshot");
+        }
+      } catch (IOException | RuntimeException e) {
+        System.out.println(Error.UNABLE_TO_RESTORE.getMessage());
+        return List.of();
+      }
+    }
+    lastSequence = replayJournal(entries, currentTrack, position, snapshotSequence);
+    if (currentTrack[0] != null) { // Journal indices exclude the currently playing track
+      if (currentTrack[0].isResolved() && position[0] > 0) {
+        currentTrack[0].getAudioTrack().setPosition(position[0]);
+      }
+      entries.add(0, currentTrack[0]);
+    }
+    return entries;
+  }
+
+  /**
+   * Applies the journal records after a snapshot to its entries and currently playing track.
+   *
+   * @param entries          queued entries from the snapshot
+   * @param currentTrack     currently playing track from the snapshot, or null
+   * @param position         currently playing track's position from the snapshot
+   * @param snapshotSequence sequence number of the snapshot
+   * @return sequence number of the last mutation read
+   */
+  private long replayJournal(List<TrackQueueIndex> entries, TrackQueueIndex[] currentTrack, long[] position, long snapshotSequence) {
+    long sequence = snapshotSequence;
+    if (!Files.exists(journalFile)) {
+      return sequence;
+    }
+    try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(journalFile)))) {
+      while (true) {
+        int length = input.readInt();
+        if (length < 0 || length > MAXIMUM_RECORD_SIZE) {
+          return sequence;
+        }
+        byte[] payload = new byte[length];
+        long checksum = input.readLong();
+        input.readFully(payload);
+        if (checksum(payload) != checksum) {
+          return sequence;
+        }
+        DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+        long recordSequence = record.readLong();
+        if (recordSequence <= sequence) { // Already in the snapshot
+          continue;
+        }
+        Operation operation = Operation.values()[record.readByte()];
+        int index = record.readInt();
+        switch (operation) {
+          case ADD -> entries.add(index, trackEncoder.readEntry(record));
+          case REMOVE -> entries.remove(index);
+          case SET -> entries.set(index, trackEncoder.readEntry(record));
+          case CLEAR -> entries.clear();
+          case PROGRESS -> {
+            currentTrack[0] = record.readBoolean() ? trackEncoder.readEntry(record) : null;
+            position[0] = record.readLong();
+          }
+        }
+        sequence = recordSequence;
+      }
+    } catch (EOFException e) { // End of journal or torn last record
+      return sequence;
+    } catch (IOException | RuntimeException e) {
+      System.out.println(Error.UNABLE_TO_RESTORE.getMessage());
+      return sequence;
+    }
+  }
+
+  /**
+   * Appends an insertion to the journal.
+   *
+   * @param index queue index
+   * @param entry inserted {@link TrackQueueIndex}
+   */
+  @Override
+  public void onAdd(int index, @NotNull TrackQueueIndex entry) {
+    append(Operation.ADD, index, entry);
+  }
+
+  /**
+   * Appends a removal to the journal.
+   *
+   * @param index   queue index
+   * @param removed removed {@link TrackQueueIndex}
+   */
+  @Override
+  public void onRemove(int index, @NotNull TrackQueueIndex removed) {
+    append(Operation.REMOVE, index, null);
+  }
+
+  /**
+   * Appends a replacement to the journal.
+   *
+   * @param index    queue index
+   * @param replaced replaced {@link TrackQueueIndex}
+   * @param entry    new {@link TrackQueueIndex}
+   */
+  @Override
+  public void onSet(int index, @NotNull TrackQueueIndex replaced, @NotNull TrackQueueIndex entry) {
+    append(Operation.SET, index, entry);
+  }
+
+  /**
+   * Appends a clear to the journal.
+   */
+  @Override
+  public void onClear() {
+    append(Operation.CLEAR, 0, null);
+  }
+
+  /**
+   * Gets if enough records have been appended that the queue should be compacted.
+   * <p>
+   * Only called while the queue is locked.
+   *
+   * @return if the queue should be compacted
+   */
+  public boolean isCompactionDue() {
+    return recordsSinceCompaction >= COMPACTION_THRESHOLD;
+  }
+
+  /**
+   * Saves the currently playing track and its position.
+   * <p>
+   * The queue is only compacted if it changed since the last snapshot or enough
+   * records built up. Otherwise
+   * the track's progress is appended to the journal, unless it hasn't moved.
+   * <p>
+   * Only called while the queue is locked.
+   *
+   * @param entries      queue snapshot
+   * @param currentTrack currently playing track or null
+   * @param position     currently playing track's position
+   */
+  public void checkpoint(@NotNull List<TrackQueueIndex> entries, @Nullable TrackQueueIndex currentTrack, long position) {
+    if (queueChanged || isCompactionDue()) {
+      compact(entries, currentTrack, position);
+      return;
+    }
+    if (closed || (currentTrack == savedTrack && position == savedPosition)) {
+      return;
+    }
+    savedTrack = currentTrack;
+    savedPosition = position;
+    long sequence = ++lastSequence;
+    recordsSinceCompaction++;
+    writer.execute(() -> writeRecord(sequence, Operation.PROGRESS, 0, currentTrack, position));
+  }
+
+  /**
+   * Writes a snapshot of the queue and starts the journal over.
+   * <p>
+   * Only called while the queue is locked, so the snapshot
+   * matches the last mutation appended to the journal.
+   *
+   * @param entries      queue snapshot
+   * @param currentTrack currently playing track or null
+   * @param position     currently playing track's position
+   */
+  public void compact(@NotNull List<TrackQueueIndex> entries, @Nullable TrackQueueIndex currentTrack, long position) {
+    Objects.requireNonNull(entries, "Null entries");
+    if (closed) {
+      return;
+    }
+    long sequence = lastSequence;
+    recordsSinceCompaction = 0;
+    queueChanged = false;
+    savedTrack = currentTrack;
+    savedPosition = position;
+    writer.execute(() -> writeSnapshot(sequence, entries, currentTrack, position));
+  }
+
+  /**
+   * Runs a checkpoint periodically on the writer thread.
+   *
+   * @param checkpoint checkpoint
+   */
+  public void scheduleCheckpoints(@NotNull Runnable checkpoint) {
+    Objects.requireNonNull(checkpoint, "Null checkpoint");
+    checkpoints = writer.scheduleWithFixedDelay(checkpoint, CHECKPOINT_INTERVAL, CHECKPOINT_INTERVAL, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Stops the periodic checkpoints and closes the journal file once pending writes finish.
+   * <p>
+   * Called while the queue is locked, so no mutation is appended after the journal file is closed.
+   */
+  public void close() {
+    closed = true;
+    ScheduledFuture<?> checkpoints = this.checkpoints;
+    if (checkpoints != null) {
+      checkpoints.cancel(false);
+    }
+    writer.execute(() -> {
+      if (journal != null) {
+        try {
+          journal.close();
+        } catch (IOException e) {
+          System.out.println(Error.UNABLE_TO_SAVE.getMessage());
+        }
+        journal = null;
+      }
+    });
+  }
+
+  /**
+   * Waits for all pending journal and snapshot writes to finish.
+   *
+   * @param timeout maximum time to wait in milliseconds
+   */
+  public static void awaitWrites(long timeout) {
+    try {
+      writer.submit(() -> {
+      }).get(timeout, TimeUnit.MILLISECONDS);
+    } catch (Exception e) {
+      System.out.println(Error.UNABLE_TO_SAVE.getMessage());
+    }
+  }
+
+  /**
+   * Numbers a mutation and hands it to the writer.
+   * <p>
+   * Only called while the queue is locked, so records are written in mutation order.
+   * Mutations after the journal is closed are ignored.
+   *
+   * @param operation mutation type
+   * @param index     queue index
+   * @param entry     inserted or new {@link TrackQueueIndex}, or null
+   */
+  private void append(Operation operation, int index, TrackQueueIndex entry) {
+    if (closed) {
+      return;
+    }
+    long sequence = ++lastSequence;
+    recordsSinceCompaction++;
+    queueChanged = true;
+    writer.execute(() -> writeRecord(sequence, operation, index, entry, 0));
+  }
+
+  /**
+   * Writes a checksummed journal record unless a newer snapshot already includes it.
+   *
+   * @param sequence  mutation sequence number
+   * @param operation mutation type
+   * @param index     queue index
+   * @param entry     inserted, new, or currently playing {@link TrackQueueIndex}, or null
+   * @param position  currently playing track's position
+   */
+  private void writeRecord(long sequence, Operation operation, int index, TrackQueueIndex entry, long position) {
+    if (sequence <= compactedSequence) {
+      return;
+    }
+    try {
+      ByteArrayOutputStream payload = new ByteArrayOutputStream();
+      DataOutputStream record = new DataOutputStream(payload);
+      record.writeLong(sequence);
+      record.writeByte(operation.ordinal());
+      record.writeInt(index);
+      if (operation == Operation.PROGRESS) {
+        record.writeBoolean(entry != null);
+      }
+      if (entry != null) {
+        trackEncoder.writeEntry(record, entry);
+      }
+      if (operation == Operation.PROGRESS) {
+        record.writeLong(position);
+      }
+      byte[] bytes = payload.toByteArray();
+
+      if (journal == null) {
+        Files.createDirectories(journalFile.toAbsolutePath().getParent());
+        journal = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(journalFile.toFile(), true)));
+      }
+      journal.writeInt(bytes.length);
+      journal.writeLong(checksum(bytes));
+      journal.write(bytes);
+      journal.flush();
+    } catch (IOException e) {
+      System.out.println(Error.UNABLE_TO_SAVE.getMessage());
+    }
+  }
+
+  /**
+   * Writes a snapshot through a temporary file and then truncates the journal.
+   *
+   * @param sequence     sequence number of the last mutation included
+   * @param entries      queue snapshot
+   * @param currentTrack currently playing track or null
+   * @param position     currently playing track's position
+   */
+  private void writeSnapshot(long sequence, List<TrackQueueIndex> entries, TrackQueueIndex currentTrack, long position) {
+    try {
+      Files.createDirectories(snapshotFile.toAbsolutePath().getParent());
+      Path temporaryFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+      CRC32 crc = new CRC32();
+      try (DataOutputStream output = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)), crc))) {
+        output.writeInt(SNAPSHOT_VERSION);
+        output.writeLong(sequence);
+        output.writeBoolean(currentTrack != null);
+        if (currentTrack != null) {
+          trackEncoder.writeEntry(output, currentTrack);
+          output.writeLong(position);
+        }
+        output.writeInt(entries.size());
+        for (TrackQueueIndex entry : entries) {
+          trackEncoder.writeEntry(output, entry);
+        }
+        output.writeLong(crc.getValue());
+      }
+      Files.move(temporaryFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      compactedSequence = sequence;
+
+      if (journal != null) {
+        journal.close();
+        journal = null;
+      }
+      Files.deleteIfExists(journalFile);
+    } catch (IOException e) {
+      System.out.println(Error.UNABLE_TO_SAVE.getMessage());
+    }
+  }
+
+  /**
+   * Gets a record's checksum.
+   *
+   * @param bytes record
+   * @return CRC32 checksum
+   */
+  private static long checksum(byte[] bytes) {
+    CRC32 crc = new CRC32();
+    crc.update(bytes);
+    return crc.getValue();
+  }
+
+  /**
+   * Creates the shared writer thread.
+   *
+   * @return writer
+   */
+  private static ScheduledThreadPoolExecutor createWriter() {
+    ScheduledThreadPoolExecutor writer = new ScheduledThreadPoolExecutor(1, runnable -> {
+      Thread thread = new Thread(runnable, "QueueJournal");
+      thread.setDaemon(true);
+      return thread;
+    });
+    writer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    writer.setRemoveOnCancelPolicy(true);
+    return writer;
+  }
+
+  /**
+   * Types of journaled mutations.
+   */
+  private enum Operation {
+    /**
+     * Track inserted.
+     */
+    ADD,
+
+    /**
+     * Track removed.
+     */
+    REMOVE,
+
+    /**
+     * Track replaced.
+     */
+    SET,
+
+    /**
+     * Queue cleared.
+     */
+    CLEAR,
+
+    /**
+     * Currently playing track's position saved.
+     */
+    PROGRESS
+  }
+
+  /**
+   * Types of queue persistence errors.
+   */
+  private enum Error {
+    /**
+     * Unable to restore queue.
+     */
+    UNABLE_TO_RESTORE("Unable to restore persisted queue."),
+
+    /**
+     * Unable to save queue.
+     */
+    UNABLE_TO_SAVE("Unable to save queue.");
+
+    /**
+     * Message.
+     */
+    private final String message;
+
+    /**
+     * Associates an error with its message.
+     *
+     * @param message message
+     */
+    Error(String message) {
+      this.message = message;
+    }
+
+    /**
+     * Gets the error's message.
+     *
+     * @return error's message
+     */
+    @NotNull
+    public String getMessage() {
+      return this.message;
+    }
+  }
+}
@@ -0,0 +1,244 @@
+package me.bam6561.astarya.commands.audio.managers;
+
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import me.bam6561.astarya.commands.audio.TrackQueueIndex;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Represents an inverted index of the {@link TrackQueue}'s titles, requesters, and track identifiers.
+ * <p>
+ * Each word of a track's title and requester maps to the queue entries
+ * containing it, and each track identifier maps to the queue entries of that
+ * track. The index is updated with every queue mutation instead of being
+ * rebuilt, so searches only look at the words searched for rather than
+ * every track in the queue.
+ * <p>
+ * Words are matched by prefix, and every word of a search must match.
+ * <p>
+ * Entries are held by identity and counted, since a queue can briefly hold
+ * the same entry twice while two tracks are swapped.
+ * <p>
+ * Only accessed while the queue is locked.
+ *
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class QueueSearchIndex {
+  /**
+   * Characters between words.
+   */
+  private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  /**
+   * Queue entries and how many times they're queued by word, in word order.
+   */
+  private final NavigableMap<String, Map<TrackQueueIndex, Integer>> words = new TreeMap<>();
+
+  /**
+   * Queue entries and how many times they're queued by track identifier.
+   */
+  private final Map<String, Map<TrackQueueIndex, Integer>> identifiers = new HashMap<>();
+
+  /**
+   * No parameter constructor.
+   */
+  public QueueSearchIndex() {
+  }
+
+  /**
+   * Indexes a queued {@link TrackQueueIndex}.
+   *
+   * @param entry {@link TrackQueueIndex}
+   */
+  public void add(@NotNull TrackQueueIndex entry) {
+    Objects.requireNonNull(entry, "Null entry");
+    for (String word : getWords(entry)) {
+      words.computeIfAbsent(word, key -> new IdentityHashMap<>()).merge(entry, 1, Integer::sum);
+    }
+    identifiers.computeIfAbsent(getIdentifier(entry), key -> new IdentityHashMap<>()).merge(entry, 1, Integer::sum);
+  }
+
+  /**
+   * Removes a dequeued {@link TrackQueueIndex} from the index.
+   *
+   * @param entry {@link TrackQueueIndex}
+   */
+  public void remove(@NotNull TrackQueueIndex entry) {
+    Objects.requireNonNull(entry, "Null entry");
+    for (String word : getWords(entry)) {
+      removePosting(words, word, entry);
+    }
+    removePosting(identifiers, getIdentifier(entry), entry);
+  }
+
+  /**
+   * Removes every entry from the index.
+   */
+  public void clear() {
+    words.clear();
+    identifiers.clear();
+  }
+
+  /**
+   * Finds the queued entries matching a search.
+   * <p>
+   * A search that is exactly a track identifier matches that track.
+   * Otherwise, entries match if each word of the search begins a word
+   * of their title or requester.
+   *
+   * @param search search
+   * @return matching entries in no particular order
+   */
+  @NotNull
+  public Set<TrackQueueIndex> search(@NotNull String search) {
+    Map<TrackQueueIndex, Integer> identifierMatches = identifiers.get(Objects.requireNonNull(search, "Null search").trim());
+    if (identifierMatches != null) {
+      return copyOf(identifierMatches.keySet());
+    }
+
+    List<List<Map<TrackQueueIndex, Integer>>> wordPostings = new ArrayList<>();
+    for (String searchWord : tokenize(search)) {
+      List<Map<TrackQueueIndex, Integer>> postings = new ArrayList<>(words.subMap(searchWord, true, searchWord + Character.MAX_VALUE, false).values());
+      if (postings.isEmpty()) {
+        return Collections.emptySet();
+      }
+      wordPostings.add(postings);
+    }
+    if (wordPostings.isEmpty()) {
+      return Collections.emptySet();
+    }
+    wordPostings.sort(Comparator.comparingInt(QueueSearchIndex::countPostings)); // Rarest words narrow the matches first
+
+    Set<TrackQueueIndex> matches = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Map<TrackQueueIndex, Integer> postings : wordPostings.get(0)) {
+      matches.addAll(postings.keySet());
+    }
+    for (List<Map<TrackQueueIndex, Integer>> postings : wordPostings.subList(1, wordPostings.size())) {
+      matches.removeIf(entry -> {
+        for (Map<TrackQueueIndex, Integer> posting : postings) {
+          if (posting.containsKey(entry)) {
+            return false;
+          }
+        }
+        return true;
+      });
+      if (matches.isEmpty()) {
+        break;
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * Finds the queued entries of the same track.
+   *
+   * @param track audio track
+   * @return entries of the same track in no particular order
+   */
+  @NotNull
+  public Set<TrackQueueIndex> getDuplicates(@NotNull AudioTrack track) {
+    Map<TrackQueueIndex, Integer> duplicates = identifiers.get(Objects.requireNonNull(track, "Null track").getIdentifier());
+    return duplicates == null ? Collections.emptySet() : copyOf(duplicates.keySet());
+  }
+
+  /**
+   * Gets the distinct words of an entry's title and requester.
+   *
+   * @param entry {@link TrackQueueIndex}
+   * @return distinct words
+   */
+  private static Set<String> getWords(TrackQueueIndex entry) {
+    Set<String> entryWords = tokenize(entry.getTitle());
+    entryWords.addAll(tokenize(entry.getRequester()));
+    return entryWords;
+  }
+
+  /**
+   * Gets the identifier that identical tracks share.
+   * <p>
+   * Unresolved placeholders are identified by their search query.
+   *
+   * @param entry {@link TrackQueueIndex}
+   * @return track identifier
+   */
+  private static String getIdentifier(TrackQueueIndex entry) {
+    AudioTrack audioTrack = entry.getAudioTrack();
+    return audioTrack != null ? audioTrack.getIdentifier() : entry.getSearchQuery();
+  }
+
+  /**
+   * Splits text into its distinct lowercase words.
+   *
+   * @param text text
+   * @return distinct words
+   */
+  private static Set<String> tokenize(String text) {
+    Set<String> tokens = new HashSet<>();
+    for (String token : WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+      if (!token.isEmpty()) {
+        tokens.add(token);
+      }
+    }
+    return tokens;
+  }
+
+  /**
+   * Counts the entries under the words beginning with a search word.
+   *
+   * @param postings entries by word
+   * @return number of entries, including entries under more than one word
+   */
+  private static int countPostings(List<Map<TrackQueueIndex, Integer>> postings) {
+    int count = 0;
+    for (Map<TrackQueueIndex, Integer> posting : postings) {
+      count += posting.size();
+    }
+    return count;
+  }
+
+  /**
+   * Uncounts an entry under a key, dropping the key once it has no entries left.
+   *
+   * @param index index
+   * @param key   word or track identifier
+   * @param entry {@link TrackQueueIndex}
+   */
+  private static void removePosting(Map<String, Map<TrackQueueIndex, Integer>> index, String key, TrackQueueIndex entry) {
+    Map<TrackQueueIndex, Integer> postings = index.get(key);
+    if (postings == null) {
+      return;
+    }
+    postings.computeIfPresent(entry, (posting, count) -> count > 1 ? count - 1 : null);
+    if (postings.isEmpty()) {
+      index.remove(key);
+    }
+  }
+
+  /**
+   * Copies entries into a set compared by identity.
+   *
+   * @param entries entries
+   * @return copied entries
+   */
+  private static Set<TrackQueueIndex> copyOf(Set<TrackQueueIndex> entries) {
+    Set<TrackQueueIndex> copy = Collections.newSetFromMap(new IdentityHashMap<>());
+    copy.addAll(entries);
+    return copy;
+  }
+
+  /**
+   * Represents a matching queue entry and where it was in the queue when found.
+   *
+   * @param index queue index
+   * @param entry {@link TrackQueueIndex}
+   * @author Danny Nguyen
+   * @version 1.9.5
+   * @since 1.9.5
+   */
+  public record Match(int index, @NotNull TrackQueueIndex entry) {
+  }
+}
@@ -0,0 +1,269 @@
+package me.bam6561.astarya.commands.audio.managers;
+
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import me.bam6561.astarya.utils.ExpiringCache;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents a cache of search query results so repeated
+ * searches don't have to be sent to YouTube again.
+ * <p>
+ * Queries are normalized before lookup, and each result is stored by the
+ * {@link TrackEncoder}. A hit decodes a fresh track
+ * instead of searching, since a track instance can only be played once.
+ * <p>
+ * The least recently used results are evicted past 2,000 entries, and
+ * results expire after a day. The cache is saved to disk every few
+ * minutes and on shutdown, and loaded back on startup.
+ *
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class SearchCache {
+  /**
+   * Maximum number of cached results.
+   */
+  private static final int MAXIMUM_SIZE = 2000;
+
+  /**
+   * Time to live of cached results in milliseconds.
+   */
+  private static final long TIME_TO_LIVE = TimeUnit.DAYS.toMillis(1);
+
+  /**
+   * Minutes between saves to disk.
+   */
+  private static final int SAVE_INTERVAL = 5;
+
+  /**
+   * Largest encoded track in bytes, past which a snapshot is considered corrupted.
+   */
+  private static final int MAXIMUM_TRACK_SIZE = 64 * 1024;
+
+  /**
+   * Search prefixes whose results are cached.
+   */
+  private static final String[] SEARCH_PREFIXES = {"ytsearch:", "ytmsearch:", "scsearch:"};
+
+  /**
+   * {@link TrackEncoder}
+   */
+  private final TrackEncoder trackEncoder;
+
+  /**
+   * Encoded tracks by normalized query.
+   */
+  private final ExpiringCache<String, byte[]> results = new ExpiringCache<>(MAXIMUM_SIZE, TIME_TO_LIVE);
+
+  /**
+   * Snapshot file.
+   */
+  private final Path snapshotFile;
+
+  /**
+   * If results have changed since the last save.
+   */
+  private volatile boolean unsaved = false;
+
+  /**
+   * Associates the cache with its {@link TrackEncoder} and snapshot
+   * file, loads the last snapshot, and schedules periodic saves.
+   *
+   * @param trackEncoder {@link TrackEncoder}
+   * @param snapshotFile snapshot file
+   */
+  public SearchCache(@NotNull TrackEncoder trackEncoder, @NotNull Path snapshotFile) {
+    this.trackEncoder = Objects.requireNonNull(trackEncoder, "Null track encoder");
+    this.snapshotFile = Objects.requireNonNull(snapshotFile, "Null snapshot file");
+    load();
+
+    ScheduledExecutorService saver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "SearchCache");
+      thread.setDaemon(true);
+      return thread;
+    });
+    saver.scheduleWithFixedDelay(this::save, SAVE_INTERVAL, SAVE_INTERVAL, TimeUnit.MINUTES);
+    Runtime.getRuntime().addShutdownHook(new Thread(this::save, "SearchCache-Shutdown"));
+  }
+
+  /**
+   * Gets if a query is a search whose result can be cached.
+   *
+   * @param query track url or search query
+   * @return if the query is a search
+   */
+  public static boolean isSearchQuery(@NotNull String query) {
+    for (String prefix : SEARCH_PREFIXES) {
+      if (query.regionMatches(true, 0, prefix, 0, prefix.length())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Gets a fresh copy of a query's cached result.
+   *
+   * @param query search query
+   * @return cached track, or null if not cached or it can no longer be decoded
+   */
+  @Nullable
+  public AudioTrack get(@NotNull String query) {
+    String key = normalize(query);
+    byte[] encodedTrack = results.get(key);
+    if (encodedTrack == null) {
+      return null;
+    }
+    AudioTrack track = trackEncoder.decodeTrack(encodedTrack);
+    if (track == null) {
+      results.remove(key);
+    }
+    return track;
+  }
+
+  /**
+   * Caches a query's result.
+   *
+   * @param query search query
+   * @param track resulting track
+   */
+  public void put(@NotNull String query, @NotNull AudioTrack track) {
+    byte[] encodedTrack = trackEncoder.encodeTrack(Objects.requireNonNull(track, "Null track"));
+    if (encodedTrack != null) { // Tracks from sources that can't be encoded aren't cached
+      results.put(normalize(query), encodedTrack);
+      unsaved = true;
+    }
+  }
+
+  /**
+   * Normalizes a query so trivially different searches share a result.
+   *
+   * @param query search query
+   * @return normalized query
+   */
+  private static String normalize(String query) {
+    return Objects.requireNonNull(query, "Null query").strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Loads the last saved snapshot, skipping results that expired since.
+   * <p>
+   * Results are only cached once the whole snapshot is read, so
+   * a corrupted snapshot is discarded rather than partly loaded.
+   */
+  private void load() {
+    if (!Files.exists(snapshotFile)) {
+      return;
+    }
+    ExpiringCache<String, byte[]> snapshot = new ExpiringCache<>(MAXIMUM_SIZE, TIME_TO_LIVE);
+    try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+      int numberOfResults = input.readInt();
+      for (int i = 0; i < numberOfResults; i++) {
+        String key = input.readUTF();
+        long expiry = input.readLong();
+        int length = input.readInt();
+        if (length < 0 || length > MAXIMUM_TRACK_SIZE) {
+          throw new IOException("Corrupted track length");
+        }
+        byte[] encodedTrack = new byte[length];
+        input.readFully(encodedTrack);
+        snapshot.put(key, encodedTrack, expiry);
+      }
+    } catch (IOException | RuntimeException e) {
+      System.out.println(Error.UNABLE_TO_LOAD.getMessage());
+      return;
+    }
+    snapshot.forEach(results::put);
+  }
+
+  /**
+   * Saves a snapshot of the cache if it changed since the last save.
+   * <p>
+   * The snapshot is written to a temporary file first
+   * so a failed save never corrupts the previous one.
+   */
+  private synchronized void save() {
+    if (!unsaved) {
+      return;
+    }
+    unsaved = false;
+    ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+    DataOutputStream output = new DataOutputStream(snapshot);
+    int[] numberOfResults = {0};
+    results.forEach((key, encodedTrack, expiry) -> {
+      try {
+        output.writeUTF(key);
+        output.writeLong(expiry);
+        output.writeInt(encodedTrack.length);
+        output.write(encodedTrack);
+        numberOfResults[0]++;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+
+    try {
+      Files.createDirectories(snapshotFile.toAbsolutePath().getParent());
+      Path temporaryFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+      try (DataOutputStream file = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+        file.writeInt(numberOfResults[0]);
+        snapshot.writeTo(file);
+      }
+      Files.move(temporaryFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      unsaved = true;
+      System.out.println(Error.UNABLE_TO_SAVE.getMessage());
+    }
+  }
+
+  /**
+   * Types of search cache errors.
+   */
+  private enum Error {
+    /**
+     * Unable to load snapshot.
+     */
+    UNABLE_TO_LOAD("Unable to load search cache."),
+
+    /**
+     * Unable to save snapshot.
+     */
+    UNABLE_TO_SAVE("Unable to save search cache.");
+
+    /**
+     * Message.
+     */
+    private final String message;
+
+    /**
+     * Associates an error with its message.
+     *
+     * @param message message
+     */
+    Error(String message) {
+      this.message = message;
+    }
+
+    /**
+     * Gets the error's message.
+     *
+     * @return error's message
+     */
+    @NotNull
+    public String getMessage() {
+      return this.message;
+    }
+  }
+}
@@ -0,0 +1,219 @@
+package me.bam6561.astarya.commands.audio.managers;
+
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import me.bam6561.astarya.commands.audio.SearchTrack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the open {@link SearchTrack} sessions, one per user per guild,
+ * so concurrent searches never see each other's results.
+ * <p>
+ * Sessions expire on a timer wheel: each session is put in the bucket of
+ * the tick it expires on, and every second the wheel advances one bucket
+ * and drops its expired sessions. Opening, closing, and expiring a
+ * session are O(1) regardless of how many searches are open.
+ * <p>
+ * Searches close their own sessions when their response times out, so the
+ * wheel only expires sessions after a grace period, dropping those whose
+ * search never got to wait for a response.
+ *
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class SearchSessions {
+  /**
+   * Number of buckets on the timer wheel.
+   */
+  private static final int WHEEL_SIZE = 64;
+
+  /**
+   * Seconds a session stays open.
+   */
+  public static final int SESSION_DURATION = 15;
+
+  /**
+   * Seconds past the session duration before the wheel expires a session.
+   */
+  private static final int EXPIRY_GRACE_PERIOD = 15;
+
+  /**
+   * Open sessions by guild and user.
+   */
+  private final Map<SessionKey, Session> sessions = new ConcurrentHashMap<>();
+
+  /**
+   * Timer wheel buckets of sessions by expiry tick.
+   */
+  private final List<Set<Session>> wheel;
+
+  /**
+   * Current tick.
+   */
+  private volatile long tick = 0;
+
+  /**
+   * Creates the timer wheel and starts advancing it every second.
+   */
+  public SearchSessions() {
+    List<Set<Session>> buckets = new ArrayList<>(WHEEL_SIZE);
+    for (int i = 0; i < WHEEL_SIZE; i++) {
+      buckets.add(ConcurrentHashMap.newKeySet());
+    }
+    this.wheel = List.copyOf(buckets);
+
+    ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "SearchSessions");
+      thread.setDaemon(true);
+      return thread;
+    });
+    ticker.scheduleAtFixedRate(this::advance, 1, 1, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Opens a new session for a user in a guild, replacing their previous one.
+   *
+   * @param guildId guild id
+   * @param userId  user id
+   * @return new session
+   */
+  @NotNull
+  public Session open(long guildId, long userId) {
+    Session session = new Session(new SessionKey(guildId, userId), tick + SESSION_DURATION + EXPIRY_GRACE_PERIOD);
+    Session replaced = sessions.put(session.key, session);
+    if (replaced != null) {
+      bucketOf(replaced).remove(replaced);
+    }
+    bucketOf(session).add(session);
+    return session;
+  }
+
+  /**
+   * Gets if a session is still its user's open session.
+   *
+   * @param session session
+   * @return if the session is open
+   */
+  public boolean isOpen(@NotNull Session session) {
+    return sessions.get(Objects.requireNonNull(session, "Null session").key) == session;
+  }
+
+  /**
+   * Closes a session.
+   *
+   * @param session session
+   * @return the session's search results, or null if it had already closed or has no results yet
+   */
+  @Nullable
+  public List<AudioTrack> close(@NotNull Session session) {
+    if (!sessions.remove(Objects.requireNonNull(session, "Null session").key, session)) {
+      return null;
+    }
+    bucketOf(session).remove(session);
+    return session.results;
+  }
+
+  /**
+   * Gets the number of open sessions.
+   *
+   * @return number of open sessions
+   */
+  public int getOpenSessions() {
+    return sessions.size();
+  }
+
+  /**
+   * Advances the wheel by one tick and closes the sessions that expired on it.
+   * <p>
+   * Sessions in the bucket that are due on a later lap of the wheel are kept.
+   */
+  private void advance() {
+    long currentTick = tick + 1;
+    tick = currentTick;
+    Set<Session> bucket = wheel.get((int) (currentTick % WHEEL_SIZE));
+    bucket.removeIf(session -> {
+      if (session.expiryTick <= currentTick) {
+        sessions.remove(session.key, session);
+        return true;
+      }
+      return false;
+    });
+  }
+
+  /**
+   * Gets the bucket a session expires in.
+   *
+   * @param session session
+   * @return timer wheel bucket
+   */
+  private Set<Session> bucketOf(Session session) {
+    return wheel.get((int) (session.expiryTick % WHEEL_SIZE));
+  }
+
+  /**
+   * Represents a user's search in a guild.
+   *
+   * @author Danny Nguyen
+   * @version 1.9.5
+   * @since 1.9.5
+   */
+  public static class Session {
+    /**
+     * Guild and user.
+     */
+    private final SessionKey key;
+
+    /**
+     * Tick the session expires on.
+     */
+    private final long expiryTick;
+
+    /**
+     * Search results, or null until the search completes.
+     */
+    private volatile List<AudioTrack> results;
+
+    /**
+     * Associates a session with its guild and user and expiry tick.
+     *
+     * @param key        guild and user
+     * @param expiryTick tick the session expires on
+     */
+    private Session(SessionKey key, long expiryTick) {
+      this.key = key;
+      this.expiryTick = expiryTick;
+    }
+
+    /**
+     * Sets the search results.
+     *
+     * @param results search results
+     */
+    public void setResults(@NotNull List<AudioTrack> results) {
+      this.results = List.copyOf(Objects.requireNonNull(results, "Null results"));
+    }
+  }
+
+  /**
+   * Represents a user in a guild.
+   *
+   * @param guildId guild id
+   * @param userId  user id
+   * @author Danny Nguyen
+   * @version 1.9.5
+   * @since 1.9.5
+   */
+  private record SessionKey(long guildId, long userId) {
+  }
+}
@@ -0,0 +1,327 @@
+package me.bam6561.astarya.commands.audio.managers;
+
+import io.github.cdimascio.dotenv.Dotenv;
+import org.apache.hc.core5.http.ParseException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import se.michaelthelin.spotify.SpotifyApi;
+import se.michaelthelin.spotify.exceptions.SpotifyWebApiException;
+import se.michaelthelin.spotify.model_objects.credentials.ClientCredentials;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Represents a shared Spotify API client that Spotify links are looked up with.
+ * <p>
+ * Credentials are read from the .env file once, and the access token
+ * is cached and refreshed in the background before it expires, so
+ * commands never wait on a client credentials exchange.
+ * <p>
+ * Playlists and albums are read a page at a time. Pages after the first are
+ * fetched concurrently by a small shared pool, but their items are still
+ * handed back in the playlist or album's original order.
+ *
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class SpotifyManager {
+  /**
+   * Instance of the Spotify manager.
+   */
+  private static SpotifyManager INSTANCE;
+
+  /**
+   * Seconds before expiry to refresh the access token.
+   */
+  private static final int REFRESH_MARGIN = 300;
+
+  /**
+   * Seconds to wait before retrying a failed refresh.
+   */
+  private static final int RETRY_DELAY = 30;
+
+  /**
+   * Seconds a command waits for the first access token.
+   */
+  private static final int FIRST_TOKEN_TIMEOUT = 10;
+
+  /**
+   * Maximum number of pages fetched at once across all imports.
+   */
+  private static final int PAGE_FETCH_PARALLELISM = 4;
+
+  /**
+   * Spotify API limit of tracks per playlist page.
+   */
+  private static final int PLAYLIST_PAGE_SIZE = 100;
+
+  /**
+   * Spotify API limit of tracks per album page.
+   */
+  private static final int ALBUM_PAGE_SIZE = 50;
+
+  /**
+   * Spotify API access, or null if no credentials were provided.
+   */
+  private final SpotifyApi spotifyApi;
+
+  /**
+   * Completes once the first access token has been issued.
+   */
+  private final CompletableFuture<Void> firstToken = new CompletableFuture<>();
+
+  /**
+   * Background access token refresher.
+   */
+  private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "SpotifyManager");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * Page fetchers shared by all imports.
+   */
+  private final ExecutorService pageFetcher = Executors.newFixedThreadPool(PAGE_FETCH_PARALLELISM, runnable -> {
+    Thread thread = new Thread(runnable, "SpotifyManager-Pages");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * Reads the Spotify credentials and requests the first access token.
+   */
+  private SpotifyManager() {
+    Dotenv dotenv = Dotenv.load();
+    String spotifyClientId = dotenv.get("SPOTIFY_CLIENT_ID");
+    String spotifyClientSecret = dotenv.get("SPOTIFY_CLIENT_SECRET");
+
+    if (spotifyClientId != null && spotifyClientSecret != null) {
+      this.spotifyApi = new SpotifyApi.Builder()
+          .setClientId(spotifyClientId)
+          .setClientSecret(spotifyClientSecret)
+          .build();
+      refresher.execute(this::refreshAccessToken);
+    } else {
+      this.spotifyApi = null;
+      refresher.shutdown();
+    }
+  }
+
+  /**
+   * Exchanges the client credentials for a new access token and
+   * schedules the next refresh ahead of the token's expiry.
+   * <p>
+   * Failed exchanges are retried after a short delay.
+   */
+  private void refreshAccessToken() {
+    try {
+      ClientCredentials clientCredentials = spotifyApi.clientCredentials().build().execute();
+      spotifyApi.setAccessToken(clientCredentials.getAccessToken());
+      firstToken.complete(null);
+      int refreshDelay = Math.max(clientCredentials.getExpiresIn() - REFRESH_MARGIN, RETRY_DELAY);
+      refresher.schedule(this::refreshAccessToken, refreshDelay, TimeUnit.SECONDS);
+    } catch (IOException | ParseException | SpotifyWebApiException e) {
+      System.out.println(Error.UNABLE_TO_REFRESH_TOKEN.getMessage());
+      refresher.schedule(this::refreshAccessToken, RETRY_DELAY, TimeUnit.SECONDS);
+    }
+  }
+
+  /**
+   * Gets the Spotify API client with a valid access token.
+   * <p>
+   * Only waits if called before the first access token has been issued.
+   *
+   * @return Spotify API client, or null if no credentials were provided
+   */
+  @Nullable
+  public SpotifyApi getSpotifyApi() {
+    if (spotifyApi == null) {
+      return null;
+    }
+    try {
+      firstToken.get(FIRST_TOKEN_TIMEOUT, TimeUnit.SECONDS);
+    } catch (InterruptedException | ExecutionException | TimeoutException e) {
+      System.out.println(Error.UNABLE_TO_REFRESH_TOKEN.getMessage());
+    }
+    return spotifyApi;
+  }
+
+  /**
+   * Passes each track of a playlist to an action in playlist order.
+   * <p>
+   * Only the fields used to queue tracks are requested.
+   *
+   * @param playlistId Spotify playlist id
+   * @param action     action to apply to each track in json format
+   * @return number of tracks read
+   * @throws IOException            network error
+   * @throws ParseException         unreadable response
+   * @throws SpotifyWebApiException Spotify API error
+   */
+  public int forEachPlaylistTrack(@NotNull String playlistId, @NotNull Consumer<JSONObject> action) throws IOException, ParseException, SpotifyWebApiException {
+    return forEachPageItem((offset, limit) -> getSpotifyApi().getPlaylistsItems(playlistId)
+        .fields("total,items(track(name,duration_ms,album(artists(name))))")
+        .offset(offset).limit(limit).build().getJson(), PLAYLIST_PAGE_SIZE, item -> {
+      JSONObject jsonTrack = item.optJSONObject("track");
+      if (jsonTrack != null) { // Unavailable tracks are null
+        action.accept(jsonTrack);
+      }
+    });
+  }
+
+  /**
+   * Passes each track of an album to an action in album order.
+   *
+   * @param albumId Spotify album id
+   * @param action  action to apply to each track in json format
+   * @return number of tracks read
+   * @throws IOException            network error
+   * @throws ParseException         unreadable response
+   * @throws SpotifyWebApiException Spotify API error
+   */
+  public int forEachAlbumTrack(@NotNull String albumId, @NotNull Consumer<JSONObject> action) throws IOException, ParseException, SpotifyWebApiException {
+    return forEachPageItem((offset, limit) -> getSpotifyApi().getAlbumsTracks(albumId)
+        .offset(offset).limit(limit).build().getJson(), ALBUM_PAGE_SIZE, action);
+  }
+
+  /**
+   * Reads the first page to learn the total number of items, fetches the remaining
+   * pages concurrently, and passes each page's items to an action in page order.
+   * <p>
+   * Each page is parsed once and its items are handed over as soon as every earlier page has been.
+   *
+   * @param pageRequest request for a page's json
+   * @param pageSize    items per page
+   * @param action      action to apply to each item
+   * @return number of items read
+   * @throws IOException            network error
+   * @throws ParseException         unreadable response
+   * @throws SpotifyWebApiException Spotify API error
+   */
+  private int forEachPageItem(PageRequest pageRequest, int pageSize, Consumer<JSONObject> action) throws IOException, ParseException, SpotifyWebApiException {
+    JSONObject firstPage = new JSONObject(pageRequest.getJson(0, pageSize));
+    int total = firstPage.getInt("total");
+
+    List<CompletableFuture<JSONObject>> remainingPages = new ArrayList<>();
+    for (int offset = pageSize; offset < total; offset += pageSize) {
+      int pageOffset = offset;
+      remainingPages.add(CompletableFuture.supplyAsync(() -> {
+        try {
+          return new JSONObject(pageRequest.getJson(pageOffset, pageSize));
+        } catch (IOException | ParseException | SpotifyWebApiException e) {
+          throw new CompletionException(e);
+        }
+      }, pageFetcher));
+    }
+
+    int numberOfItems = forEachItem(firstPage, action);
+    try {
+      for (CompletableFuture<JSONObject> page : remainingPages) {
+        numberOfItems += forEachItem(page.join(), action);
+      }
+    } catch (CompletionException e) {
+      remainingPages.forEach(page -> page.cancel(false));
+      if (e.getCause() instanceof IOException ex) {
+        throw ex;
+      } else if (e.getCause() instanceof ParseException ex) {
+        throw ex;
+      } else if (e.getCause() instanceof SpotifyWebApiException ex) {
+        throw ex;
+      }
+      throw e;
+    }
+    return numberOfItems;
+  }
+
+  /**
+   * Passes each item of a page to an action.
+   *
+   * @param page   page in json format
+   * @param action action to apply to each item
+   * @return number of items on the page
+   */
+  private static int forEachItem(JSONObject page, Consumer<JSONObject> action) {
+    JSONArray items = page.getJSONArray("items");
+    for (int i = 0; i < items.length(); i++) {
+      action.accept(items.getJSONObject(i));
+    }
+    return items.length();
+  }
+
+  /**
+   * Gets an instance of the Spotify manager.
+   *
+   * @return instance of the Spotify manager
+   */
+  @NotNull
+  public static synchronized SpotifyManager getINSTANCE() {
+    if (INSTANCE == null) {
+      INSTANCE = new SpotifyManager();
+    }
+    return INSTANCE;
+  }
+
+  /**
+   * Represents a request for one page of a Spotify playlist or album.
+   *
+   * @author Danny Nguyen
+   * @version 1.9.5
+   * @since 1.9.5
+   */
+  @FunctionalInterface
+  private interface PageRequest {
+    /**
+     * Gets a page's json.
+     *
+     * @param offset index of the page's first item
+     * @param limit  maximum number of items on the page
+     * @return page in json format
+     * @throws IOException            network error
+     * @throws ParseException         unreadable response
+     * @throws SpotifyWebApiException Spotify API error
+     */
+    String getJson(int offset, int limit) throws IOException, ParseException, SpotifyWebApiException;
+  }
+
+  /**
+   * Types of Spotify API errors.
+   */
+  private enum Error {
+    /**
+     * Unable to refresh access token.
+     */
+    UNABLE_TO_REFRESH_TOKEN("Something went wrong while trying to refresh the SpotifyAPI access token.");
+
+    /**
+     * Message.
+     */
+    private final String message;
+
+    /**
+     * Associates an error with its message.
+     *
+     * @param message message
+     */
+    Error(String message) {
+      this.message = message;
+    }
+
+    /**
+     * Gets the error's message.
+     *
+     * @return error's message
+     */
+    @NotNull
+    public String getMessage() {
+      return this.message;
+    }
+  }
+}
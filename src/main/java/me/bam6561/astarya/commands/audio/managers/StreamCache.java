@@ -0,0 +1,682 @@
+package me.bam6561.astarya.commands.audio.managers;
+
+import com.sedmelluq.discord.lavaplayer.container.MediaContainerDescriptor;
+import com.sedmelluq.discord.lavaplayer.container.ogg.OggContainerProbe;
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
+import com.sedmelluq.discord.lavaplayer.source.local.LocalAudioSourceManager;
+import com.sedmelluq.discord.lavaplayer.source.local.LocalAudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
+import com.sedmelluq.discord.lavaplayer.track.playback.MutableAudioFrame;
+import me.bam6561.astarya.commands.owner.Settings;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Represents an on-disk cache of remotely sourced tracks, so
+ * replayed tracks are played from a local file instead of streamed again.
+ * <p>
+ * The first full playback of a track is recorded as the opus frames sent to
+ * Discord and written to an Ogg Opus file once the track finishes. Recordings
+ * are discarded if the track was seeked, stopped early, or filtered, so only
+ * complete and unaltered tracks are cached.
+ * <p>
+ * Cached files are evicted least recently played first once the cache
+ * exceeds its size budget in {@link Settings}. Each file's checksum is
+ * verified off the playback path before its first use after startup, and
+ * files that fail are deleted and streamed again.
+ *
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class StreamCache {
+  /**
+   * Longest track duration cached in milliseconds.
+   */
+  private static final long MAXIMUM_DURATION = TimeUnit.MINUTES.toMillis(10);
+
+  /**
+   * Largest recording in bytes.
+   */
+  private static final int MAXIMUM_RECORDING_SIZE = 32 * 1024 * 1024;
+
+  /**
+   * Size of each chunk recordings are buffered in.
+   */
+  private static final int CHUNK_SIZE = 64 * 1024;
+
+  /**
+   * Most chunks kept for reuse after their recordings are written or discarded.
+   */
+  private static final int MAXIMUM_POOLED_CHUNKS = 128;
+
+  /**
+   * Duration of an opus frame in milliseconds.
+   */
+  private static final int FRAME_DURATION = 20;
+
+  /**
+   * Largest gap between consecutive frames' timecodes in milliseconds before a recording is considered seeked.
+   */
+  private static final int MAXIMUM_TIMECODE_GAP = 3 * FRAME_DURATION;
+
+  /**
+   * Milliseconds a recording can fall short of its track's duration and still be considered complete.
+   */
+  private static final long COMPLETENESS_TOLERANCE = 1000;
+
+  /**
+   * Writer of cached files and the index.
+   */
+  private static final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "StreamCache");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * Chunks kept for reuse, shared by all recordings.
+   */
+  private static final Queue<byte[]> chunkPool = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Number of chunks kept for reuse.
+   */
+  private static final AtomicInteger pooledChunks = new AtomicInteger();
+
+  /**
+   * Audio player manager.
+   */
+  private final AudioPlayerManager audioPlayerManager;
+
+  /**
+   * Directory of cached files.
+   */
+  private final Path directory;
+
+  /**
+   * Index file.
+   */
+  private final Path indexFile;
+
+  /**
+   * Cached files by track key, from least to most recently played.
+   */
+  private final Map<String, CachedStream> cachedStreams = new LinkedHashMap<>(16, 0.75f, true);
+
+  /**
+   * Track keys whose files have been verified since startup.
+   */
+  private final Set<String> verifiedKeys = new HashSet<>();
+
+  /**
+   * Total size of cached files in bytes.
+   */
+  private long totalSize = 0;
+
+  /**
+   * Associates the cache with its audio player manager and directory, and loads its index.
+   *
+   * @param audioPlayerManager audio player manager
+   * @param directory          directory of cached files
+   */
+  public StreamCache(@NotNull AudioPlayerManager audioPlayerManager, @NotNull Path directory) {
+    this.audioPlayerManager = Objects.requireNonNull(audioPlayerManager, "Null audio player manager");
+    this.directory = Objects.requireNonNull(directory, "Null directory");
+    this.indexFile = directory.resolve("index.dat");
+    load();
+    Runtime.getRuntime().addShutdownHook(new Thread(this::saveIndex, "StreamCache-Shutdown"));
+  }
+
+  /**
+   * Gets a local copy of a track if it's cached and verified.
+   * <p>
+   * Unverified files are verified in the background,
+   * so the track is streamed this time instead of waiting.
+   * <p>
+   * Cached files can't be seeked, so tracks set to start
+   * partway through, like restored tracks, are streamed.
+   *
+   * @param track remotely sourced track
+   * @return cached track with the same info, or null if not cached
+   */
+  @Nullable
+  public AudioTrack open(@NotNull AudioTrack track) {
+    if (!isCacheable(Objects.requireNonNull(track, "Null track")) || track.getPosition() > 0) {
+      return null;
+    }
+    String key = getKey(track);
+    CachedStream cachedStream;
+    boolean verified;
+    synchronized (this) {
+      cachedStream = cachedStreams.get(key);
+      verified = verifiedKeys.contains(key);
+    }
+    if (cachedStream == null) {
+      return null;
+    }
+    if (!verified) {
+      writer.execute(() -> verify(key, cachedStream));
+      return null;
+    }
+    AudioTrackInfo info = track.getInfo();
+    String file = directory.resolve(cachedStream.fileName()).toAbsolutePath().toString();
+    return new LocalAudioTrack(new AudioTrackInfo(info.title, info.author, info.length, file, false, info.uri),
+        new MediaContainerDescriptor(new OggContainerProbe(), null), audioPlayerManager.source(LocalAudioSourceManager.class));
+  }
+
+  /**
+   * Gets if a track is a local copy opened from the cache.
+   *
+   * @param track track
+   * @return if the track is a cached copy
+   */
+  public boolean isCachedCopy(@NotNull AudioTrack track) {
+    return Objects.requireNonNull(track, "Null track") instanceof LocalAudioTrack
+        && Path.of(track.getIdentifier()).startsWith(directory.toAbsolutePath());
+  }
+
+  /**
+   * Starts recording a track's playback if it can be cached and isn't already.
+   *
+   * @param track track about to be played
+   * @return {@link Recording}, or null if the track won't be cached
+   */
+  @Nullable
+  public Recording startRecording(@NotNull AudioTrack track) {
+    if (Settings.getStreamCacheSize() == 0 || !isCacheable(Objects.requireNonNull(track, "Null track"))) {
+      return null;
+    }
+    String key = getKey(track);
+    synchronized (this) {
+      if (cachedStreams.containsKey(key)) {
+        return null;
+      }
+    }
+    return new Recording(key, track.getDuration());
+  }
+
+  /**
+   * Evicts the least recently played files until the cache fits its size budget.
+   */
+  public void trim() {
+    writer.execute(this::evict);
+  }
+
+  /**
+   * Gets if a track is remotely sourced, of a known length, and short enough to be cached.
+   *
+   * @param track track
+   * @return if the track can be cached
+   */
+  private static boolean isCacheable(AudioTrack track) {
+    AudioTrackInfo info = track.getInfo();
+    return !(track instanceof LocalAudioTrack) && track.getSourceManager() != null
+        && !info.isStream && info.length > 0 && info.length <= MAXIMUM_DURATION;
+  }
+
+  /**
+   * Gets a track's cache key.
+   *
+   * @param track track
+   * @return source name and identifier
+   */
+  private static String getKey(AudioTrack track) {
+    return track.getSourceManager().getSourceName() + ":" + track.getIdentifier();
+  }
+
+  /**
+   * Writes a finished recording to a cached file and evicts files past the size budget.
+   * <p>
+   * The file is written to a temporary file first, so a failed write never leaves a partial file.
+   * <p>
+   * Only called from the writer thread.
+   *
+   * @param key    track key
+   * @param chunks chunks of length prefixed opus packets
+   */
+  private void write(String key, List<byte[]> chunks) {
+    synchronized (this) {
+      if (cachedStreams.containsKey(key)) {
+        return;
+      }
+    }
+    String fileName = UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)) + ".ogg";
+    Path file = directory.resolve(fileName);
+    Path temporaryFile = directory.resolve(fileName + ".tmp");
+    CRC32 checksum = new CRC32();
+    try {
+      Files.createDirectories(directory);
+      try (OutputStream output = new CheckedOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)), checksum)) {
+        OggOpusWriter oggOpusWriter = new OggOpusWriter(output, key.hashCode());
+        for (byte[] chunk : chunks) {
+          for (int i = 0; i + 2 <= chunk.length; ) {
+            int packetLength = ((chunk[i] & 0xFF) << 8) | (chunk[i + 1] & 0xFF);
+            if (packetLength == 0) { // End of chunk
+              break;
+            }
+            oggOpusWriter.writePacket(chunk, i + 2, packetLength);
+            i += 2 + packetLength;
+          }
+        }
+        oggOpusWriter.finish();
+      }
+      Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      long size = Files.size(file);
+      synchronized (this) {
+        cachedStreams.put(key, new CachedStream(fileName, size, checksum.getValue()));
+        verifiedKeys.add(key);
+        totalSize += size;
+      }
+      evict();
+    } catch (IOException e) {
+      try {
+        Files.deleteIfExists(temporaryFile);
+      } catch (IOException ignored) {
+      }
+      System.out.println(Error.UNABLE_TO_WRITE.getMessage());
+    }
+  }
+
+  /**
+   * Checks a cached file's size and checksum, deleting it if either doesn't match.
+   * <p>
+   * Only called from the writer thread.
+   *
+   * @param key          track key
+   * @param cachedStream {@link CachedStream}
+   */
+  private void verify(String key, CachedStream cachedStream) {
+    synchronized (this) {
+      if (verifiedKeys.contains(key) || cachedStreams.get(key) != cachedStream) {
+        return;
+      }
+    }
+    Path file = directory.resolve(cachedStream.fileName());
+    boolean intact;
+    try (CheckedInputStream input = new CheckedInputStream(new BufferedInputStream(Files.newInputStream(file)), new CRC32())) {
+      long size = input.transferTo(OutputStream.nullOutputStream());
+      intact = size == cachedStream.size() && input.getChecksum().getValue() == cachedStream.checksum();
+    } catch (IOException e) {
+      intact = false;
+    }
+    synchronized (this) {
+      if (cachedStreams.get(key) != cachedStream) {
+        return;
+      }
+      if (intact) {
+        verifiedKeys.add(key);
+        return;
+      }
+      cachedStreams.remove(key);
+      totalSize -= cachedStream.size();
+    }
+    delete(file);
+    saveIndex();
+  }
+
+  /**
+   * Evicts the least recently played files until the cache fits its size budget, then saves the index.
+   * <p>
+   * Only called from the writer thread.
+   */
+  private void evict() {
+    long budget = Settings.getStreamCacheSize() * 1024L * 1024L;
+    List<CachedStream> evictedStreams = new ArrayList<>();
+    synchronized (this) {
+      Iterator<Map.Entry<String, CachedStream>> iterator = cachedStreams.entrySet().iterator();
+      while (totalSize > budget && iterator.hasNext()) {
+        Map.Entry<String, CachedStream> entry = iterator.next();
+        evictedStreams.add(entry.getValue());
+        verifiedKeys.remove(entry.getKey());
+        totalSize -= entry.getValue().size();
+        iterator.remove();
+      }
+    }
+    for (CachedStream cachedStream : evictedStreams) {
+      delete(directory.resolve(cachedStream.fileName()));
+    }
+    saveIndex();
+  }
+
+  /**
+   * Deletes a cached file.
+   *
+   * @param file cached file
+   */
+  private void delete(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      System.out.println(Error.UNABLE_TO_DELETE.getMessage());
+    }
+  }
+
+  /**
+   * Loads the index, dropping files that are missing or changed size,
+   * and deletes files in the directory the index doesn't reference.
+   */
+  private void load() {
+    if (Files.exists(indexFile)) {
+      try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+        int numberOfStreams = input.readInt();
+        for (int i = 0; i < numberOfStreams; i++) {
+          String key = input.readUTF();
+          CachedStream cachedStream = new CachedStream(input.readUTF(), input.readLong(), input.readLong());
+          Path file = directory.resolve(cachedStream.fileName());
+          if (Files.exists(file) && Files.size(file) == cachedStream.size()) {
+            cachedStreams.put(key, cachedStream);
+            totalSize += cachedStream.size();
+          }
+        }
+      } catch (IOException e) {
+        System.out.println(Error.UNABLE_TO_LOAD.getMessage());
+      }
+    }
+    if (!Files.isDirectory(directory)) {
+      return;
+    }
+    Set<String> fileNames = new HashSet<>();
+    for (CachedStream cachedStream : cachedStreams.values()) {
+      fileNames.add(cachedStream.fileName());
+    }
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+      for (Path file : files) {
+        if (!file.equals(indexFile) && !fileNames.contains(file.getFileName().toString())) {
+          delete(file);
+        }
+      }
+    } catch (IOException e) {
+      System.out.println(Error.UNABLE_TO_LOAD.getMessage());
+    }
+  }
+
+  /**
+   * Saves the index from least to most recently played.
+   * <p>
+   * The index is written to a temporary file first
+   * so a failed save never corrupts the previous one.
+   */
+  private synchronized void saveIndex() {
+    try {
+      Files.createDirectories(directory);
+      Path temporaryFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+      try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+        output.writeInt(cachedStreams.size());
+        for (Map.Entry<String, CachedStream> entry : cachedStreams.entrySet()) {
+          output.writeUTF(entry.getKey());
+          output.writeUTF(entry.getValue().fileName());
+          output.writeLong(entry.getValue().size());
+          output.writeLong(entry.getValue().checksum());
+        }
+      }
+      Files.move(temporaryFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      System.out.println(Error.UNABLE_TO_SAVE.getMessage());
+    }
+  }
+
+  /**
+   * Takes a chunk from the pool, or allocates one if the pool is empty.
+   *
+   * @return chunk
+   */
+  private static byte[] takeChunk() {
+    byte[] chunk = chunkPool.poll();
+    if (chunk == null) {
+      return new byte[CHUNK_SIZE];
+    }
+    pooledChunks.decrementAndGet();
+    return chunk;
+  }
+
+  /**
+   * Returns chunks to the pool, dropping those past the pool's capacity.
+   *
+   * @param chunks chunks
+   */
+  private static void releaseChunks(List<byte[]> chunks) {
+    for (byte[] chunk : chunks) {
+      if (pooledChunks.incrementAndGet() > MAXIMUM_POOLED_CHUNKS) {
+        pooledChunks.decrementAndGet();
+        return;
+      }
+      chunkPool.offer(chunk);
+    }
+  }
+
+  /**
+   * Represents a cached file.
+   *
+   * @param fileName file name
+   * @param size     size in bytes
+   * @param checksum CRC32 of the file
+   * @author Danny Nguyen
+   * @version 1.9.5
+   * @since 1.9.5
+   */
+  private record CachedStream(String fileName, long size, long checksum) {
+  }
+
+  /**
+   * Represents the recording of a track's playback.
+   * <p>
+   * Frames are appended from JDA's audio thread into fixed-size chunks taken
+   * from a shared pool, so recording never copies or grows a buffer, and
+   * nothing touches the disk until the track finishes. A packet never spans
+   * chunks, and a zero length ends a chunk's packets early.
+   *
+   * @author Danny Nguyen
+   * @version 1.9.5
+   * @since 1.9.5
+   */
+  public class Recording {
+    /**
+     * Track key.
+     */
+    private final String key;
+
+    /**
+     * Track duration in milliseconds.
+     */
+    private final long duration;
+
+    /**
+     * Chunks of length prefixed opus packets.
+     */
+    private List<byte[]> chunks = new ArrayList<>();
+
+    /**
+     * Chunk being appended to, or null if none.
+     */
+    private byte[] chunk;
+
+    /**
+     * Number of bytes of packets in the chunk being appended to.
+     */
+    private int chunkLength = 0;
+
+    /**
+     * Number of bytes of packets.
+     */
+    private int length = 0;
+
+    /**
+     * Timecode of the last recorded frame, or -1 if recording hasn't started.
+     */
+    private long lastTimecode = -1;
+
+    /**
+     * If the recording was finished or aborted.
+     */
+    private boolean closed = false;
+
+    /**
+     * Associates the recording with its track.
+     *
+     * @param key      track key
+     * @param duration track duration in milliseconds
+     */
+    private Recording(String key, long duration) {
+      this.key = key;
+      this.duration = duration;
+    }
+
+    /**
+     * Records a frame sent to Discord.
+     * <p>
+     * Frames before the track's first frame are ignored, and
+     * the recording is aborted if frames skip ahead or go back.
+     *
+     * @param frame audio frame
+     */
+    public synchronized void append(@NotNull MutableAudioFrame frame) {
+      if (closed) {
+        return;
+      }
+      long timecode = frame.getTimecode();
+      if (lastTimecode == -1) {
+        if (timecode > FRAME_DURATION) {
+          return;
+        }
+      } else if (timecode <= lastTimecode || timecode > lastTimecode + MAXIMUM_TIMECODE_GAP) {
+        abort();
+        return;
+      }
+      int dataLength = frame.getDataLength();
+      if (dataLength == 0) {
+        lastTimecode = timecode;
+        return;
+      }
+      if (length + 2 + dataLength > MAXIMUM_RECORDING_SIZE) {
+        abort();
+        return;
+      }
+      if (chunk == null || chunkLength + 2 + dataLength > CHUNK_SIZE) {
+        endChunk();
+        chunk = takeChunk();
+        chunks.add(chunk);
+        chunkLength = 0;
+      }
+      chunk[chunkLength] = (byte) (dataLength >> 8);
+      chunk[chunkLength + 1] = (byte) dataLength;
+      frame.getData(chunk, chunkLength + 2);
+      chunkLength += 2 + dataLength;
+      length += 2 + dataLength;
+      lastTimecode = timecode;
+    }
+
+    /**
+     * Marks the end of the chunk being appended to if it has room left, since pooled chunks hold stale bytes.
+     */
+    private void endChunk() {
+      if (chunk != null && chunkLength + 2 <= CHUNK_SIZE) {
+        chunk[chunkLength] = 0;
+        chunk[chunkLength + 1] = 0;
+      }
+      chunk = null;
+    }
+
+    /**
+     * Discards the recording.
+     */
+    public synchronized void abort() {
+      closed = true;
+      if (chunks != null) {
+        releaseChunks(chunks);
+        chunks = null;
+        chunk = null;
+      }
+    }
+
+    /**
+     * Writes the recording to the cache if it covers the whole track.
+     */
+    public synchronized void finish() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      endChunk();
+      List<byte[]> recordedChunks = chunks;
+      chunks = null;
+      if (lastTimecode != -1 && lastTimecode + FRAME_DURATION >= duration - COMPLETENESS_TOLERANCE) {
+        writer.execute(() -> {
+          try {
+            write(key, recordedChunks);
+          } finally {
+            releaseChunks(recordedChunks);
+          }
+        });
+      } else {
+        releaseChunks(recordedChunks);
+      }
+    }
+  }
+
+  /**
+   * Types of stream cache errors.
+   */
+  private enum Error {
+    /**
+     * Unable to load index.
+     */
+    UNABLE_TO_LOAD("Unable to load stream cache."),
+
+    /**
+     * Unable to save index.
+     */
+    UNABLE_TO_SAVE("Unable to save stream cache index."),
+
+    /**
+     * Unable to write cached file.
+     */
+    UNABLE_TO_WRITE("Unable to write cached stream."),
+
+    /**
+     * Unable to delete cached file.
+     */
+    UNABLE_TO_DELETE("Unable to delete cached stream.");
+
+    /**
+     * Message.
+     */
+    private final String message;
+
+    /**
+     * Associates an error with its message.
+     *
+     * @param message message
+     */
+    Error(String message) {
+      this.message = message;
+    }
+
+    /**
+     * Gets the error's message.
+     *
+     * @return error's message
+     */
+    @NotNull
+    public String getMessage() {
+      return this.message;
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package me.bam6561.astarya.commands.audio.managers;
+
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
+import com.sedmelluq.discord.lavaplayer.tools.io.MessageInput;
+import com.sedmelluq.discord.lavaplayer.tools.io.MessageOutput;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.DecodedTrackHolder;
+import me.bam6561.astarya.commands.audio.TrackQueueIndex;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.util.Objects;
+
+/**
+ * Represents the binary format {@link TrackQueueIndex track queue indices}
+ * are persisted in by the {@link QueueJournal} and {@link TrackHistory},
+ * and search results are cached in by the {@link SearchCache}.
+ * <p>
+ * Tracks are stored in the audio player manager's track encoding, so they're
+ * decoded locally without any network calls. Tracks whose source can't be
+ * encoded are stored as placeholders that search for their url instead.
+ *
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class TrackEncoder {
+  /**
+   * Audio player manager.
+   */
+  private final AudioPlayerManager audioPlayerManager;
+
+  /**
+   * Associates the encoder with its audio player manager.
+   *
+   * @param audioPlayerManager audio player manager
+   */
+  public TrackEncoder(@NotNull AudioPlayerManager audioPlayerManager) {
+    this.audioPlayerManager = Objects.requireNonNull(audioPlayerManager, "Null audio player manager");
+  }
+
+  /**
+   * Writes a {@link TrackQueueIndex}.
+   *
+   * @param output output
+   * @param entry  {@link TrackQueueIndex}
+   * @throws IOException unable to write
+   */
+  public void writeEntry(@NotNull DataOutput output, @NotNull TrackQueueIndex entry) throws IOException {
+    output.writeUTF(entry.getRequester());
+    output.writeUTF(entry.getTitle());
+    output.writeLong(entry.getDuration());
+
+    byte[] encodedTrack = entry.isResolved() ? encodeTrack(entry.getAudioTrack()) : null;
+    output.writeBoolean(encodedTrack != null);
+    if (encodedTrack != null) {
+      output.writeInt(encodedTrack.length);
+      output.write(encodedTrack);
+    } else if (entry.isResolved()) {
+      AudioTrack track = entry.getAudioTrack();
+      output.writeUTF(track.getInfo().uri != null ? track.getInfo().uri : track.getIdentifier());
+    } else {
+      output.writeUTF(entry.getSearchQuery());
+    }
+  }
+
+  /**
+   * Reads a {@link TrackQueueIndex}.
+   * <p>
+   * Tracks that can no longer be decoded are read as
+   * placeholders that search for their title instead.
+   *
+   * @param input input
+   * @return {@link TrackQueueIndex}
+   * @throws IOException unable to read or the track's length is corrupted
+   */
+  @NotNull
+  public TrackQueueIndex readEntry(@NotNull DataInput input) throws IOException {
+    String requester = input.readUTF();
+    String title = input.readUTF();
+    long duration = input.readLong();
+    if (!input.readBoolean()) {
+      return new TrackQueueIndex(title, duration, input.readUTF(), requester);
+    }
+    int length = input.readInt();
+    if (length < 0 || length > QueueJournal.MAXIMUM_RECORD_SIZE) {
+      throw new IOException("Corrupted track length");
+    }
+    byte[] encodedTrack = new byte[length];
+    input.readFully(encodedTrack);
+    AudioTrack track = decodeTrack(encodedTrack);
+    if (track == null) {
+      return new TrackQueueIndex(title, duration, "ytsearch:" + title, requester);
+    }
+    return new TrackQueueIndex(track, requester, title, duration, null);
+  }
+
+  /**
+   * Encodes a track.
+   *
+   * @param track audio track
+   * @return encoded track, or null if its source can't encode it
+   */
+  @Nullable
+  public byte[] encodeTrack(@NotNull AudioTrack track) {
+    try {
+      ByteArrayOutputStream encodedTrack = new ByteArrayOutputStream();
+      MessageOutput output = new MessageOutput(encodedTrack);
+      audioPlayerManager.encodeTrack(output, Objects.requireNonNull(track, "Null track"));
+      output.finish();
+      return encodedTrack.toByteArray();
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Decodes a fresh track.
+   *
+   * @param encodedTrack encoded track
+   * @return audio track, or null if it can no longer be decoded
+   */
+  @Nullable
+  public AudioTrack decodeTrack(@NotNull byte[] encodedTrack) {
+    try {
+      DecodedTrackHolder holder = audioPlayerManager.decodeTrack(new MessageInput(new ByteArrayInputStream(encodedTrack)));
+      return holder != null ? holder.decodedTrack : null;
+    } catch (IOException e) {
+      return null;
+    }
+  }
+}
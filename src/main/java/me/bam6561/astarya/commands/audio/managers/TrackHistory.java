@@ -0,0 +1,392 @@
+package me.bam6561.astarya.commands.audio.managers;
+
+import me.bam6561.astarya.commands.audio.TrackQueueIndex;
+import me.bam6561.astarya.commands.owner.Settings;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Represents a guild's history of played and skipped tracks.
+ * <p>
+ * The most recent tracks are kept in a ring buffer sized by {@link Settings},
+ * so recording a track and looking up any recent track are O(1). Every track
+ * is also appended to an on-disk log, which is rotated once it grows past a
+ * few megabytes, and the ring buffer is refilled from the log on startup.
+ * <p>
+ * Log records are length prefixed and checksummed like the {@link QueueJournal}'s,
+ * so a record torn by a crash only loses itself, and it's truncated before the
+ * log is appended to again.
+ * <p>
+ * Tracks are stored by the {@link TrackEncoder}, so returning a track from
+ * history decodes it locally instead of searching for it again.
+ *
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class TrackHistory {
+  /**
+   * Log size in bytes after which it's rotated.
+   */
+  private static final long MAXIMUM_LOG_SIZE = 4L * 1024 * 1024;
+
+  /**
+   * Largest record in bytes, past which a record's length is considered corrupted.
+   */
+  private static final int MAXIMUM_RECORD_SIZE = 64 * 1024;
+
+  /**
+   * Writer shared by all histories.
+   */
+  private static final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "TrackHistory");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * {@link TrackEncoder}
+   */
+  private final TrackEncoder trackEncoder;
+
+  /**
+   * Log file.
+   */
+  private final Path logFile;
+
+  /**
+   * Rotated log file.
+   */
+  private final Path rotatedLogFile;
+
+  /**
+   * Most recent tracks, where the next track is recorded at {@link #head}.
+   */
+  private PlayedTrack[] playedTracks;
+
+  /**
+   * Ring buffer index the next track is recorded at.
+   */
+  private int head = 0;
+
+  /**
+   * Number of tracks in the ring buffer.
+   */
+  private int size = 0;
+
+  /**
+   * If the history was closed, after which tracks are no longer logged.
+   */
+  private volatile boolean closed = false;
+
+  /**
+   * Open log file.
+   * <p>
+   * Only accessed from the writer thread.
+   */
+  private DataOutputStream log;
+
+  /**
+   * Associates a guild's history with its {@link TrackEncoder} and
+   * log files, and refills the ring buffer from the logs.
+   *
+   * @param trackEncoder {@link TrackEncoder}
+   * @param directory    directory of history logs
+   * @param guildId      guild id
+   */
+  public TrackHistory(@NotNull TrackEncoder trackEncoder, @NotNull Path directory, long guildId) {
+    this.trackEncoder = Objects.requireNonNull(trackEncoder, "Null track encoder");
+    Objects.requireNonNull(directory, "Null directory");
+    this.logFile = directory.resolve(guildId + ".log");
+    this.rotatedLogFile = directory.resolve(guildId + ".log.old");
+    this.playedTracks = new PlayedTrack[Settings.getHistorySize()];
+    load();
+  }
+
+  /**
+   * Records a played or skipped track, overwriting the least recent track if the history is full.
+   *
+   * @param entry   {@link TrackQueueIndex}
+   * @param skipped if the track was skipped
+   */
+  public void add(@NotNull TrackQueueIndex entry, boolean skipped) {
+    Objects.requireNonNull(entry, "Null entry");
+    PlayedTrack playedTrack = new PlayedTrack(entry, skipped, System.currentTimeMillis());
+    synchronized (this) {
+      push(playedTrack);
+    }
+    if (closed) {
+      return;
+    }
+    writer.execute(() -> writeRecord(playedTrack));
+  }
+
+  /**
+   * Gets a recently played track.
+   *
+   * @param index history index, where 0 is the most recent
+   * @return {@link PlayedTrack}
+   * @throws IndexOutOfBoundsException nonexistent history index
+   */
+  @NotNull
+  public synchronized PlayedTrack get(int index) {
+    Objects.checkIndex(index, size);
+    return playedTracks[Math.floorMod(head - 1 - index, playedTracks.length)];
+  }
+
+  /**
+   * Gets the most recently played tracks, from most to least recent.
+   *
+   * @param count maximum number of tracks
+   * @return recently played tracks
+   */
+  @NotNull
+  public synchronized List<PlayedTrack> getRecent(int count) {
+    List<PlayedTrack> recent = new ArrayList<>(Math.min(count, size));
+    for (int i = 0; i < Math.min(count, size); i++) {
+      recent.add(get(i));
+    }
+    return recent;
+  }
+
+  /**
+   * Gets the number of tracks in the history.
+   *
+   * @return number of tracks in the history
+   */
+  public synchronized int size() {
+    return this.size;
+  }
+
+  /**
+   * Closes the log file once pending writes finish.
+   * <p>
+   * Tracks recorded afterwards aren't logged, so a guild's next history owns the log file.
+   */
+  public void close() {
+    closed = true;
+    writer.execute(() -> {
+      if (log != null) {
+        try {
+          log.close();
+        } catch (IOException e) {
+          System.out.println(Error.UNABLE_TO_SAVE.getMessage());
+        }
+        log = null;
+      }
+    });
+  }
+
+  /**
+   * Adds a track to the ring buffer, resizing it first if the history size setting changed.
+   *
+   * @param playedTrack {@link PlayedTrack}
+   */
+  private void push(PlayedTrack playedTrack) {
+    int capacity = Settings.getHistorySize();
+    if (capacity != playedTracks.length) {
+      PlayedTrack[] resized = new PlayedTrack[capacity];
+      int kept = Math.min(size, capacity);
+      for (int i = 0; i < kept; i++) {
+        resized[kept - 1 - i] = get(i);
+      }
+      playedTracks = resized;
+      head = kept % capacity;
+      size = kept;
+    }
+    playedTracks[head] = playedTrack;
+    head = (head + 1) % playedTracks.length;
+    size = Math.min(size + 1, playedTracks.length);
+  }
+
+  /**
+   * Refills the ring buffer with the most recent tracks in the logs.
+   * <p>
+   * Records are only decoded once the most recent ones are known. Reading
+   * a log stops at its first incomplete or corrupted record.
+   */
+  private void load() {
+    byte[][] records = new byte[playedTracks.length][];
+    int[] numberOfRecords = {0};
+    Consumer<byte[]> mostRecentRecords = record -> records[numberOfRecords[0]++ % records.length] = record;
+    readRecords(rotatedLogFile, mostRecentRecords);
+    readRecords(logFile, mostRecentRecords);
+
+    int kept = Math.min(numberOfRecords[0], records.length);
+    for (int i = kept; i > 0; i--) {
+      byte[] record = records[Math.floorMod(numberOfRecords[0] - i, records.length)];
+      try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(record))) {
+        long playedAt = input.readLong();
+        boolean skipped = input.readBoolean();
+        push(new PlayedTrack(trackEncoder.readEntry(input), skipped, playedAt));
+      } catch (IOException ignored) { // Unreadable tracks are dropped
+      }
+    }
+  }
+
+  /**
+   * Reads a log's intact records.
+   *
+   * @param file   log file
+   * @param reader reader of each record
+   * @return number of bytes of intact records at the start of the log
+   */
+  private static long readRecords(Path file, Consumer<byte[]> reader) {
+    long intactLength = 0;
+    if (!Files.exists(file)) {
+      return intactLength;
+    }
+    try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      while (true) {
+        int length = input.readInt();
+        if (length < 0 || length > MAXIMUM_RECORD_SIZE) {
+          return intactLength;
+        }
+        long checksum = input.readLong();
+        byte[] record = new byte[length];
+        input.readFully(record);
+        if (checksum(record) != checksum) {
+          return intactLength;
+        }
+        reader.accept(record);
+        intactLength += Integer.BYTES + Long.BYTES + length;
+      }
+    } catch (EOFException ignored) { // End of log or torn last record
+    } catch (IOException | RuntimeException e) {
+      System.out.println(Error.UNABLE_TO_LOAD.getMessage());
+    }
+    return intactLength;
+  }
+
+  /**
+   * Opens the log for appending, truncating any torn or corrupted records at its end first.
+   * <p>
+   * Only called from the writer thread, so no other history is writing the log meanwhile.
+   *
+   * @throws IOException unable to open the log
+   */
+  private void openLog() throws IOException {
+    Files.createDirectories(logFile.toAbsolutePath().getParent());
+    long intactLength = readRecords(logFile, record -> {
+    });
+    if (Files.exists(logFile) && Files.size(logFile) > intactLength) {
+      try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.WRITE)) {
+        channel.truncate(intactLength);
+      }
+    }
+    log = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(logFile.toFile(), true)));
+  }
+
+  /**
+   * Gets a record's checksum.
+   *
+   * @param bytes record
+   * @return CRC32 checksum
+   */
+  private static long checksum(byte[] bytes) {
+    CRC32 crc = new CRC32();
+    crc.update(bytes);
+    return crc.getValue();
+  }
+
+  /**
+   * Appends a track to the log, rotating the log once it's grown too large.
+   *
+   * @param playedTrack {@link PlayedTrack}
+   */
+  private void writeRecord(PlayedTrack playedTrack) {
+    try {
+      ByteArrayOutputStream payload = new ByteArrayOutputStream();
+      DataOutputStream record = new DataOutputStream(payload);
+      record.writeLong(playedTrack.playedAt());
+      record.writeBoolean(playedTrack.skipped());
+      trackEncoder.writeEntry(record, playedTrack.entry());
+
+      byte[] bytes = payload.toByteArray();
+      if (bytes.length > MAXIMUM_RECORD_SIZE) {
+        return;
+      }
+
+      if (log == null) {
+        openLog();
+      }
+      log.writeInt(bytes.length);
+      log.writeLong(checksum(bytes));
+      log.write(bytes);
+      log.flush();
+
+      if (Files.size(logFile) > MAXIMUM_LOG_SIZE) {
+        log.close();
+        log = null;
+        Files.move(logFile, rotatedLogFile, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      System.out.println(Error.UNABLE_TO_SAVE.getMessage());
+    }
+  }
+
+  /**
+   * Represents a played or skipped track.
+   *
+   * @param entry    {@link TrackQueueIndex}
+   * @param skipped  if the track was skipped
+   * @param playedAt time the track finished or was skipped in epoch milliseconds
+   * @author Danny Nguyen
+   * @version 1.9.5
+   * @since 1.9.5
+   */
+  public record PlayedTrack(@NotNull TrackQueueIndex entry, boolean skipped, long playedAt) {
+  }
+
+  /**
+   * Types of track history errors.
+   */
+  private enum Error {
+    /**
+     * Unable to load history.
+     */
+    UNABLE_TO_LOAD("Unable to load track history."),
+
+    /**
+     * Unable to save history.
+     */
+    UNABLE_TO_SAVE("Unable to save track history.");
+
+    /**
+     * Message.
+     */
+    private final String message;
+
+    /**
+     * Associates an error with its message.
+     *
+     * @param message message
+     */
+    Error(String message) {
+      this.message = message;
+    }
+
+    /**
+     * Gets the error's message.
+     *
+     * @return error's message
+     */
+    @NotNull
+    public String getMessage() {
+      return this.message;
+    }
+  }
+}
@@ -0,0 +1,196 @@
+package me.bam6561.astarya.commands.audio.managers;
+
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
+import com.sedmelluq.discord.lavaplayer.player.event.AudioEventListener;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import me.bam6561.astarya.commands.audio.TrackQueueIndex;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntSupplier;
+
+/**
+ * Represents the component of the {@link AudioScheduler} that opens
+ * and buffers the next tracks in the queue before they're played.
+ * <p>
+ * Each prefetched track is started on its own paused standby audio player.
+ * LavaPlayer keeps decoding into a paused player's frame buffer until it's
+ * full, so when the track is promoted its first frames are already waiting.
+ * <p>
+ * Memory is bounded by the prefetch depth times one frame buffer.
+ * <p>
+ * Standby players are given the guild's {@link AudioFilters} when started,
+ * so their buffered frames already sound the same as the active player's.
+ * <p>
+ * Standby players are only changed from the {@link AudioScheduler}'s mailbox thread.
+ *
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class TrackPrefetcher {
+  /**
+   * Audio player manager.
+   */
+  private final TunedAudioPlayerManager audioPlayerManager;
+
+  /**
+   * Listener for standby players' events.
+   */
+  private final AudioEventListener listener;
+
+  /**
+   * {@link AudioFilters}
+   */
+  private final AudioFilters audioFilters;
+
+  /**
+   * Opus encoding quality of standby players.
+   */
+  private final IntSupplier opusQuality;
+
+  /**
+   * Standby players in queue order.
+   */
+  private volatile List<Standby> standbys = List.of();
+
+  /**
+   * Associates the prefetcher with its audio player manager, event
+   * listener, {@link AudioFilters}, and opus encoding quality.
+   *
+   * @param audioPlayerManager {@link TunedAudioPlayerManager}
+   * @param listener           listener for standby players' events
+   * @param audioFilters       {@link AudioFilters}
+   * @param opusQuality        opus encoding quality of standby players
+   */
+  public TrackPrefetcher(@NotNull TunedAudioPlayerManager audioPlayerManager, @NotNull AudioEventListener listener, @NotNull AudioFilters audioFilters, @NotNull IntSupplier opusQuality) {
+    this.audioPlayerManager = Objects.requireNonNull(audioPlayerManager, "Null audio player manager");
+    this.listener = Objects.requireNonNull(listener, "Null listener");
+    this.audioFilters = Objects.requireNonNull(audioFilters, "Null audio filters");
+    this.opusQuality = Objects.requireNonNull(opusQuality, "Null opus quality");
+  }
+
+  /**
+   * Matches the standby players to the upcoming tracks.
+   * <p>
+   * Standby players whose tracks are no longer upcoming are destroyed,
+   * and upcoming tracks without a standby player are started on one.
+   *
+   * @param upcoming upcoming tracks in play order, limited to the prefetch depth
+   */
+  public void sync(@NotNull List<TrackQueueIndex> upcoming) {
+    List<Standby> previous = standbys;
+    List<Standby> current = new ArrayList<>(upcoming.size());
+    for (TrackQueueIndex entry : Objects.requireNonNull(upcoming, "Null upcoming")) {
+      Standby standby = find(previous, entry);
+      current.add(standby != null ? standby : start(entry));
+    }
+    for (Standby standby : previous) {
+      if (!current.contains(standby)) {
+        standby.player().destroy();
+      }
+    }
+    standbys = List.copyOf(current);
+  }
+
+  /**
+   * Takes the standby player of a track about to be played.
+   * <p>
+   * The player is still paused and no longer managed by the prefetcher.
+   *
+   * @param entry {@link TrackQueueIndex} about to be played
+   * @return standby player with the track buffered, or null if it wasn't prefetched or failed to load
+   */
+  @Nullable
+  public AudioPlayer take(@NotNull TrackQueueIndex entry) {
+    Standby standby = find(standbys, Objects.requireNonNull(entry, "Null entry"));
+    if (standby == null) {
+      return null;
+    }
+    List<Standby> remaining = new ArrayList<>(standbys);
+    remaining.remove(standby);
+    standbys = List.copyOf(remaining);
+
+    if (standby.player().getPlayingTrack() == null) { // Failed to load while on standby
+      standby.player().destroy();
+      return null;
+    }
+    return standby.player();
+  }
+
+  /**
+   * Destroys all standby players.
+   */
+  public void clear() {
+    sync(List.of());
+  }
+
+  /**
+   * Marks standby players as in use so LavaPlayer doesn't clean up
+   * their tracks for not being polled while they wait their turn.
+   */
+  public void keepAlive() {
+    for (Standby standby : standbys) {
+      standby.player().provide();
+    }
+  }
+
+  /**
+   * Gets the number of tracks currently prefetched.
+   *
+   * @return number of tracks prefetched
+   */
+  public int getPrefetchedCount() {
+    return this.standbys.size();
+  }
+
+  /**
+   * Starts a copy of an upcoming track on a paused standby player.
+   * <p>
+   * The queued track instance is left untouched so it can still be played directly.
+   * Tracks in the {@link StreamCache} are prefetched from their local copy.
+   *
+   * @param entry upcoming {@link TrackQueueIndex}
+   * @return standby player
+   */
+  private Standby start(TrackQueueIndex entry) {
+    AudioPlayer player = audioPlayerManager.createPlayer(opusQuality);
+    player.setPaused(true);
+    audioFilters.apply(player);
+    player.addListener(listener);
+    AudioTrack cachedTrack = PlayerManager.getINSTANCE().getStreamCache().open(entry.getAudioTrack());
+    player.startTrack(cachedTrack != null ? cachedTrack : entry.getAudioTrack().makeClone(), false);
+    return new Standby(entry, player);
+  }
+
+  /**
+   * Finds the standby player of a queue entry.
+   *
+   * @param standbys standby players
+   * @param entry    {@link TrackQueueIndex}
+   * @return matching standby player or null
+   */
+  private static Standby find(List<Standby> standbys, TrackQueueIndex entry) {
+    for (Standby standby : standbys) {
+      if (standby.entry() == entry) {
+        return standby;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Represents a queue entry prefetched on a standby player.
+   *
+   * @param entry  {@link TrackQueueIndex}
+   * @param player standby player
+   * @author Danny Nguyen
+   * @version 1.9.5
+   * @since 1.9.5
+   */
+  private record Standby(TrackQueueIndex entry, AudioPlayer player) {
+  }
+}
@@ -0,0 +1,842 @@
+package me.bam6561.astarya.commands.audio.managers;
+
+import me.bam6561.astarya.commands.audio.TrackQueueIndex;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Represents the {@link AudioScheduler}'s track queue as an implicit treap.
+ * <p>
+ * Each node is ordered by its position in the queue rather than a key, and
+ * stores the size of its subtree so any position can be found by descending
+ * the tree. Random node priorities keep the tree balanced on average.
+ * <p>
+ * Nodes also store the total duration of their subtree, so the time until
+ * any track plays and the length of the whole queue are found by the same
+ * descent instead of adding up every earlier track.
+ * <p>
+ * Compared to an ArrayList, which shifts every later track on removal:
+ * <ul>
+ *  <li> head pop, get, set, insert, remove: O(log n)
+ *  <li> move, move to next, and swap: O(log n)
+ *  <li> removing every track that matches a filter: O(n) in one pass
+ *  <li> duration before an index: O(log n), total duration: O(1)
+ *  <li> {@link #snapshot()}, shuffle toggle: O(1)
+ * </ul>
+ * Indices follow the same zero-based semantics as a List.
+ * <p>
+ * While shuffled, tracks are played in a random order drawn one track at a
+ * time, like a Fisher–Yates shuffle run on demand, without reordering the
+ * queue itself. Each draw is uniform over the tracks not yet drawn, including
+ * ones added after shuffling began, and unshuffling just stops drawing.
+ * <p>
+ * Nodes are immutable and mutations copy only the path they change, so
+ * a queue is written by one thread at a time while readers never lock.
+ * Readers see either the queue before or after a mutation, never in
+ * between. Compound reads and writes that must not interleave with
+ * other writers can synchronize on the queue itself.
+ *
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class TrackQueue extends AbstractList<TrackQueueIndex> {
+  /**
+   * Node priority generator.
+   */
+  private final Random random = new Random();
+
+  /**
+   * Root node.
+   */
+  private volatile Node root;
+
+  /**
+   * Queue indices drawn from the shuffled order so far, in play order.
+   * <p>
+   * Only accessed while the queue is locked.
+   */
+  private final List<Integer> shuffleOrder = new ArrayList<>();
+
+  /**
+   * If tracks are played in shuffled order.
+   */
+  private volatile boolean shuffled = false;
+
+  /**
+   * Notified after each mutation.
+   */
+  private volatile ChangeListener changeListener = new ChangeListener() {
+    @Override
+    public void onAdd(int index, @NotNull TrackQueueIndex entry) {
+    }
+
+    @Override
+    public void onRemove(int index, @NotNull TrackQueueIndex removed) {
+    }
+
+    @Override
+    public void onSet(int index, @NotNull TrackQueueIndex replaced, @NotNull TrackQueueIndex entry) {
+    }
+
+    @Override
+    public void onClear() {
+    }
+  };
+
+  /**
+   * No parameter constructor.
+   */
+  public TrackQueue() {
+  }
+
+  /**
+   * Gets the number of tracks in the queue.
+   *
+   * @return number of tracks in the queue
+   */
+  @Override
+  public int size() {
+    return size(root);
+  }
+
+  /**
+   * Gets the {@link TrackQueueIndex} at a queue index.
+   *
+   * @param index queue index
+   * @return {@link TrackQueueIndex}
+   * @throws IndexOutOfBoundsException nonexistent queue index
+   */
+  @NotNull
+  @Override
+  public TrackQueueIndex get(int index) {
+    Node root = this.root;
+    return nodeAt(root, Objects.checkIndex(index, size(root))).entry;
+  }
+
+  /**
+   * Replaces the {@link TrackQueueIndex} at a queue index.
+   *
+   * @param index queue index
+   * @param entry new {@link TrackQueueIndex}
+   * @return replaced {@link TrackQueueIndex}
+   * @throws IndexOutOfBoundsException nonexistent queue index
+   */
+  @NotNull
+  @Override
+  public synchronized TrackQueueIndex set(int index, @NotNull TrackQueueIndex entry) {
+    Objects.requireNonNull(entry, "Null entry");
+    TrackQueueIndex replaced = get(index);
+    root = setAt(root, index, entry);
+    changeListener.onSet(index, replaced, entry);
+    return replaced;
+  }
+
+  /**
+   * Inserts a {@link TrackQueueIndex} at a queue index, shifting later tracks back by one.
+   *
+   * @param index queue index
+   * @param entry {@link TrackQueueIndex}
+   * @throws IndexOutOfBoundsException index is outside 0 to size
+   */
+  @Override
+  public synchronized void add(int index, @NotNull TrackQueueIndex entry) {
+    Objects.requireNonNull(entry, "Null entry");
+    Objects.checkIndex(index, size() + 1);
+    Node[] halves = split(root, index);
+    root = merge(merge(halves[0], new Node(entry, random.nextInt(), null, null)), halves[1]);
+    shuffleOrder.replaceAll(drawnIndex -> drawnIndex >= index ? drawnIndex + 1 : drawnIndex);
+    modCount++;
+    changeListener.onAdd(index, entry);
+  }
+
+  /**
+   * Removes the {@link TrackQueueIndex} at a queue index, shifting later tracks forward by one.
+   *
+   * @param index queue index
+   * @return removed {@link TrackQueueIndex}
+   * @throws IndexOutOfBoundsException nonexistent queue index
+   */
+  @NotNull
+  @Override
+  public synchronized TrackQueueIndex remove(int index) {
+    Objects.checkIndex(index, size());
+    Node[] halves = split(root, index);
+    Node[] removed = split(halves[1], 1);
+    root = merge(halves[0], removed[1]);
+    onRemoved(index, removed[0].entry);
+    return removed[0].entry;
+  }
+
+  /**
+   * Removes every {@link TrackQueueIndex} that matches a filter.
+   * <p>
+   * The remaining tracks are rebuilt into a new tree in one pass, rather
+   * than removing each match separately. Removals are reported to the
+   * listener from the last queue index to the first.
+   *
+   * @param filter filter
+   * @return removed tracks in queue order
+   */
+  @NotNull
+  public synchronized List<TrackQueueIndex> removeMatching(@NotNull Predicate<TrackQueueIndex> filter) {
+    Objects.requireNonNull(filter, "Null filter");
+    List<TrackQueueIndex> remaining = new ArrayList<>();
+    List<TrackQueueIndex> removed = new ArrayList<>();
+    List<Integer> removedIndices = new ArrayList<>();
+    int index = 0;
+    for (TrackQueueIndex entry : snapshot()) {
+      if (filter.test(entry)) {
+        removed.add(entry);
+        removedIndices.add(index);
+      } else {
+        remaining.add(entry);
+      }
+      index++;
+    }
+    if (removed.isEmpty()) {
+      return removed;
+    }
+    root = build(remaining);
+    for (int i = removedIndices.size() - 1; i >= 0; i--) {
+      onRemoved(removedIndices.get(i), removed.get(i));
+    }
+    return removed;
+  }
+
+  /**
+   * Removes every {@link TrackQueueIndex} that matches a filter in one pass.
+   *
+   * @param filter filter
+   * @return if any tracks were removed
+   */
+  @Override
+  public boolean removeIf(@NotNull Predicate<? super TrackQueueIndex> filter) {
+    Objects.requireNonNull(filter, "Null filter");
+    return !removeMatching(filter::test).isEmpty();
+  }
+
+  /**
+   * Removes all tracks from the queue.
+   */
+  @Override
+  public synchronized void clear() {
+    root = null;
+    shuffleOrder.clear();
+    modCount++;
+    changeListener.onClear();
+  }
+
+  /**
+   * Removes and returns the first track in the queue.
+   *
+   * @return first {@link TrackQueueIndex} or null if the queue is empty
+   */
+  @Nullable
+  public synchronized TrackQueueIndex poll() {
+    return isEmpty() ? null : remove(0);
+  }
+
+  /**
+   * Removes and returns the next track to be played, which is the
+   * first track or, while shuffled, the next track in shuffled order.
+   *
+   * @return next {@link TrackQueueIndex} or null if the queue is empty
+   */
+  @Nullable
+  public synchronized TrackQueueIndex pollNext() {
+    if (!shuffled || isEmpty()) {
+      return poll();
+    }
+    drawShuffled(1);
+    return remove((int) shuffleOrder.get(0));
+  }
+
+  /**
+   * Gets the next tracks to be played in the order they'll be played.
+   * <p>
+   * While shuffled, tracks are drawn from the shuffled order as needed.
+   *
+   * @param count maximum number of tracks
+   * @return upcoming tracks
+   */
+  @NotNull
+  public synchronized List<TrackQueueIndex> upcoming(int count) {
+    count = Math.min(count, size());
+    if (!shuffled) {
+      return List.copyOf(snapshot().subList(0, count));
+    }
+    drawShuffled(count);
+    List<TrackQueueIndex> upcoming = new ArrayList<>(count);
+    for (int drawnIndex : shuffleOrder.subList(0, count)) {
+      upcoming.add(get(drawnIndex));
+    }
+    return upcoming;
+  }
+
+  /**
+   * Gets if tracks are played in shuffled order.
+   *
+   * @return if the queue is shuffled
+   */
+  public boolean isShuffled() {
+    return this.shuffled;
+  }
+
+  /**
+   * Toggles playing tracks in shuffled order.
+   * <p>
+   * Tracks drawn from the previous shuffled order are forgotten.
+   */
+  public synchronized void toggleShuffled() {
+    shuffled = !shuffled;
+    shuffleOrder.clear();
+  }
+
+  /**
+   * Moves a track to another queue index, shifting the tracks between them.
+   *
+   * @param fromIndex current queue index
+   * @param toIndex   new queue index
+   * @return moved {@link TrackQueueIndex}
+   * @throws IndexOutOfBoundsException nonexistent queue index
+   */
+  @NotNull
+  public synchronized TrackQueueIndex move(int fromIndex, int toIndex) {
+    Objects.checkIndex(fromIndex, size());
+    Objects.checkIndex(toIndex, size());
+    TrackQueueIndex moved = remove(fromIndex);
+    add(toIndex, moved);
+    return moved;
+  }
+
+  /**
+   * Moves a track to the front of the queue so it's the next track to be
+   * played, putting it first in the shuffled order too while shuffled.
+   *
+   * @param index current queue index
+   * @return moved {@link TrackQueueIndex}
+   * @throws IndexOutOfBoundsException nonexistent queue index
+   */
+  @NotNull
+  public synchronized TrackQueueIndex moveToNext(int index) {
+    TrackQueueIndex moved = move(index, 0);
+    if (shuffled) {
+      shuffleOrder.add(0, 0);
+    }
+    return moved;
+  }
+
+  /**
+   * Swaps the positions of two tracks in the queue.
+   *
+   * @param index     queue index
+   * @param swapIndex other queue index
+   * @throws IndexOutOfBoundsException nonexistent queue index
+   */
+  public synchronized void swap(int index, int swapIndex) {
+    TrackQueueIndex entry = get(index);
+    set(index, get(swapIndex));
+    set(swapIndex, entry);
+  }
+
+  /**
+   * Sets the listener notified after each mutation.
+   * <p>
+   * The listener runs on the mutating thread while the queue is locked, so
+   * it sees mutations in the order they happened, and it should only hand
+   * work off rather than do it. Moves and swaps are reported as the
+   * removals, insertions, and replacements they're made of.
+   *
+   * @param changeListener listener
+   */
+  public void setChangeListener(@NotNull ChangeListener changeListener) {
+    this.changeListener = Objects.requireNonNull(changeListener, "Null change listener");
+  }
+
+  /**
+   * Iterates over a {@link #snapshot()} of the queue.
+   *
+   * @return iterator over the queue as it was when called
+   */
+  @NotNull
+  @Override
+  public Iterator<TrackQueueIndex> iterator() {
+    return snapshot().iterator();
+  }
+
+  /**
+   * Gets an immutable view of the queue as it is now.
+   * <p>
+   * Later mutations to the queue do not affect the snapshot.
+   *
+   * @return immutable queue snapshot
+   */
+  @NotNull
+  public Snapshot snapshot() {
+    return new Snapshot(root);
+  }
+
+  /**
+   * Gets the total duration of the tracks before a queue index.
+   *
+   * @param index queue index from 0 to size
+   * @return total duration in milliseconds, or Long.MAX_VALUE if any of the tracks is a stream
+   * @throws IndexOutOfBoundsException index is outside 0 to size
+   */
+  public long getDurationBefore(int index) {
+    return snapshot().getDurationBefore(index);
+  }
+
+  /**
+   * Gets the total duration of the queue.
+   *
+   * @return total duration in milliseconds, or Long.MAX_VALUE if any of the tracks is a stream
+   */
+  public long getTotalDuration() {
+    return duration(root);
+  }
+
+  /**
+   * Updates the shuffled order and notifies the listener after a track is removed.
+   *
+   * @param index   removed queue index
+   * @param removed removed {@link TrackQueueIndex}
+   */
+  private void onRemoved(int index, TrackQueueIndex removed) {
+    shuffleOrder.remove(Integer.valueOf(index));
+    shuffleOrder.replaceAll(drawnIndex -> drawnIndex > index ? drawnIndex - 1 : drawnIndex);
+    modCount++;
+    changeListener.onRemove(index, removed);
+  }
+
+  /**
+   * Builds a tree from tracks in queue order in O(n).
+   * <p>
+   * Each track is given a random priority and the tree is laid out with a
+   * stack of the rightmost path, as a Cartesian tree, before its immutable
+   * nodes are created from the bottom up.
+   *
+   * @param entries tracks in queue order
+   * @return root of the tree
+   */
+  private Node build(List<TrackQueueIndex> entries) {
+    int numberOfEntries = entries.size();
+    int[] priorities = new int[numberOfEntries];
+    int[] leftChildren = new int[numberOfEntries];
+    int[] rightChildren = new int[numberOfEntries];
+    Deque<Integer> rightmostPath = new ArrayDeque<>();
+    for (int i = 0; i < numberOfEntries; i++) {
+      priorities[i] = random.nextInt();
+      rightChildren[i] = -1;
+      int lastPopped = -1;
+      while (!rightmostPath.isEmpty() && priorities[rightmostPath.peek()] < priorities[i]) {
+        lastPopped = rightmostPath.pop();
+      }
+      leftChildren[i] = lastPopped;
+      if (!rightmostPath.isEmpty()) {
+        rightChildren[rightmostPath.peek()] = i;
+      }
+      rightmostPath.push(i);
+    }
+    return rightmostPath.isEmpty() ? null : createNode(rightmostPath.peekLast(), entries, priorities, leftChildren, rightChildren);
+  }
+
+  /**
+   * Creates the immutable nodes of a laid out subtree.
+   *
+   * @param index         subtree root's queue index or -1
+   * @param entries       tracks in queue order
+   * @param priorities    priorities by queue index
+   * @param leftChildren  left children by queue index
+   * @param rightChildren right children by queue index
+   * @return subtree root
+   */
+  private static Node createNode(int index, List<TrackQueueIndex> entries, int[] priorities, int[] leftChildren, int[] rightChildren) {
+    if (index < 0) {
+      return null;
+    }
+    Node left = createNode(leftChildren[index], entries, priorities, leftChildren, rightChildren);
+    Node right = createNode(rightChildren[index], entries, priorities, leftChildren, rightChildren);
+    return new Node(entries.get(index), priorities[index], left, right);
+  }
+
+  /**
+   * Draws tracks from the shuffled order until enough have been drawn.
+   * <p>
+   * Each draw picks uniformly among the undrawn tracks by choosing a rank
+   * among them and stepping it past every drawn index at or before it.
+   *
+   * @param count number of tracks to have drawn, at most the queue's size
+   */
+  private void drawShuffled(int count) {
+    while (shuffleOrder.size() < count) {
+      int index = random.nextInt(size() - shuffleOrder.size());
+      List<Integer> drawnIndices = new ArrayList<>(shuffleOrder);
+      Collections.sort(drawnIndices);
+      for (int drawnIndex : drawnIndices) {
+        if (drawnIndex <= index) {
+          index++;
+        }
+      }
+      shuffleOrder.add(index);
+    }
+  }
+
+  /**
+   * Descends a tree to find the node at a queue index.
+   *
+   * @param node  root of the tree
+   * @param index valid queue index
+   * @return node at the queue index
+   */
+  private static Node nodeAt(Node node, int index) {
+    while (true) {
+      int leftSize = size(node.left);
+      if (index < leftSize) {
+        node = node.left;
+      } else if (index == leftSize) {
+        return node;
+      } else {
+        index -= leftSize + 1;
+        node = node.right;
+      }
+    }
+  }
+
+  /**
+   * Descends a tree to add up the durations of the nodes before a queue index.
+   *
+   * @param node  root of the tree
+   * @param index queue index from 0 to size
+   * @return total duration in milliseconds
+   */
+  private static long durationBefore(Node node, int index) {
+    long duration = 0;
+    while (node != null && index > 0) {
+      int leftSize = size(node.left);
+      if (index <= leftSize) {
+        node = node.left;
+      } else {
+        duration = addDurations(addDurations(duration, duration(node.left)), node.entry.getDuration());
+        index -= leftSize + 1;
+        node = node.right;
+      }
+    }
+    return duration;
+  }
+
+  /**
+   * Copies the path to a queue index with its entry replaced.
+   *
+   * @param node  root of the tree
+   * @param index valid queue index
+   * @param entry new {@link TrackQueueIndex}
+   * @return new root of the tree
+   */
+  private static Node setAt(Node node, int index, TrackQueueIndex entry) {
+    int leftSize = size(node.left);
+    if (index < leftSize) {
+      return node.withChildren(setAt(node.left, index, entry), node.right);
+    } else if (index == leftSize) {
+      return new Node(entry, node.priority, node.left, node.right);
+    } else {
+      return node.withChildren(node.left, setAt(node.right, index - leftSize - 1, entry));
+    }
+  }
+
+  /**
+   * Splits a tree into its first {@code count} nodes and the remainder.
+   *
+   * @param node  root of the tree
+   * @param count number of nodes to put in the first tree
+   * @return first tree and remaining tree
+   */
+  private static Node[] split(Node node, int count) {
+    if (node == null) {
+      return new Node[]{null, null};
+    }
+    int leftSize = size(node.left);
+    if (count <= leftSize) {
+      Node[] halves = split(node.left, count);
+      return new Node[]{halves[0], node.withChildren(halves[1], node.right)};
+    } else {
+      Node[] halves = split(node.right, count - leftSize - 1);
+      return new Node[]{node.withChildren(node.left, halves[0]), halves[1]};
+    }
+  }
+
+  /**
+   * Joins two trees where every node in the first precedes every node in the second.
+   *
+   * @param first  preceding tree
+   * @param second following tree
+   * @return joined tree
+   */
+  private static Node merge(Node first, Node second) {
+    if (first == null) {
+      return second;
+    }
+    if (second == null) {
+      return first;
+    }
+    if (first.priority > second.priority) {
+      return first.withChildren(first.left, merge(first.right, second));
+    } else {
+      return second.withChildren(merge(first, second.left), second.right);
+    }
+  }
+
+  /**
+   * Gets the number of nodes in a subtree.
+   *
+   * @param node subtree root
+   * @return number of nodes in the subtree
+   */
+  private static int size(Node node) {
+    return node == null ? 0 : node.size;
+  }
+
+  /**
+   * Gets the total duration of a subtree.
+   *
+   * @param node subtree root
+   * @return total duration in milliseconds
+   */
+  private static long duration(Node node) {
+    return node == null ? 0 : node.duration;
+  }
+
+  /**
+   * Adds two durations, saturating at Long.MAX_VALUE so streams of unknown length stay unknown.
+   *
+   * @param duration      duration in milliseconds
+   * @param otherDuration other duration in milliseconds
+   * @return total duration in milliseconds
+   */
+  private static long addDurations(long duration, long otherDuration) {
+    long total = Math.max(0, duration) + Math.max(0, otherDuration);
+    return total < 0 ? Long.MAX_VALUE : total;
+  }
+
+  /**
+   * Represents a listener to the queue's mutations.
+   *
+   * @author Danny Nguyen
+   * @version 1.9.5
+   * @since 1.9.5
+   */
+  public interface ChangeListener {
+    /**
+     * Called after a track is inserted.
+     *
+     * @param index queue index
+     * @param entry inserted {@link TrackQueueIndex}
+     */
+    void onAdd(int index, @NotNull TrackQueueIndex entry);
+
+    /**
+     * Called after a track is removed.
+     *
+     * @param index   queue index
+     * @param removed removed {@link TrackQueueIndex}
+     */
+    void onRemove(int index, @NotNull TrackQueueIndex removed);
+
+    /**
+     * Called after a track is replaced.
+     *
+     * @param index    queue index
+     * @param replaced replaced {@link TrackQueueIndex}
+     * @param entry    new {@link TrackQueueIndex}
+     */
+    void onSet(int index, @NotNull TrackQueueIndex replaced, @NotNull TrackQueueIndex entry);
+
+    /**
+     * Called after the queue is cleared.
+     */
+    void onClear();
+  }
+
+  /**
+   * Represents a position in the queue.
+   *
+   * @author Danny Nguyen
+   * @version 1.9.5
+   * @since 1.9.5
+   */
+  private static class Node {
+    /**
+     * {@link TrackQueueIndex}
+     */
+    private final TrackQueueIndex entry;
+
+    /**
+     * Heap priority.
+     */
+    private final int priority;
+
+    /**
+     * Number of nodes in this subtree.
+     */
+    private final int size;
+
+    /**
+     * Total duration of this subtree in milliseconds.
+     */
+    private final long duration;
+
+    /**
+     * Preceding tracks.
+     */
+    private final Node left;
+
+    /**
+     * Following tracks.
+     */
+    private final Node right;
+
+    /**
+     * Associates a node with its entry, priority, and children.
+     *
+     * @param entry    {@link TrackQueueIndex}
+     * @param priority heap priority
+     * @param left     preceding tracks
+     * @param right    following tracks
+     */
+    Node(TrackQueueIndex entry, int priority, Node left, Node right) {
+      this.entry = entry;
+      this.priority = priority;
+      this.left = left;
+      this.right = right;
+      this.size = 1 + TrackQueue.size(left) + TrackQueue.size(right);
+      this.duration = addDurations(addDurations(TrackQueue.duration(left), TrackQueue.duration(right)), entry.getDuration());
+    }
+
+    /**
+     * Copies the node with different children.
+     *
+     * @param left  preceding tracks
+     * @param right following tracks
+     * @return copied node
+     */
+    private Node withChildren(Node left, Node right) {
+      return new Node(entry, priority, left, right);
+    }
+  }
+
+  /**
+   * Represents an immutable view of the queue at one point in time.
+   *
+   * @author Danny Nguyen
+   * @version 1.9.5
+   * @since 1.9.5
+   */
+  public static class Snapshot extends AbstractList<TrackQueueIndex> {
+    /**
+     * Root node at the time of the snapshot.
+     */
+    private final Node root;
+
+    /**
+     * Associates a snapshot with its root node.
+     *
+     * @param root root node
+     */
+    private Snapshot(Node root) {
+      this.root = root;
+    }
+
+    /**
+     * Gets the total duration of the tracks before a queue index.
+     *
+     * @param index queue index from 0 to size
+     * @return total duration in milliseconds, or Long.MAX_VALUE if any of the tracks is a stream
+     * @throws IndexOutOfBoundsException index is outside 0 to size
+     */
+    public long getDurationBefore(int index) {
+      return durationBefore(root, Objects.checkIndex(index, size() + 1));
+    }
+
+    /**
+     * Gets the total duration of the snapshot.
+     *
+     * @return total duration in milliseconds, or Long.MAX_VALUE if any of the tracks is a stream
+     */
+    public long getTotalDuration() {
+      return duration(root);
+    }
+
+    /**
+     * Gets the number of tracks in the snapshot.
+     *
+     * @return number of tracks in the snapshot
+     */
+    @Override
+    public int size() {
+      return TrackQueue.size(root);
+    }
+
+    /**
+     * Gets the {@link TrackQueueIndex} at a queue index.
+     *
+     * @param index queue index
+     * @return {@link TrackQueueIndex}
+     * @throws IndexOutOfBoundsException nonexistent queue index
+     */
+    @Override
+    public TrackQueueIndex get(int index) {
+      return nodeAt(root, Objects.checkIndex(index, size())).entry;
+    }
+
+    /**
+     * Iterates over the snapshot in queue order in O(n) total.
+     *
+     * @return in-order iterator
+     */
+    @NotNull
+    @Override
+    public Iterator<TrackQueueIndex> iterator() {
+      return new Iterator<>() {
+        /**
+         * Nodes whose entries and right subtrees are yet to be visited.
+         */
+        private final Deque<Node> path = new ArrayDeque<>();
+
+        {
+          descendLeft(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+          return !path.isEmpty();
+        }
+
+        @Override
+        public TrackQueueIndex next() {
+          if (path.isEmpty()) {
+            throw new NoSuchElementException();
+          }
+          Node node = path.pop();
+          descendLeft(node.right);
+          return node.entry;
+        }
+
+        /**
+         * Pushes a node and its chain of left children.
+         *
+         * @param node subtree root
+         */
+        private void descendLeft(Node node) {
+          while (node != null) {
+            path.push(node);
+            node = node.left;
+          }
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package me.bam6561.astarya.commands.audio.managers;
+
+import com.sedmelluq.discord.lavaplayer.player.AudioConfiguration;
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayerOptions;
+import com.sedmelluq.discord.lavaplayer.player.DefaultAudioPlayerManager;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.InternalAudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.TrackStateListener;
+import me.bam6561.astarya.commands.owner.Settings;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.function.IntSupplier;
+
+/**
+ * Represents an audio player manager whose engine tuning is set by {@link Settings}.
+ * <p>
+ * The item loader thread pool size and track stuck threshold apply immediately.
+ * LavaPlayer reads the frame buffer duration, opus encoding quality, and
+ * resampling quality when a track starts, so changes to them apply from the next track.
+ * <p>
+ * Each audio player can have its own opus encoding quality, which is scaled
+ * down for voice channels with low bitrates since Discord discards the extra
+ * detail anyway. Tracks on the opus passthrough path aren't encoded at all.
+ *
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class TunedAudioPlayerManager extends DefaultAudioPlayerManager {
+  /**
+   * Voice channel bitrate at and above which the full opus encoding quality is used.
+   */
+  private static final int FULL_QUALITY_BITRATE = 96000;
+
+  /**
+   * Opus encoding quality by audio player.
+   * <p>
+   * Destroyed audio players are dropped once they're garbage collected.
+   */
+  private final Map<AudioPlayer, IntSupplier> opusQualities = Collections.synchronizedMap(new WeakHashMap<>());
+
+  /**
+   * Opus encoding quality each track was started with.
+   * <p>
+   * Finished tracks are dropped once they're garbage collected.
+   */
+  private final Map<AudioTrack, Integer> trackOpusQualities = Collections.synchronizedMap(new WeakHashMap<>());
+
+  /**
+   * Associates the audio player manager with its {@link Settings}.
+   */
+  public TunedAudioPlayerManager() {
+    applySettings();
+  }
+
+  /**
+   * Creates an audio player whose tracks are encoded at their own opus quality.
+   *
+   * @param opusQuality opus encoding quality, read whenever a track starts
+   * @return audio player
+   */
+  @NotNull
+  public AudioPlayer createPlayer(@NotNull IntSupplier opusQuality) {
+    AudioPlayer audioPlayer = createPlayer();
+    opusQualities.put(audioPlayer, Objects.requireNonNull(opusQuality, "Null opus quality"));
+    return audioPlayer;
+  }
+
+  /**
+   * Starts a track with its audio player's opus encoding quality.
+   *
+   * @param listener      audio player
+   * @param track         track
+   * @param configuration shared audio configuration
+   * @param playerOptions audio player options
+   */
+  @Override
+  public void executeTrack(TrackStateListener listener, InternalAudioTrack track, AudioConfiguration configuration, AudioPlayerOptions playerOptions) {
+    IntSupplier opusQuality = listener instanceof AudioPlayer ? opusQualities.get(listener) : null;
+    if (opusQuality != null) {
+      int quality = opusQuality.getAsInt();
+      if (quality != configuration.getOpusEncodingQuality()) {
+        configuration = configuration.copy();
+        configuration.setOpusEncodingQuality(quality);
+      }
+    }
+    trackOpusQualities.put(track, configuration.getOpusEncodingQuality());
+    super.executeTrack(listener, track, configuration, playerOptions);
+  }
+
+  /**
+   * Gets the opus encoding quality a track was started with.
+   *
+   * @param track started track
+   * @return opus encoding quality, or the shared quality if the track hasn't started
+   */
+  public int getOpusQuality(@NotNull AudioTrack track) {
+    Integer quality = trackOpusQualities.get(Objects.requireNonNull(track, "Null track"));
+    return quality != null ? quality : getConfiguration().getOpusEncodingQuality();
+  }
+
+  /**
+   * Applies the engine tuning {@link Settings}.
+   */
+  public void applySettings() {
+    setFrameBufferDuration(Settings.getFrameBufferDuration());
+    setItemLoaderThreadPoolSize(Settings.getLoaderThreads());
+    setTrackStuckThreshold(Settings.getTrackStuckThreshold());
+    getConfiguration().setOpusEncodingQuality(Settings.getOpusQuality());
+    getConfiguration().setResamplingQuality(Settings.getResamplingQuality());
+  }
+
+  /**
+   * Scales the opus encoding quality setting down to a voice channel's bitrate.
+   *
+   * @param bitrate voice channel bitrate in bits per second
+   * @return opus encoding quality
+   */
+  public static int scaleOpusQuality(int bitrate) {
+    int quality = Settings.getOpusQuality();
+    if (bitrate >= FULL_QUALITY_BITRATE) {
+      return quality;
+    }
+    return Math.max(0, (int) Math.round(quality * (double) bitrate / FULL_QUALITY_BITRATE));
+  }
+}
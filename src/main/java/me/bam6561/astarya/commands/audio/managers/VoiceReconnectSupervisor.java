@@ -0,0 +1,277 @@
+package me.bam6561.astarya.commands.audio.managers;
+
+import me.bam6561.astarya.Bot;
+import net.dv8tion.jda.api.audio.hooks.ConnectionListener;
+import net.dv8tion.jda.api.audio.hooks.ConnectionStatus;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.User;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents the component of a guild's {@link PlaybackManager} that
+ * keeps playback intact while its voice connection reconnects.
+ * <p>
+ * JDA reconnects on its own after a region change or lost connection, but
+ * the audio player keeps being polled into the dead connection meanwhile, so
+ * frames are lost, or it isn't polled at all and LavaPlayer ends the track.
+ * While reconnecting, the supervisor holds the {@link AudioPlayerSendHandler}
+ * so its buffered frames are kept, and pauses the audio player so it stays at
+ * the same position, polling it just enough that its track isn't cleaned up.
+ * Once reconnected, the held frames are sent first and playback resumes.
+ * <p>
+ * Reconnects that fail leave the audio player paused.
+ *
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class VoiceReconnectSupervisor implements ConnectionListener {
+  /**
+   * Seconds between polls of a paused audio player while reconnecting.
+   */
+  private static final int KEEP_ALIVE_INTERVAL = 5;
+
+  /**
+   * Thread polling paused audio players while reconnecting.
+   */
+  private static final ScheduledExecutorService keepAlive = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "VoiceReconnect");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * Guild id.
+   */
+  private final long guildId;
+
+  /**
+   * {@link AudioScheduler}
+   */
+  private final AudioScheduler audioScheduler;
+
+  /**
+   * {@link AudioPlayerSendHandler}
+   */
+  private final AudioPlayerSendHandler sendHandler;
+
+  /**
+   * Time the current reconnect began, or 0 if not reconnecting.
+   */
+  private long reconnectStart = 0;
+
+  /**
+   * Polls the paused audio player while reconnecting.
+   */
+  private ScheduledFuture<?> keepAliveTask;
+
+  /**
+   * Completed reconnects.
+   */
+  private final AtomicLong reconnects = new AtomicLong();
+
+  /**
+   * Reconnects that gave up.
+   */
+  private final AtomicLong failedReconnects = new AtomicLong();
+
+  /**
+   * Total milliseconds spent reconnecting.
+   */
+  private final AtomicLong totalReconnectLatency = new AtomicLong();
+
+  /**
+   * Milliseconds the latest reconnect took.
+   */
+  private final AtomicLong lastReconnectLatency = new AtomicLong();
+
+  /**
+   * Milliseconds the longest reconnect took.
+   */
+  private final AtomicLong maximumReconnectLatency = new AtomicLong();
+
+  /**
+   * Associates the supervisor with its guild, {@link AudioScheduler}, and {@link AudioPlayerSendHandler}.
+   *
+   * @param guildId        guild id
+   * @param audioScheduler {@link AudioScheduler}
+   * @param sendHandler    {@link AudioPlayerSendHandler}
+   */
+  public VoiceReconnectSupervisor(long guildId, @NotNull AudioScheduler audioScheduler, @NotNull AudioPlayerSendHandler sendHandler) {
+    this.guildId = guildId;
+    this.audioScheduler = Objects.requireNonNull(audioScheduler, "Null audio scheduler");
+    this.sendHandler = Objects.requireNonNull(sendHandler, "Null send handler");
+  }
+
+  /**
+   * Suspends playback when the connection drops and JDA is going to reconnect,
+   * resumes it once reconnected, and gives up if JDA stops trying.
+   *
+   * @param status connection status
+   */
+  @Override
+  public synchronized void onStatusChange(@NotNull ConnectionStatus status) {
+    switch (status) {
+      case CONNECTED -> resume();
+      case AUDIO_REGION_CHANGE, ERROR_LOST_CONNECTION, ERROR_CANNOT_RESUME, ERROR_CONNECTION_TIMEOUT,
+          ERROR_UDP_UNABLE_TO_CONNECT, ERROR_WEBSOCKET_UNABLE_TO_CONNECT -> {
+        if (status.shouldReconnect()) {
+          suspend();
+        } else {
+          abandon();
+        }
+      }
+      case CONNECTING_AWAITING_ENDPOINT, CONNECTING_AWAITING_WEBSOCKET_CONNECT, CONNECTING_AWAITING_AUTHENTICATION,
+          CONNECTING_ATTEMPTING_UDP_DISCOVERY, CONNECTING_AWAITING_READY -> {
+      }
+      default -> abandon();
+    }
+  }
+
+  /**
+   * Not used.
+   *
+   * @param ping voice websocket ping
+   */
+  @Override
+  public void onPing(long ping) {
+  }
+
+  /**
+   * Not used.
+   *
+   * @param user     user
+   * @param speaking if the user is speaking
+   */
+  @Override
+  public void onUserSpeaking(@NotNull User user, boolean speaking) {
+  }
+
+  /**
+   * Holds the buffered frames and pauses the audio player until reconnected.
+   */
+  private void suspend() {
+    if (reconnectStart != 0) {
+      return;
+    }
+    reconnectStart = System.nanoTime();
+    sendHandler.setHeld(true);
+    audioScheduler.suspendForReconnect();
+    keepAliveTask = keepAlive.scheduleAtFixedRate(audioScheduler::keepAliveWhilePaused, KEEP_ALIVE_INTERVAL, KEEP_ALIVE_INTERVAL, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Sends the held frames, resumes the audio player, and records how long reconnecting took.
+   * <p>
+   * Listeners are checked again, since voice events may have been missed while disconnected.
+   */
+  private void resume() {
+    if (reconnectStart == 0) {
+      return;
+    }
+    long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - reconnectStart);
+    release();
+    audioScheduler.resumeAfterReconnect();
+    reconnects.incrementAndGet();
+    totalReconnectLatency.addAndGet(latency);
+    lastReconnectLatency.set(latency);
+    maximumReconnectLatency.accumulateAndGet(latency, Math::max);
+
+    Guild guild = Bot.getApi().getGuildById(guildId);
+    if (guild != null) {
+      PlayerManager.getINSTANCE().getPlaybackReaper().updateListeners(guild);
+    }
+  }
+
+  /**
+   * Stops holding frames after a reconnect gave up, leaving the audio player paused.
+   */
+  private void abandon() {
+    if (reconnectStart == 0) {
+      return;
+    }
+    release();
+    audioScheduler.abandonReconnect();
+    failedReconnects.incrementAndGet();
+  }
+
+  /**
+   * Stops supervising a {@link PlaybackManager} being evicted, ending any reconnect in progress.
+   */
+  public synchronized void close() {
+    if (reconnectStart != 0) {
+      release();
+    }
+  }
+
+  /**
+   * Ends the current reconnect.
+   */
+  private void release() {
+    reconnectStart = 0;
+    keepAliveTask.cancel(false);
+    keepAliveTask = null;
+    sendHandler.setHeld(false);
+  }
+
+  /**
+   * Gets if the connection is currently reconnecting.
+   *
+   * @return if reconnecting
+   */
+  public synchronized boolean isReconnecting() {
+    return this.reconnectStart != 0;
+  }
+
+  /**
+   * Gets the number of completed reconnects.
+   *
+   * @return number of reconnects
+   */
+  public long getReconnects() {
+    return this.reconnects.get();
+  }
+
+  /**
+   * Gets the number of reconnects that gave up.
+   *
+   * @return number of failed reconnects
+   */
+  public long getFailedReconnects() {
+    return this.failedReconnects.get();
+  }
+
+  /**
+   * Gets the total milliseconds spent reconnecting.
+   *
+   * @return total reconnect latency
+   */
+  public long getTotalReconnectLatency() {
+    return this.totalReconnectLatency.get();
+  }
+
+  /**
+   * Gets the milliseconds the latest reconnect took.
+   *
+   * @return latest reconnect latency
+   */
+  public long getLastReconnectLatency() {
+    return this.lastReconnectLatency.get();
+  }
+
+  /**
+   * Gets the milliseconds the longest reconnect took.
+   *
+   * @return maximum reconnect latency
+   */
+  public long getMaximumReconnectLatency() {
+    return this.maximumReconnectLatency.get();
+  }
+}
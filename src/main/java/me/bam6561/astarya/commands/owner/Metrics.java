@@ -0,0 +1,97 @@
+package me.bam6561.astarya.commands.owner;
+
+import com.jagrosh.jdautilities.command.Command;
+import com.jagrosh.jdautilities.command.CommandEvent;
+import me.bam6561.astarya.commands.audio.managers.AudioMetrics;
+import me.bam6561.astarya.commands.audio.managers.AudioPlayerSendHandler;
+import me.bam6561.astarya.commands.audio.managers.MetricsServer;
+import me.bam6561.astarya.commands.audio.managers.PlaybackManager;
+import me.bam6561.astarya.commands.audio.managers.PlayerManager;
+import me.bam6561.astarya.commands.audio.managers.VoiceReconnectSupervisor;
+import me.bam6561.astarya.utils.Histogram;
+import net.dv8tion.jda.api.EmbedBuilder;
+
+/**
+ * Command invocation that shows the server's {@link AudioMetrics}.
+ * <p>
+ * Every server's metrics can also be scraped from the {@link MetricsServer} if it's configured.
+ *
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class Metrics extends Command {
+  /**
+   * Associates the command with its properties.
+   */
+  public Metrics() {
+    this.name = "metrics";
+    this.aliases = new String[]{"metrics", "stats"};
+    this.arguments = "[0]Metrics";
+    this.help = "Shows audio playback metrics.";
+    this.ownerCommand = true;
+  }
+
+  /**
+   * Sends the server's audio metrics if it has played audio since the guild was last reclaimed.
+   *
+   * @param ce command event
+   */
+  @Override
+  protected void execute(CommandEvent ce) {
+    Settings.deleteInvoke(ce);
+
+    PlaybackManager playbackManager = PlayerManager.getINSTANCE().getPlaybackManagers().get(ce.getGuild().getIdLong());
+    if (playbackManager == null) {
+      ce.getChannel().sendMessage("No audio metrics recorded.").queue();
+      return;
+    }
+    sendMetrics(ce, playbackManager);
+  }
+
+  /**
+   * Sends an embed containing the server's frame, underrun, jitter, load, and reconnect metrics.
+   *
+   * @param ce              command event
+   * @param playbackManager {@link PlaybackManager}
+   */
+  private void sendMetrics(CommandEvent ce, PlaybackManager playbackManager) {
+    AudioPlayerSendHandler sendHandler = playbackManager.getSendHandler();
+    AudioMetrics audioMetrics = playbackManager.audioScheduler.getAudioMetrics();
+    VoiceReconnectSupervisor reconnectSupervisor = playbackManager.getReconnectSupervisor();
+    Histogram missStreaks = audioMetrics.getMissStreaks();
+    Histogram pollJitter = audioMetrics.getPollJitter();
+
+    EmbedBuilder embed = new EmbedBuilder();
+    embed.setAuthor("Metrics");
+    embed.setDescription("**Frames Provided:** `" + sendHandler.getFramesProvided() + "`"
+        + "\n**Frames Missed:** `" + sendHandler.getFramesMissed() + "`"
+        + "\n**Underruns:** `" + audioMetrics.getUnderruns() + "`"
+        + "\n**Underrun Streaks:** `" + missStreaks.getCount() + "` *(p50 `" + missStreaks.getPercentile(50)
+        + "` p99 `" + missStreaks.getPercentile(99) + "` max `" + missStreaks.getMaximum() + "`)*"
+        + "\n**Poll Jitter:** p50 `" + pollJitter.getPercentile(50) / 1000.0 + "`ms p99 `"
+        + pollJitter.getPercentile(99) / 1000.0 + "`ms max `" + pollJitter.getMaximum() / 1000.0 + "`ms"
+        + "\n**Load:** " + describeLatency(audioMetrics.getLoadLatency())
+        + "\n**Load To First Frame:** " + describeLatency(audioMetrics.getLoadToFirstFrameLatency())
+        + "\n**Start To First Frame:** " + describeLatency(audioMetrics.getStartToFirstFrameLatency())
+        + "\n**Reconnects:** `" + reconnectSupervisor.getReconnects() + "` *(failed `" + reconnectSupervisor.getFailedReconnects()
+        + "` last `" + reconnectSupervisor.getLastReconnectLatency() + "`ms max `" + reconnectSupervisor.getMaximumReconnectLatency() + "`ms)*");
+
+    String address = MetricsServer.getINSTANCE().getAddress();
+    embed.addField("Scrape Endpoint", address != null ? address : "Not configured. Set METRICS_PORT in .env file.", false);
+    Settings.sendEmbed(ce, embed);
+  }
+
+  /**
+   * Describes a latency histogram's median and tail in milliseconds.
+   *
+   * @param latency latency {@link Histogram} in milliseconds
+   * @return latency description
+   */
+  private String describeLatency(Histogram latency) {
+    if (latency.getCount() == 0) {
+      return "`None`";
+    }
+    return "p50 `" + latency.getPercentile(50) + "`ms p99 `" + latency.getPercentile(99) + "`ms *(`" + latency.getCount() + "` samples)*";
+  }
+}
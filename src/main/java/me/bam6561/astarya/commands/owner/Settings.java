@@ -2,6 +2,8 @@ package me.bam6561.astarya.commands.owner;
 
 import com.jagrosh.jdautilities.command.Command;
 import com.jagrosh.jdautilities.command.CommandEvent;
+import com.sedmelluq.discord.lavaplayer.player.AudioConfiguration;
+import me.bam6561.astarya.commands.audio.managers.PlayerManager;
 import me.bam6561.astarya.enums.BotMessage;
 import net.dv8tion.jda.api.EmbedBuilder;
 import org.jetbrains.annotations.NotNull;
@@ -15,7 +17,7 @@ import java.util.concurrent.TimeUnit;
  * the bot's settings and provides the option to change them.
  *
  * @author Danny Nguyen
- * @version 1.8.14
+ * @version 1.9.5
  * @since 1.0
  */
 public class Settings extends Command {
@@ -49,6 +51,51 @@ public class Settings extends Command {
    */
   private static boolean embedMediaLinks = true;
 
+  /**
+   * Number of upcoming tracks to buffer ahead of time.
+   */
+  private static int prefetchDepth = 1;
+
+  /**
+   * Number of recently played tracks kept in memory.
+   */
+  private static int historySize = 50;
+
+  /**
+   * Milliseconds of audio each track buffers ahead.
+   */
+  private static int frameBufferDuration = 5000;
+
+  /**
+   * Highest opus encoding quality, from 0 to 10.
+   */
+  private static int opusQuality = 10;
+
+  /**
+   * Resampling quality.
+   */
+  private static AudioConfiguration.ResamplingQuality resamplingQuality = AudioConfiguration.ResamplingQuality.LOW;
+
+  /**
+   * Number of threads loading tracks and search results.
+   */
+  private static int loaderThreads = 10;
+
+  /**
+   * Milliseconds without audio before a track is considered stuck.
+   */
+  private static long trackStuckThreshold = 10000;
+
+  /**
+   * Size budget of cached streams in megabytes.
+   */
+  private static int streamCacheSize = 1024;
+
+  /**
+   * Minutes a guild can be idle before disconnecting.
+   */
+  private static int idleTimeout = 10;
+
   /**
    * Associates the command with its properties.
    *
@@ -60,7 +107,7 @@ public class Settings extends Command {
     Settings.alternativePrefix = Objects.requireNonNull(altPrefix, "Null alternate prefix");
     this.name = "settings";
     this.aliases = new String[]{"settings", "config"};
-    this.arguments = "[0]MainMenu [1]Setting [2]True/False";
+    this.arguments = "[0]MainMenu [1]Setting [2]Value";
     this.help = "Provides information on the bot's settings.";
     this.ownerCommand = true;
   }
@@ -98,7 +145,16 @@ public class Settings extends Command {
         + "\n**DeleteInvoke**: `" + deleteInvoke
         + "`" + "\n**EmbedDecay:** `" + embedDecay + "`"
         + "\n**EmbedDecayTime:** `" + embedDecayTime + "`s"
-        + "\n**EmbedMediaLinks:** `" + embedMediaLinks + "`");
+        + "\n**EmbedMediaLinks:** `" + embedMediaLinks + "`"
+        + "\n**PrefetchDepth:** `" + prefetchDepth + "`"
+        + "\n**HistorySize:** `" + historySize + "`"
+        + "\n**FrameBufferDuration:** `" + frameBufferDuration + "`ms"
+        + "\n**OpusQuality:** `" + opusQuality + "`"
+        + "\n**ResamplingQuality:** `" + resamplingQuality + "`"
+        + "\n**LoaderThreads:** `" + loaderThreads + "`"
+        + "\n**TrackStuckThreshold:** `" + trackStuckThreshold + "`ms"
+        + "\n**StreamCacheSize:** `" + streamCacheSize + "`MB"
+        + "\n**IdleTimeout:** `" + idleTimeout + "`min");
     sendEmbed(ce, embed);
   }
 
@@ -162,6 +218,88 @@ public class Settings extends Command {
     return Settings.embedMediaLinks;
   }
 
+  /**
+   * Gets the number of upcoming tracks to buffer ahead of time.
+   *
+   * @return number of upcoming tracks to prefetch
+   */
+  public static int getPrefetchDepth() {
+    return Settings.prefetchDepth;
+  }
+
+  /**
+   * Gets the number of recently played tracks kept in memory.
+   *
+   * @return number of recently played tracks
+   */
+  public static int getHistorySize() {
+    return Settings.historySize;
+  }
+
+  /**
+   * Gets the milliseconds of audio each track buffers ahead.
+   *
+   * @return frame buffer duration in milliseconds
+   */
+  public static int getFrameBufferDuration() {
+    return Settings.frameBufferDuration;
+  }
+
+  /**
+   * Gets the highest opus encoding quality.
+   *
+   * @return opus encoding quality
+   */
+  public static int getOpusQuality() {
+    return Settings.opusQuality;
+  }
+
+  /**
+   * Gets the resampling quality.
+   *
+   * @return resampling quality
+   */
+  @NotNull
+  public static AudioConfiguration.ResamplingQuality getResamplingQuality() {
+    return Settings.resamplingQuality;
+  }
+
+  /**
+   * Gets the number of threads loading tracks and search results.
+   *
+   * @return number of loader threads
+   */
+  public static int getLoaderThreads() {
+    return Settings.loaderThreads;
+  }
+
+  /**
+   * Gets the milliseconds without audio before a track is considered stuck.
+   *
+   * @return track stuck threshold in milliseconds
+   */
+  public static long getTrackStuckThreshold() {
+    return Settings.trackStuckThreshold;
+  }
+
+  /**
+   * Gets the size budget of cached streams in megabytes.
+   *
+   * @return stream cache size in megabytes
+   */
+  public static int getStreamCacheSize() {
+    return Settings.streamCacheSize;
+  }
+
+  /**
+   * Gets the minutes a guild can be idle before disconnecting.
+   *
+   * @return idle timeout in minutes
+   */
+  public static int getIdleTimeout() {
+    return Settings.idleTimeout;
+  }
+
   /**
    * Represents a settings change query.
    *
@@ -178,6 +316,15 @@ public class Settings extends Command {
      *  <li> embed decay
      *  <li> embed decay time
      *  <li> embed media links
+     *  <li> prefetch depth
+     *  <li> history size
+     *  <li> frame buffer duration
+     *  <li> opus quality
+     *  <li> resampling quality
+     *  <li> loader threads
+     *  <li> track stuck threshold
+     *  <li> stream cache size
+     *  <li> idle timeout
      * </ul>
      *
      * @param parameters user provided parameters
@@ -190,6 +337,15 @@ public class Settings extends Command {
           case EMBEDDECAY -> setEmbedDecaySetting(parameters[2].toLowerCase());
           case EMBEDDECAYTIME -> setEmbedDecayTimeSetting(parameters[2]);
           case EMBEDMEDIALINKS -> setEmbedMediaLinksSetting(parameters[2].toLowerCase());
+          case PREFETCHDEPTH -> setPrefetchDepthSetting(parameters[2]);
+          case HISTORYSIZE -> setHistorySizeSetting(parameters[2]);
+          case FRAMEBUFFERDURATION -> setFrameBufferDurationSetting(parameters[2]);
+          case OPUSQUALITY -> setOpusQualitySetting(parameters[2]);
+          case RESAMPLINGQUALITY -> setResamplingQualitySetting(parameters[2].toUpperCase());
+          case LOADERTHREADS -> setLoaderThreadsSetting(parameters[2]);
+          case TRACKSTUCKTHRESHOLD -> setTrackStuckThresholdSetting(parameters[2]);
+          case STREAMCACHESIZE -> setStreamCacheSizeSetting(parameters[2]);
+          case IDLETIMEOUT -> setIdleTimeoutSetting(parameters[2]);
         }
       } catch (IllegalArgumentException ex) {
         ce.getChannel().sendMessage("Setting not found.").queue();
@@ -257,6 +413,178 @@ public class Settings extends Command {
       }
     }
 
+    /**
+     * Changes the prefetch depth setting to an integer value.
+     *
+     * @param value the integer value to be changed to
+     */
+    private void setPrefetchDepthSetting(String value) {
+      try {
+        int depthValue = Integer.parseInt(value);
+        if (depthValue >= 0 && depthValue <= 3) {
+          Settings.prefetchDepth = depthValue;
+          ce.getChannel().sendMessage("PrefetchDepth has been set to `" + Settings.prefetchDepth + "`.").queue();
+        } else {
+          ce.getChannel().sendMessage(Error.SETTINGS_PREFETCH_DEPTH_RANGE.message).queue();
+        }
+      } catch (NumberFormatException e) {
+        ce.getChannel().sendMessage(Error.SETTINGS_PREFETCH_DEPTH_RANGE.message).queue();
+      }
+    }
+
+    /**
+     * Changes the history size setting to an integer value.
+     *
+     * @param value the integer value to be changed to
+     */
+    private void setHistorySizeSetting(String value) {
+      try {
+        int sizeValue = Integer.parseInt(value);
+        if (sizeValue >= 10 && sizeValue <= 500) {
+          Settings.historySize = sizeValue;
+          ce.getChannel().sendMessage("HistorySize has been set to `" + Settings.historySize + "`.").queue();
+        } else {
+          ce.getChannel().sendMessage(Error.SETTINGS_HISTORY_SIZE_RANGE.message).queue();
+        }
+      } catch (NumberFormatException e) {
+        ce.getChannel().sendMessage(Error.SETTINGS_HISTORY_SIZE_RANGE.message).queue();
+      }
+    }
+
+    /**
+     * Changes the frame buffer duration setting to an integer value.
+     *
+     * @param value the integer value to be changed to
+     */
+    private void setFrameBufferDurationSetting(String value) {
+      try {
+        int durationValue = Integer.parseInt(value);
+        if (durationValue >= 1000 && durationValue <= 30000) {
+          Settings.frameBufferDuration = durationValue;
+          PlayerManager.getINSTANCE().applyEngineSettings();
+          ce.getChannel().sendMessage("FrameBufferDuration has been set to `" + Settings.frameBufferDuration + "`ms.").queue();
+        } else {
+          ce.getChannel().sendMessage(Error.SETTINGS_FRAME_BUFFER_DURATION_RANGE.message).queue();
+        }
+      } catch (NumberFormatException e) {
+        ce.getChannel().sendMessage(Error.SETTINGS_FRAME_BUFFER_DURATION_RANGE.message).queue();
+      }
+    }
+
+    /**
+     * Changes the opus quality setting to an integer value.
+     *
+     * @param value the integer value to be changed to
+     */
+    private void setOpusQualitySetting(String value) {
+      try {
+        int qualityValue = Integer.parseInt(value);
+        if (qualityValue >= 0 && qualityValue <= AudioConfiguration.OPUS_QUALITY_MAX) {
+          Settings.opusQuality = qualityValue;
+          PlayerManager.getINSTANCE().applyEngineSettings();
+          ce.getChannel().sendMessage("OpusQuality has been set to `" + Settings.opusQuality + "`.").queue();
+        } else {
+          ce.getChannel().sendMessage(Error.SETTINGS_OPUS_QUALITY_RANGE.message).queue();
+        }
+      } catch (NumberFormatException e) {
+        ce.getChannel().sendMessage(Error.SETTINGS_OPUS_QUALITY_RANGE.message).queue();
+      }
+    }
+
+    /**
+     * Changes the resampling quality setting to low, medium, or high.
+     *
+     * @param value the resampling quality to be changed to
+     */
+    private void setResamplingQualitySetting(String value) {
+      try {
+        Settings.resamplingQuality = AudioConfiguration.ResamplingQuality.valueOf(value);
+        PlayerManager.getINSTANCE().applyEngineSettings();
+        ce.getChannel().sendMessage("ResamplingQuality has been set to `" + Settings.resamplingQuality + "`.").queue();
+      } catch (IllegalArgumentException e) {
+        ce.getChannel().sendMessage(Error.SPECIFY_LOW_MEDIUM_HIGH.message).queue();
+      }
+    }
+
+    /**
+     * Changes the loader threads setting to an integer value.
+     *
+     * @param value the integer value to be changed to
+     */
+    private void setLoaderThreadsSetting(String value) {
+      try {
+        int threadsValue = Integer.parseInt(value);
+        if (threadsValue >= 1 && threadsValue <= 50) {
+          Settings.loaderThreads = threadsValue;
+          PlayerManager.getINSTANCE().applyEngineSettings();
+          ce.getChannel().sendMessage("LoaderThreads has been set to `" + Settings.loaderThreads + "`.").queue();
+        } else {
+          ce.getChannel().sendMessage(Error.SETTINGS_LOADER_THREADS_RANGE.message).queue();
+        }
+      } catch (NumberFormatException e) {
+        ce.getChannel().sendMessage(Error.SETTINGS_LOADER_THREADS_RANGE.message).queue();
+      }
+    }
+
+    /**
+     * Changes the track stuck threshold setting to an integer value.
+     *
+     * @param value the integer value to be changed to
+     */
+    private void setTrackStuckThresholdSetting(String value) {
+      try {
+        int thresholdValue = Integer.parseInt(value);
+        if (thresholdValue >= 1000 && thresholdValue <= 60000) {
+          Settings.trackStuckThreshold = thresholdValue;
+          PlayerManager.getINSTANCE().applyEngineSettings();
+          ce.getChannel().sendMessage("TrackStuckThreshold has been set to `" + Settings.trackStuckThreshold + "`ms.").queue();
+        } else {
+          ce.getChannel().sendMessage(Error.SETTINGS_TRACK_STUCK_THRESHOLD_RANGE.message).queue();
+        }
+      } catch (NumberFormatException e) {
+        ce.getChannel().sendMessage(Error.SETTINGS_TRACK_STUCK_THRESHOLD_RANGE.message).queue();
+      }
+    }
+
+    /**
+     * Changes the stream cache size setting to an integer value and evicts cached streams past it.
+     *
+     * @param value the integer value to be changed to
+     */
+    private void setStreamCacheSizeSetting(String value) {
+      try {
+        int sizeValue = Integer.parseInt(value);
+        if (sizeValue >= 0 && sizeValue <= 65536) {
+          Settings.streamCacheSize = sizeValue;
+          PlayerManager.getINSTANCE().getStreamCache().trim();
+          ce.getChannel().sendMessage("StreamCacheSize has been set to `" + Settings.streamCacheSize + "`MB.").queue();
+        } else {
+          ce.getChannel().sendMessage(Error.SETTINGS_STREAM_CACHE_SIZE_RANGE.message).queue();
+        }
+      } catch (NumberFormatException e) {
+        ce.getChannel().sendMessage(Error.SETTINGS_STREAM_CACHE_SIZE_RANGE.message).queue();
+      }
+    }
+
+    /**
+     * Changes the idle timeout setting to an integer value.
+     *
+     * @param value the integer value to be changed to
+     */
+    private void setIdleTimeoutSetting(String value) {
+      try {
+        int timeoutValue = Integer.parseInt(value);
+        if (timeoutValue >= 1 && timeoutValue <= 120) {
+          Settings.idleTimeout = timeoutValue;
+          ce.getChannel().sendMessage("IdleTimeout has been set to `" + Settings.idleTimeout + "`min.").queue();
+        } else {
+          ce.getChannel().sendMessage(Error.SETTINGS_IDLE_TIMEOUT_RANGE.message).queue();
+        }
+      } catch (NumberFormatException e) {
+        ce.getChannel().sendMessage(Error.SETTINGS_IDLE_TIMEOUT_RANGE.message).queue();
+      }
+    }
+
     /**
      * Types of settings.
      */
@@ -279,7 +607,52 @@ public class Settings extends Command {
       /**
        * If to embed media links.
        */
-      EMBEDMEDIALINKS;
+      EMBEDMEDIALINKS,
+
+      /**
+       * How many upcoming tracks to buffer ahead of time.
+       */
+      PREFETCHDEPTH,
+
+      /**
+       * How many recently played tracks to keep in memory.
+       */
+      HISTORYSIZE,
+
+      /**
+       * How many milliseconds of audio each track buffers ahead.
+       */
+      FRAMEBUFFERDURATION,
+
+      /**
+       * Highest opus encoding quality.
+       */
+      OPUSQUALITY,
+
+      /**
+       * Resampling quality.
+       */
+      RESAMPLINGQUALITY,
+
+      /**
+       * How many threads load tracks and search results.
+       */
+      LOADERTHREADS,
+
+      /**
+       * How long a track can go without audio before it's considered stuck.
+       */
+      TRACKSTUCKTHRESHOLD,
+
+      /**
+       * How many megabytes of streams to cache on disk.
+       */
+      STREAMCACHESIZE,
+
+      /**
+       * How many minutes a guild can be idle before disconnecting.
+       */
+      IDLETIMEOUT;
     }
 
     /**
@@ -294,7 +667,52 @@ public class Settings extends Command {
       /**
        * Out of range or not in seconds.
        */
-      SETTINGS_EMBED_DECAY_RANGE("Provide between 15 - 120 seconds.");
+      SETTINGS_EMBED_DECAY_RANGE("Provide between 15 - 120 seconds."),
+
+      /**
+       * Out of range or not a number of tracks.
+       */
+      SETTINGS_PREFETCH_DEPTH_RANGE("Provide between 0 - 3 tracks."),
+
+      /**
+       * Out of range or not a number of tracks.
+       */
+      SETTINGS_HISTORY_SIZE_RANGE("Provide between 10 - 500 tracks."),
+
+      /**
+       * Out of range or not in milliseconds.
+       */
+      SETTINGS_FRAME_BUFFER_DURATION_RANGE("Provide between 1000 - 30000 milliseconds."),
+
+      /**
+       * Out of range or not a quality level.
+       */
+      SETTINGS_OPUS_QUALITY_RANGE("Provide between 0 - 10."),
+
+      /**
+       * Not a resampling quality.
+       */
+      SPECIFY_LOW_MEDIUM_HIGH("Provide low, medium, or high."),
+
+      /**
+       * Out of range or not a number of threads.
+       */
+      SETTINGS_LOADER_THREADS_RANGE("Provide between 1 - 50 threads."),
+
+      /**
+       * Out of range or not in milliseconds.
+       */
+      SETTINGS_TRACK_STUCK_THRESHOLD_RANGE("Provide between 1000 - 60000 milliseconds."),
+
+      /**
+       * Out of range or not in megabytes.
+       */
+      SETTINGS_STREAM_CACHE_SIZE_RANGE("Provide between 0 - 65536 megabytes."),
+
+      /**
+       * Out of range or not in minutes.
+       */
+      SETTINGS_IDLE_TIMEOUT_RANGE("Provide between 1 - 120 minutes.");
 
       /**
        * Message.
@@ -2,13 +2,14 @@ package me.bam6561.astarya.commands.owner;
 
 import com.jagrosh.jdautilities.command.Command;
 import com.jagrosh.jdautilities.command.CommandEvent;
+import me.bam6561.astarya.commands.audio.managers.PlayerManager;
 import net.dv8tion.jda.api.EmbedBuilder;
 
 /**
  * Command invocation that shuts the bot down.
  *
  * @author Danny Nguyen
- * @version 1.8.14
+ * @version 1.9.5
  * @since 1.0
  */
 public class Shutdown extends Command {
@@ -23,7 +24,7 @@ public class Shutdown extends Command {
   }
 
   /**
-   * Kills the Java application.
+   * Saves every guild's queue and kills the Java application.
    *
    * @param ce command event
    */
@@ -36,6 +37,7 @@ public class Shutdown extends Command {
     embed.setDescription("Well, it was fun while it lasted. Change the world... my final message. Goodbye. **Astarya is shutting down.**");
     Settings.sendEmbed(ce, embed);
 
+    PlayerManager.getINSTANCE().checkpointQueues();
     ce.getJDA().shutdown();
   }
 }
\ No newline at end of file
@@ -0,0 +1,165 @@
+package me.bam6561.astarya.utils;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Represents a bounded cache whose entries expire after a time to live.
+ * <p>
+ * When full, the least recently used entry is evicted. Expired
+ * entries are dropped when they're next looked up or iterated.
+ * <p>
+ * Lookups and insertions are O(1), and all operations are synchronized on the cache.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class ExpiringCache<K, V> {
+  /**
+   * Entries in least to most recently used order.
+   */
+  private final LinkedHashMap<K, CachedValue<V>> entries;
+
+  /**
+   * Time to live in milliseconds.
+   */
+  private final long timeToLive;
+
+  /**
+   * Associates the cache with its maximum size and time to live.
+   *
+   * @param maximumSize maximum number of entries
+   * @param timeToLive  time to live in milliseconds
+   */
+  public ExpiringCache(int maximumSize, long timeToLive) {
+    if (maximumSize < 1 || timeToLive < 1) {
+      throw new IllegalArgumentException("Non-positive size or time to live");
+    }
+    this.timeToLive = timeToLive;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, CachedValue<V>> eldest) {
+        return size() > maximumSize;
+      }
+    };
+  }
+
+  /**
+   * Gets a cached value and marks it as recently used.
+   *
+   * @param key key
+   * @return cached value, or null if absent or expired
+   */
+  @Nullable
+  public synchronized V get(@NotNull K key) {
+    CachedValue<V> entry = entries.get(Objects.requireNonNull(key, "Null key"));
+    if (entry == null) {
+      return null;
+    }
+    if (entry.expiry() <= System.currentTimeMillis()) {
+      entries.remove(key);
+      return null;
+    }
+    return entry.value();
+  }
+
+  /**
+   * Caches a value for the time to live.
+   *
+   * @param key   key
+   * @param value value
+   */
+  public void put(@NotNull K key, @NotNull V value) {
+    put(key, value, System.currentTimeMillis() + timeToLive);
+  }
+
+  /**
+   * Caches a value until an expiry time, such as one restored from disk.
+   * <p>
+   * Values that have already expired are ignored.
+   *
+   * @param key    key
+   * @param value  value
+   * @param expiry expiry time in epoch milliseconds
+   */
+  public synchronized void put(@NotNull K key, @NotNull V value, long expiry) {
+    Objects.requireNonNull(key, "Null key");
+    Objects.requireNonNull(value, "Null value");
+    if (expiry > System.currentTimeMillis()) {
+      entries.put(key, new CachedValue<>(value, expiry));
+    }
+  }
+
+  /**
+   * Removes a cached value.
+   *
+   * @param key key
+   */
+  public synchronized void remove(@NotNull K key) {
+    entries.remove(Objects.requireNonNull(key, "Null key"));
+  }
+
+  /**
+   * Passes each unexpired entry with its expiry time to an action, from least to most recently used.
+   * <p>
+   * Iterating doesn't change how recently entries were used.
+   *
+   * @param action action taking a key, value, and expiry time
+   */
+  public synchronized void forEach(@NotNull ExpiringEntryConsumer<K, V> action) {
+    Objects.requireNonNull(action, "Null action");
+    long now = System.currentTimeMillis();
+    entries.values().removeIf(entry -> entry.expiry() <= now);
+    entries.forEach((key, entry) -> action.accept(key, entry.value(), entry.expiry()));
+  }
+
+  /**
+   * Gets the number of cached entries, including ones that have expired but not yet been dropped.
+   *
+   * @return number of cached entries
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Represents a cached value with its expiry time.
+   *
+   * @param value  value
+   * @param expiry expiry time in epoch milliseconds
+   * @param <V>    value type
+   * @author Danny Nguyen
+   * @version 1.9.5
+   * @since 1.9.5
+   */
+  private record CachedValue<V>(V value, long expiry) {
+  }
+
+  /**
+   * Represents an action on a cached entry.
+   *
+   * @param <K> key type
+   * @param <V> value type
+   * @author Danny Nguyen
+   * @version 1.9.5
+   * @since 1.9.5
+   */
+  @FunctionalInterface
+  public interface ExpiringEntryConsumer<K, V> {
+    /**
+     * Acts on a cached entry.
+     *
+     * @param key    key
+     * @param value  value
+     * @param expiry expiry time in epoch milliseconds
+     */
+    void accept(K key, V value, long expiry);
+  }
+}
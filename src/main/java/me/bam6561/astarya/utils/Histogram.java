@@ -0,0 +1,147 @@
+package me.bam6561.astarya.utils;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Represents a histogram of values counted into fixed buckets.
+ * <p>
+ * Recording a value is lock-free and allocates nothing, so it
+ * can be done from the audio send loop. Each bucket counts the
+ * values up to its upper bound, and values above the last bound
+ * are counted in an overflow bucket.
+ *
+ * @author Danny Nguyen
+ * @version 1.9.5
+ * @since 1.9.5
+ */
+public class Histogram {
+  /**
+   * Upper bound of each bucket in ascending order.
+   */
+  private final long[] bounds;
+
+  /**
+   * Values counted per bucket, with the overflow bucket last.
+   */
+  private final AtomicLongArray buckets;
+
+  /**
+   * Sum of recorded values.
+   */
+  private final AtomicLong sum = new AtomicLong();
+
+  /**
+   * Largest recorded value.
+   */
+  private final AtomicLong maximum = new AtomicLong();
+
+  /**
+   * Associates the histogram with its bucket bounds.
+   *
+   * @param bounds upper bound of each bucket in ascending order
+   */
+  public Histogram(long @NotNull ... bounds) {
+    Objects.requireNonNull(bounds, "Null bounds");
+    for (int i = 1; i < bounds.length; i++) {
+      if (bounds[i] <= bounds[i - 1]) {
+        throw new IllegalArgumentException("Bounds not ascending");
+      }
+    }
+    this.bounds = bounds.clone();
+    this.buckets = new AtomicLongArray(bounds.length + 1);
+  }
+
+  /**
+   * Records a value.
+   *
+   * @param value value
+   */
+  public void record(long value) {
+    int bucket = 0;
+    while (bucket < bounds.length && value > bounds[bucket]) {
+      bucket++;
+    }
+    buckets.incrementAndGet(bucket);
+    sum.addAndGet(value);
+    maximum.accumulateAndGet(value, Math::max);
+  }
+
+  /**
+   * Gets the upper bound of each bucket.
+   *
+   * @return bucket bounds
+   */
+  @NotNull
+  public long[] getBounds() {
+    return Arrays.copyOf(this.bounds, this.bounds.length);
+  }
+
+  /**
+   * Gets the number of recorded values up to and including a bucket.
+   *
+   * @param bucket bucket index, or the number of bounds for every value
+   * @return cumulative count
+   */
+  public long getCumulativeCount(int bucket) {
+    long count = 0;
+    for (int i = 0; i <= bucket; i++) {
+      count += buckets.get(i);
+    }
+    return count;
+  }
+
+  /**
+   * Gets the number of recorded values.
+   *
+   * @return number of values
+   */
+  public long getCount() {
+    return getCumulativeCount(bounds.length);
+  }
+
+  /**
+   * Gets the sum of recorded values.
+   *
+   * @return sum of values
+   */
+  public long getSum() {
+    return this.sum.get();
+  }
+
+  /**
+   * Gets the largest recorded value.
+   *
+   * @return largest value, or 0 if none were recorded
+   */
+  public long getMaximum() {
+    return this.maximum.get();
+  }
+
+  /**
+   * Estimates a percentile as the upper bound of the bucket it falls in,
+   * or the largest recorded value if that's lower.
+   *
+   * @param percentile percentile from 0 to 100
+   * @return estimated value, or 0 if none were recorded
+   */
+  public long getPercentile(double percentile) {
+    long count = getCount();
+    if (count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+    long cumulativeCount = 0;
+    for (int i = 0; i < bounds.length; i++) {
+      cumulativeCount += buckets.get(i);
+      if (cumulativeCount >= rank) {
+        return Math.min(bounds[i], getMaximum());
+      }
+    }
+    return getMaximum();
+  }
+}